@@ -0,0 +1,432 @@
+package com.pizzashop.principal.caches;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Read-through cache with a size bound and a time to live.
+ * Concurrent misses of the same key are coalesced into a single load, the other callers
+ * wait for it and get its value or its exception. A value loaded while the cache was being
+ * invalidated is returned but not stored, so an invalidation is never undone by a stale load.
+ * The values must be immutable, they are shared by all the callers.
+ * A full cache evicts from a small sample of entries on each store, so a store never scans
+ * the whole cache; the expired entries outside the sample are left to purgeExpired.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private static final int EVICTION_SAMPLE_SIZE = 16;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final Map<K, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final int maxSize;
+
+    private final long ttl;
+
+    private final Function<? super V, Instant> expiration;
+
+    private final Timer loadTimer;
+
+    /**
+     * Cached value with its expiration.
+     *
+     * @param value     Value.
+     * @param expiresAt Long nanoTime.
+     */
+    private record Entry<V>(V value, long expiresAt) {
+
+        boolean isExpired(final long now) {
+            return expiresAt - now <= 0;
+        }
+    }
+
+    /**
+     * Create the cache and register its metrics with the cache name as tag.
+     *
+     * @param name          String cache name.
+     * @param maxSize       Int max number of entries.
+     * @param ttl           Duration time to live of the entries.
+     * @param meterRegistry MeterRegistry.
+     */
+    public BoundedTtlCache(final String name,
+                           final int maxSize,
+                           final Duration ttl,
+                           final MeterRegistry meterRegistry) {
+        this(name, maxSize, ttl, null, meterRegistry);
+    }
+
+    /**
+     * Create the cache for values with their own expiration, an entry is kept
+     * until its value expires or its time to live ends, whichever comes first.
+     *
+     * @param name          String cache name.
+     * @param maxSize       Int max number of entries.
+     * @param ttl           Duration max time to live of the entries.
+     * @param expiration    Function of the expiration of a value, null if the values don't expire.
+     * @param meterRegistry MeterRegistry.
+     */
+    public BoundedTtlCache(final String name,
+                           final int maxSize,
+                           final Duration ttl,
+                           final Function<? super V, Instant> expiration,
+                           final MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttl = ttl.toNanos();
+        this.expiration = expiration;
+
+        FunctionCounter.builder("cache.hits", hits, LongAdder::sum)
+                .tag("cache", name).register(meterRegistry);
+        FunctionCounter.builder("cache.misses", misses, LongAdder::sum)
+                .tag("cache", name).register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", name).register(meterRegistry);
+        Gauge.builder("cache.size", entries, Map::size)
+                .tag("cache", name).register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", this, BoundedTtlCache::hitRatio)
+                .tag("cache", name).register(meterRegistry);
+
+        loadTimer = Timer.builder("cache.load")
+                .tag("cache", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the cached value or load it.
+     *
+     * @param key    Key.
+     * @param loader Function to load the value of a missing key, it must not return null.
+     * @return Value.
+     */
+    public V get(final K key, final Function<? super K, ? extends V> loader) {
+        final long now = System.nanoTime();
+        final Entry<V> entry = entries.get(key);
+
+        if (entry != null) {
+            if (!entry.isExpired(now)) {
+                hits.increment();
+
+                return entry.value();
+            }
+
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+
+        final CompletableFuture<V> load = new CompletableFuture<>();
+        final CompletableFuture<V> running = loads.putIfAbsent(key, load);
+
+        if (running != null) {
+            return join(running);
+        }
+
+        final long loadGeneration = generation.get();
+
+        try {
+            final V value = loadTimer.record(() -> loader.apply(key));
+
+            if (generation.get() == loadGeneration) {
+                put(key, value);
+            }
+
+            load.complete(value);
+
+            return value;
+        } catch (RuntimeException exception) {
+            load.completeExceptionally(exception);
+
+            throw exception;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    /**
+     * Get the cached values of the keys, and load all the missing ones with a single call.
+     * The loaded values are stored under the same rule as get, a key without a loaded
+     * value is left out of the result.
+     *
+     * @param keys   Collection of keys.
+     * @param loader Function to load the values of the missing keys.
+     * @return Map of the keys with a value.
+     */
+    public <Q extends K> Map<Q, V> getAll(final Collection<Q> keys,
+                                          final Function<? super List<Q>, ? extends Map<Q, ? extends V>> loader) {
+        final long now = System.nanoTime();
+        final Map<Q, V> values = new HashMap<>();
+        final List<Q> missing = new ArrayList<>();
+
+        for (Q key : keys) {
+            final Entry<V> entry = entries.get(key);
+
+            if (entry != null && !entry.isExpired(now)) {
+                hits.increment();
+                values.put(key, entry.value());
+            } else {
+                misses.increment();
+                missing.add(key);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return values;
+        }
+
+        final long loadGeneration = generation.get();
+        final Map<Q, ? extends V> loaded = loadTimer.record(() -> loader.apply(missing));
+        final boolean store = generation.get() == loadGeneration;
+
+        loaded.forEach((key, value) -> {
+            if (store) {
+                put(key, value);
+            }
+
+            values.put(key, value);
+        });
+
+        return values;
+    }
+
+    /**
+     * Get the cached value without loading it.
+     *
+     * @param key Key.
+     * @return Value, null if it is not cached or it has expired.
+     */
+    public V getIfPresent(final K key) {
+        final Entry<V> entry = entries.get(key);
+
+        if (entry == null || entry.isExpired(System.nanoTime())) {
+            return null;
+        }
+
+        return entry.value();
+    }
+
+    /**
+     * Store a value.
+     *
+     * @param key   Key.
+     * @param value Value, null values and values that have already expired are not stored.
+     */
+    public void put(final K key, final V value) {
+        if (value == null) {
+            return;
+        }
+
+        final long timeToLive = timeToLive(value);
+
+        if (timeToLive <= 0) {
+            return;
+        }
+
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+
+        entries.put(key, new Entry<>(value, System.nanoTime() + timeToLive));
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @param key Key.
+     */
+    public void invalidate(final K key) {
+        generation.incrementAndGet();
+        entries.remove(key);
+    }
+
+    /**
+     * Remove the keys of the values that match a condition.
+     *
+     * @param condition Predicate of the values to remove.
+     */
+    public void invalidateIf(final Predicate<? super V> condition) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> condition.test(entry.value()));
+    }
+
+    /**
+     * Remove all the keys.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Evict the expired entries.
+     */
+    public void purgeExpired() {
+        final long now = System.nanoTime();
+
+        entries.entrySet().removeIf(entry -> {
+            if (entry.getValue().isExpired(now)) {
+                evictions.increment();
+
+                return true;
+            }
+
+            return false;
+        });
+    }
+
+    /**
+     * Ratio of hits since the start.
+     *
+     * @return Double between 0 and 1.
+     */
+    public double hitRatio() {
+        final long hitCount = hits.sum();
+        final long total = hitCount + misses.sum();
+
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Number of hits since the start.
+     *
+     * @return Long.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of misses since the start.
+     *
+     * @return Long.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Number of evictions since the start.
+     *
+     * @return Long.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Number of entries, including the expired ones not evicted yet.
+     *
+     * @return Int.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Time to live of a value, bounded by its own expiration.
+     *
+     * @param value Value.
+     * @return Long nanoseconds, 0 or less if the value has already expired.
+     */
+    private long timeToLive(final V value) {
+        final Instant expiresAt = expiration == null ? null : expiration.apply(value);
+
+        if (expiresAt == null) {
+            return ttl;
+        }
+
+        final long remaining = expiresAt.toEpochMilli() - System.currentTimeMillis();
+
+        return remaining <= 0 ? 0 : Math.min(ttl, TimeUnit.MILLISECONDS.toNanos(remaining));
+    }
+
+    /**
+     * Keep the cache under its size bound with a bounded amount of work, evicting the expired
+     * entries of a sample and then the sampled entry that expires first, while there is no room.
+     */
+    private void makeRoom() {
+        final long now = System.nanoTime();
+        final Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+
+        K victim = null;
+        Entry<V> victimEntry = null;
+
+        for (int sampled = 0; sampled < EVICTION_SAMPLE_SIZE && iterator.hasNext(); sampled++) {
+            final Map.Entry<K, Entry<V>> candidate = iterator.next();
+            final Entry<V> entry = candidate.getValue();
+
+            if (entry.isExpired(now)) {
+                evict(candidate.getKey(), entry);
+            } else if (victimEntry == null || entry.expiresAt() - victimEntry.expiresAt() < 0) {
+                victim = candidate.getKey();
+                victimEntry = entry;
+            }
+        }
+
+        if (entries.size() >= maxSize && victim != null) {
+            evict(victim, victimEntry);
+        }
+    }
+
+    /**
+     * Evict an entry, unless it has been replaced meanwhile.
+     *
+     * @param key   Key.
+     * @param entry Entry.
+     */
+    private void evict(final K key, final Entry<V> entry) {
+        if (entries.remove(key, entry)) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Wait for a running load.
+     *
+     * @param running CompletableFuture of the load.
+     * @return Value.
+     */
+    private V join(final CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw exception;
+        }
+    }
+}
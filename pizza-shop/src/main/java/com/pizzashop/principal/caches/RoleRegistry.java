@@ -0,0 +1,200 @@
+package com.pizzashop.principal.caches;
+
+import com.pizzashop.principal.entities.RoleEntity;
+import com.pizzashop.principal.exceptions.EntityNotFoundException;
+import com.pizzashop.principal.repositories.RoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copy-on-write registry of the roles by name and by id.
+ * The roles are a tiny table that rarely changes, so the whole table is kept in an immutable
+ * snapshot that is swapped atomically on every role write, and the readers never lock.
+ * The roles are detached copies shared by all the readers, they must not be modified.
+ * A name or id that is not in the snapshot reloads it once, for the roles inserted outside
+ * of the RoleService.
+ * Each role name also gets a bit position for the role masks of the authorizations.
+ */
+@Component
+@Slf4j
+public class RoleRegistry {
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private static final int NO_BIT = -1;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+
+    private final Map<String, Integer> bits = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextBit = new AtomicInteger();
+
+    /**
+     * Immutable roles by name and by id.
+     *
+     * @param byName Roles by name.
+     * @param byId   Roles by id.
+     */
+    private record Snapshot(Map<String, RoleEntity> byName, Map<Long, RoleEntity> byId) {
+
+        static Snapshot of(final Collection<RoleEntity> roles) {
+            final Map<String, RoleEntity> byName = new HashMap<>();
+            final Map<Long, RoleEntity> byId = new HashMap<>();
+
+            roles.forEach(role -> {
+                byName.put(role.getName(), role);
+                byId.put(role.getId(), role);
+            });
+
+            return new Snapshot(Map.copyOf(byName), Map.copyOf(byId));
+        }
+    }
+
+    /**
+     * Load all the roles.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.info("Executing load from RoleRegistry");
+
+        reload();
+    }
+
+    /**
+     * Find a role by name.
+     *
+     * @param name String name.
+     * @return RoleEntity.
+     * @throws EntityNotFoundException If the role doesn't exist.
+     */
+    public RoleEntity findRoleByName(final String name) {
+        RoleEntity role = snapshot.byName().get(name);
+
+        if (role == null) {
+            role = reload().byName().get(name);
+        }
+
+        if (role == null) {
+            throw new EntityNotFoundException("Couldn't find " +
+                    RoleEntity.class.getSimpleName() + " with name: " + name);
+        }
+
+        return role;
+    }
+
+    /**
+     * Find a role by id.
+     *
+     * @param id Long id.
+     * @return RoleEntity.
+     * @throws EntityNotFoundException If the role doesn't exist.
+     */
+    public RoleEntity findRoleById(final Long id) {
+        RoleEntity role = snapshot.byId().get(id);
+
+        if (role == null) {
+            role = reload().byId().get(id);
+        }
+
+        if (role == null) {
+            throw new EntityNotFoundException("Couldn't find " +
+                    RoleEntity.class.getSimpleName() + " with id: " + id);
+        }
+
+        return role;
+    }
+
+    /**
+     * Get all the roles.
+     *
+     * @return Immutable collection of roles.
+     */
+    public Collection<RoleEntity> findAllRoles() {
+        return snapshot.byId().values();
+    }
+
+    /**
+     * Get the bit position of a role name in the role masks.
+     * The positions are given on first use and never change while the app runs,
+     * so a mask can only hold the first 64 role names.
+     *
+     * @param name String role name.
+     * @return Int bit position, -1 if there are no positions left.
+     */
+    public int bitOf(final String name) {
+        return bits.computeIfAbsent(name, key -> {
+            final int bit = nextBit.getAndIncrement();
+
+            return bit < Long.SIZE ? bit : NO_BIT;
+        });
+    }
+
+    /**
+     * Add or replace a role after it is saved or updated.
+     *
+     * @param role RoleEntity saved.
+     */
+    public synchronized void put(final RoleEntity role) {
+        final Map<Long, RoleEntity> roles = new HashMap<>(snapshot.byId());
+
+        roles.put(role.getId(), copy(role));
+
+        snapshot = Snapshot.of(roles.values());
+    }
+
+    /**
+     * Remove a role after it is deleted.
+     *
+     * @param id Long id.
+     */
+    public synchronized void remove(final Long id) {
+        final Map<Long, RoleEntity> roles = new HashMap<>(snapshot.byId());
+
+        roles.remove(id);
+
+        snapshot = Snapshot.of(roles.values());
+    }
+
+    /**
+     * Replace the snapshot with the roles from the database.
+     *
+     * @return Snapshot.
+     */
+    private synchronized Snapshot reload() {
+        final List<RoleEntity> roles = roleRepository.findAll().stream()
+                .map(this::copy)
+                .toList();
+
+        snapshot = Snapshot.of(roles);
+
+        roles.forEach(role -> bitOf(role.getName()));
+
+        return snapshot;
+    }
+
+    /**
+     * Detached copy of a role, so later changes to the entity don't leak into the snapshot.
+     *
+     * @param role RoleEntity.
+     * @return RoleEntity.
+     */
+    private RoleEntity copy(final RoleEntity role) {
+        return RoleEntity.builder()
+                .id(role.getId())
+                .name(role.getName())
+                .description(role.getDescription())
+                .version(role.getVersion())
+                .build();
+    }
+}
@@ -1,18 +1,40 @@
 package com.pizzashop.principal.configs;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
 
 @Configuration
+@Slf4j
 public class JPAConfig {
 
+    /**
+     * Same as the allocation size of the sequences, so a block of ids is a batch of inserts.
+     */
+    private static final int BATCH_SIZE = 50;
+
+    /**
+     * Tables with an id from a pooled sequence named table_seq.
+     */
+    private static final List<String> SEQUENCE_TABLES = List.of(
+            "t_role", "t_user", "t_category", "t_product", "t_refresh_token");
+
     @Autowired
     private EntityManagerFactory entityManagerFactory;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     /**
      * Extract the Session from the Entity Manager.
      *
@@ -24,4 +46,38 @@ public class JPAConfig {
                 .unwrap(SessionFactory.class).openSession();
     }
 
+    /**
+     * JDBC batching of the inserts and updates, ordered by entity so the statements
+     * of the same entity go in the same batch.
+     * The IN-list parameters are padded to a power of 2, so the multi-get queries of
+     * different sizes share a few statements in the plan caches.
+     * The spring.jpa.properties values have priority.
+     *
+     * @return HibernatePropertiesCustomizer.
+     */
+    @Bean
+    public static HibernatePropertiesCustomizer batchingPropertiesCustomizer() {
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, BATCH_SIZE);
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            properties.putIfAbsent(AvailableSettings.IN_CLAUSE_PARAMETER_PADDING, true);
+        };
+    }
+
+    /**
+     * Move the sequences after the existing ids.
+     * The tables created with identity columns already have ids that a new sequence
+     * would give again, a sequence is only moved forward, never back.
+     */
+    @PostConstruct
+    public void alignSequences() {
+        log.info("Executing alignSequences from JPAConfig");
+
+        SEQUENCE_TABLES.forEach(table -> jdbcTemplate.queryForList(
+                "SELECT setval('" + table + "_seq', (SELECT MAX(id) FROM " + table + ")) " +
+                        "WHERE (SELECT MAX(id) FROM " + table + ") >= " +
+                        "(SELECT last_value FROM " + table + "_seq)"));
+    }
+
 }
@@ -0,0 +1,26 @@
+package com.pizzashop.principal.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Value("${web.async.request-timeout:3600000}")
+    private long ASYNC_REQUEST_TIMEOUT;
+
+    /**
+     * Async Support
+     * Timeout of the streamed responses, the default of the container(30 seconds)
+     * would cut the export of a large catalog.
+     *
+     * @param configurer AsyncSupportConfigurer
+     */
+    @Override
+    public void configureAsyncSupport(final AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(ASYNC_REQUEST_TIMEOUT);
+    }
+
+}
@@ -1,22 +1,37 @@
 package com.pizzashop.principal.configs;
 
+import com.pizzashop.principal.caches.RoleRegistry;
 import com.pizzashop.principal.security.AccessDeniedHandlerImpl;
 import com.pizzashop.principal.security.JwtAuthenticationFilter;
+import com.pizzashop.principal.security.PasswordHashingService;
+import com.pizzashop.principal.security.RoleMaskAuthorizationManager;
 import com.pizzashop.principal.security.UnauthorizedEntryPointImpl;
 import com.pizzashop.principal.services.impls.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.method.AuthorizationManagerAfterMethodInterceptor;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.authorization.method.PostAuthorizeAuthorizationManager;
+import org.springframework.security.authorization.method.PostFilterAuthorizationMethodInterceptor;
+import org.springframework.security.authorization.method.PreFilterAuthorizationMethodInterceptor;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -27,7 +42,7 @@ import java.util.List;
 
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity
+@EnableMethodSecurity(prePostEnabled = false)
 @Slf4j
 public class WebSecurityConfig {
 
@@ -40,12 +55,19 @@ public class WebSecurityConfig {
     @Autowired
     private AccessDeniedHandlerImpl accessDeniedHandler;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
     @Value("${app.environment}")
     private String APP_ENVIRONMENT;
 
+    @Value("${jwt.renewal.header:X-Renewed-Token}")
+    private String RENEWAL_HEADER;
+
     /**
      * Authentication Manager
      * Changing the User Details Service to a custom(UserDetailsServiceImpl).
+     * The passwords are checked in the bounded pool of the PasswordHashingService.
      *
      * @return AuthenticationManager
      */
@@ -57,7 +79,7 @@ public class WebSecurityConfig {
 
         authenticationManagerBuilder
                 .userDetailsService(userDetailsService)
-                .passwordEncoder(bCryptPasswordEncoder());
+                .passwordEncoder(passwordHashingService);
 
         return authenticationConfiguration.getAuthenticationManager();
     }
@@ -65,6 +87,7 @@ public class WebSecurityConfig {
     /**
      * CORS Configuration for the application.
      * Allowing Origins from front-end React App(<a href="http://localhost:3000/">...</a>)
+     * Exposing the renewed token header to it
      *
      * @return CorsConfigurationSource
      */
@@ -83,6 +106,8 @@ public class WebSecurityConfig {
                 "Authorization", "Origin", "Accept", "Access-Control-Request-Method",
                 "Access-Control-Request-Headers"));
 
+        configuration.setExposedHeaders(List.of(RENEWAL_HEADER));
+
         configuration.setMaxAge(3600L);
 
         configuration.setAllowCredentials(true);
@@ -96,7 +121,8 @@ public class WebSecurityConfig {
 
     /**
      * Security Filter Chain
-     * Free URLs (auth, swagger)
+     * Free URLs (auth, jwks, swagger)
+     * Free async dispatches, the request was authorized before it was started(streamed exports)
      * Exception Handler for Authentication(UnauthorizedEntryPointImpl)
      * Exception Handler for Access Denied(AccessDeniedHandlerImpl)
      * Authentication Filter(JwtAuthenticationFilter)
@@ -112,7 +138,9 @@ public class WebSecurityConfig {
         httpSecurity.cors().and()
                 .csrf().disable()
                 .authorizeHttpRequests()
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/v1/auth/**").permitAll()
+                .requestMatchers("/.well-known/jwks.json").permitAll()
                 .requestMatchers("/v3/api-docs/**", "/configuration/**",
                         "/swagger*/**", "/webjars/**").permitAll()
                 .anyRequest().authenticated()
@@ -130,14 +158,87 @@ public class WebSecurityConfig {
     }
 
     /**
-     * Password Encoder Bean
-     * Method: BCryptPasswordEncoder
+     * Method Security Expression Handler
+     * The pre/post annotations are not enabled on @EnableMethodSecurity, their advisors are
+     * registered below, so the handler is built here with the context to resolve the bean
+     * references(@bean) of the expressions.
+     *
+     * @return MethodSecurityExpressionHandler
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler(
+            final ApplicationContext applicationContext) {
+        DefaultMethodSecurityExpressionHandler expressionHandler =
+                new DefaultMethodSecurityExpressionHandler();
+
+        expressionHandler.setApplicationContext(applicationContext);
+
+        return expressionHandler;
+    }
+
+    /**
+     * Method Security Advisor for @PreAuthorize
+     * Role checks are done with the role mask of the authentication(RoleMaskAuthorizationManager),
+     * other expressions are still evaluated with SpEL.
+     * The RoleRegistry is resolved lazily, the advisor is created before the other beans.
+     *
+     * @return Advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAdvisor(final ObjectProvider<RoleRegistry> roleRegistry,
+                                       final MethodSecurityExpressionHandler expressionHandler) {
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(
+                new RoleMaskAuthorizationManager(roleRegistry::getObject, expressionHandler));
+    }
+
+    /**
+     * Method Security Advisor for @PostAuthorize
      *
-     * @return BCryptPasswordEncoder
+     * @return Advisor
      */
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor postAuthorizeAdvisor(final MethodSecurityExpressionHandler expressionHandler) {
+        PostAuthorizeAuthorizationManager authorizationManager =
+                new PostAuthorizeAuthorizationManager();
+
+        authorizationManager.setExpressionHandler(expressionHandler);
+
+        return AuthorizationManagerAfterMethodInterceptor.postAuthorize(authorizationManager);
+    }
+
+    /**
+     * Method Security Advisor for @PreFilter
+     *
+     * @return Advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preFilterAdvisor(final MethodSecurityExpressionHandler expressionHandler) {
+        PreFilterAuthorizationMethodInterceptor interceptor =
+                new PreFilterAuthorizationMethodInterceptor();
+
+        interceptor.setExpressionHandler(expressionHandler);
+
+        return interceptor;
+    }
+
+    /**
+     * Method Security Advisor for @PostFilter
+     *
+     * @return Advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor postFilterAdvisor(final MethodSecurityExpressionHandler expressionHandler) {
+        PostFilterAuthorizationMethodInterceptor interceptor =
+                new PostFilterAuthorizationMethodInterceptor();
+
+        interceptor.setExpressionHandler(expressionHandler);
+
+        return interceptor;
     }
 
     /**
@@ -4,6 +4,7 @@ package com.pizzashop.principal.controllers.exception;
 import com.pizzashop.principal.dtos.ExceptionResponseDTO;
 import com.pizzashop.principal.exceptions.*;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -92,4 +93,53 @@ public class CustomExceptionHandlerRestController {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exceptionResponseDTO);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ResponseEntity<?> preconditionFailedExceptionHandler
+            (PreconditionFailedException exception) {
+        log.info("Executing preconditionFailedExceptionHandler from " +
+                "CustomExceptionHandlerRestController");
+
+        ExceptionResponseDTO exceptionResponseDTO = new ExceptionResponseDTO(
+                HttpStatus.PRECONDITION_FAILED.value(),
+                exception.getMessage(),
+                LocalDate.now());
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(exceptionResponseDTO);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<?> serviceUnavailableExceptionHandler
+            (ServiceUnavailableException exception) {
+        log.info("Executing serviceUnavailableExceptionHandler from " +
+                "CustomExceptionHandlerRestController");
+
+        ExceptionResponseDTO exceptionResponseDTO = new ExceptionResponseDTO(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                exception.getMessage(),
+                LocalDate.now());
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(exceptionResponseDTO);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ResponseEntity<?> tooManyRequestsExceptionHandler
+            (TooManyRequestsException exception) {
+        log.info("Executing tooManyRequestsExceptionHandler from " +
+                "CustomExceptionHandlerRestController");
+
+        ExceptionResponseDTO exceptionResponseDTO = new ExceptionResponseDTO(
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                exception.getMessage(),
+                LocalDate.now());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(exceptionResponseDTO);
+    }
+
 }
@@ -5,6 +5,7 @@ import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.AuthenticationException;
@@ -138,6 +139,19 @@ public class SystemExceptionHandlerRestController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exceptionResponseDTO);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<?> optimisticLockingFailureExceptionHandler
+            (OptimisticLockingFailureException exception) {
+        log.info("Executing optimisticLockingFailureExceptionHandler from " +
+                "SystemExceptionHandlerRestController");
+
+        ExceptionResponseDTO exceptionResponseDTO = getExceptionDTO(
+                HttpStatus.CONFLICT, "The entity was changed by another request.");
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(exceptionResponseDTO);
+    }
+
     @ExceptionHandler(ExpiredJwtException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<?> expiredJwtExceptionHandler
@@ -78,7 +78,7 @@ public class AuthRestController {
     public ResponseEntity<?> logout() {
         log.info("Executing logout from AuthRestController");
 
-        authService.logout();
+        authService.logout(request);
 
         return ResponseEntity.ok(new MessageResponseDTO("Logout successfully."));
     }
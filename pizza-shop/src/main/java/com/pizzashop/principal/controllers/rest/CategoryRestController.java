@@ -1,8 +1,13 @@
 package com.pizzashop.principal.controllers.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pizzashop.principal.dtos.BatchResponseDTO;
 import com.pizzashop.principal.dtos.CategoryRequestDTO;
+import com.pizzashop.principal.dtos.CategoryResponseDTO;
+import com.pizzashop.principal.dtos.MenuResponseDTO;
 import com.pizzashop.principal.entities.CategoryEntity;
 import com.pizzashop.principal.services.CategoryService;
+import com.pizzashop.principal.services.MenuService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,9 +17,12 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -28,6 +36,9 @@ public class CategoryRestController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private MenuService menuService;
+
     @Operation(
             summary = "Save Category",
             description = "Save a new category into the database."
@@ -53,15 +64,39 @@ public class CategoryRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = CategoryEntity.class)))}
+                            schema = @Schema(implementation = CategoryEntity.class))),
+            @ApiResponse(responseCode = "412", description = "The If-Match version is outdated.")}
     )
     @PutMapping(value = "/{id}")
     public ResponseEntity<?> updateCategory(@PathVariable final Long id,
                                             @RequestBody @Valid final
-                                            CategoryRequestDTO categoryRequestDTO) {
+                                            CategoryRequestDTO categoryRequestDTO,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                            final String ifMatch) {
         log.info("Executing updateCategory from CategoryRestController");
 
-        return ResponseEntity.ok(categoryService.updateCategory(id, categoryRequestDTO));
+        return ResponseEntity.ok(categoryService.updateCategory(id, categoryRequestDTO, ETags.tagOf(ifMatch)));
+    }
+
+    @Operation(
+            summary = "Patch Category",
+            description = "Update only the fields of a JSON Merge Patch of a existent category from the database."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CategoryEntity.class))),
+            @ApiResponse(responseCode = "400", description = "The patched category is not valid."),
+            @ApiResponse(responseCode = "412", description = "The If-Match version is outdated.")}
+    )
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchCategory(@PathVariable final Long id,
+                                           @RequestBody final JsonNode patch,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                           final String ifMatch) {
+        log.info("Executing patchCategory from CategoryRestController");
+
+        return ResponseEntity.ok(categoryService.patchCategory(id, patch, ETags.tagOf(ifMatch)));
     }
 
     @Operation(
@@ -87,13 +122,49 @@ public class CategoryRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = List.class)))}
+                            schema = @Schema(implementation = List.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the If-None-Match version.")}
     )
     @GetMapping
-    public ResponseEntity<?> getAllCategories() {
+    public ResponseEntity<?> getAllCategories(final WebRequest request) {
         log.info("Executing getAllCategories from CategoryRestController");
 
-        return ResponseEntity.ok(categoryService.findAllCategories());
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            final String eTag = ETags.of(categoryService.findCategoriesVersion());
+
+            if (request.checkNotModified(eTag)) {
+                return ETags.notModified(eTag);
+            }
+        }
+
+        final List<CategoryResponseDTO> categories = categoryService.findAllCategories();
+
+        return ResponseEntity.ok().eTag(ETags.of(categoryService.versionOf(categories))).body(categories);
+    }
+
+    @Operation(
+            summary = "Find the Menu",
+            description = "Find every category with its products. The menu is a snapshot, " +
+                    "built again only after a product or a category is written."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = MenuResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the If-None-Match version.")}
+    )
+    @GetMapping(value = "/menu")
+    public ResponseEntity<?> getMenu(final WebRequest request) {
+        log.info("Executing getMenu from CategoryRestController");
+
+        final MenuResponseDTO menu = menuService.findMenu();
+        final String eTag = ETags.of(menu.version());
+
+        if (request.checkNotModified(eTag)) {
+            return ETags.notModified(eTag);
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(menu);
     }
 
     @Operation(
@@ -103,13 +174,21 @@ public class CategoryRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = CategoryEntity.class)))}
+                            schema = @Schema(implementation = CategoryResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the If-None-Match version.")}
     )
     @GetMapping(value = "/{id}")
-    public ResponseEntity<?> getCategoryById(@PathVariable final Long id) {
+    public ResponseEntity<?> getCategoryById(@PathVariable final Long id,
+                                             final WebRequest request) {
         log.info("Executing getCategoryById from CategoryRestController");
 
-        return ResponseEntity.ok(categoryService.findCategoryById(id));
+        final String eTag = ETags.of(categoryService.findCategoryVersion(id));
+
+        if (request.checkNotModified(eTag)) {
+            return ETags.notModified(eTag);
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(categoryService.findCategoryById(id));
     }
 
     @Operation(
@@ -119,7 +198,7 @@ public class CategoryRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = CategoryEntity.class)))}
+                            schema = @Schema(implementation = CategoryResponseDTO.class)))}
     )
     @GetMapping(value = "/by/name/{name}")
     public ResponseEntity<?> getCategoryByName(@PathVariable final String name) {
@@ -128,4 +207,39 @@ public class CategoryRestController {
         return ResponseEntity.ok(categoryService.findCategoryByName(name));
     }
 
+    @Operation(
+            summary = "Find Categories by Ids",
+            description = "Find the categories of a list of ids, in the order of the ids, " +
+                    "with the ids that don't exist as missing."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "There are too many ids.")}
+    )
+    @GetMapping(value = "/by/ids")
+    public ResponseEntity<?> getCategoriesByIds(@RequestParam final List<Long> ids) {
+        log.info("Executing getCategoriesByIds from CategoryRestController");
+
+        return ResponseEntity.ok(categoryService.findCategoriesByIds(ids));
+    }
+
+    @Operation(
+            summary = "Find Categories by Ids",
+            description = "Find the categories of a list of ids in the body, for the lists too long for a query string."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "There are too many ids.")}
+    )
+    @PostMapping(value = "/by/ids")
+    public ResponseEntity<?> postCategoriesByIds(@RequestBody final List<Long> ids) {
+        log.info("Executing postCategoriesByIds from CategoryRestController");
+
+        return ResponseEntity.ok(categoryService.findCategoriesByIds(ids));
+    }
+
 }
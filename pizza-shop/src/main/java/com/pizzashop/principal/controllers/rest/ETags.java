@@ -0,0 +1,50 @@
+package com.pizzashop.principal.controllers.rest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Strong ETags from the version tags of the services.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @param tag String version tag.
+     * @return String quoted ETag.
+     */
+    static String of(final String tag) {
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * Version tag of an If-Match header.
+     *
+     * @param ifMatch String If-Match header, it can be null.
+     * @return String version tag, null if there is no header or it is "*".
+     * @throws IllegalArgumentException If the header is not a strong ETag.
+     */
+    static String tagOf(final String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        final String eTag = ifMatch.trim();
+
+        if (eTag.length() < 2 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+            throw new IllegalArgumentException("This is not a valid ETag.");
+        }
+
+        return eTag.substring(1, eTag.length() - 1);
+    }
+
+    /**
+     * @param eTag String quoted ETag.
+     * @return ResponseEntity 304 without body.
+     */
+    static ResponseEntity<?> notModified(final String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+}
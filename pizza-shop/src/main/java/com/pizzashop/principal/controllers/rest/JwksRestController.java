@@ -0,0 +1,38 @@
+package com.pizzashop.principal.controllers.rest;
+
+import com.pizzashop.principal.security.SigningKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@Slf4j
+public class JwksRestController {
+
+    @Autowired
+    private SigningKeyRing signingKeyRing;
+
+    @Operation(
+            summary = "JSON Web Key Set",
+            description = "Public keys to verify the tokens, empty when the tokens are signed with HMAC."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation")}
+    )
+    @GetMapping(value = "/.well-known/jwks.json")
+    public ResponseEntity<?> getJwks() {
+        log.info("Executing getJwks from JwksRestController");
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(signingKeyRing.getJwks());
+    }
+}
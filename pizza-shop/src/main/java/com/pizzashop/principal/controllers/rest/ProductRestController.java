@@ -1,7 +1,15 @@
 package com.pizzashop.principal.controllers.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pizzashop.principal.dtos.BatchResponseDTO;
+import com.pizzashop.principal.dtos.FileFormat;
+import com.pizzashop.principal.dtos.PageRequestDTO;
+import com.pizzashop.principal.dtos.PageResponseDTO;
+import com.pizzashop.principal.dtos.ProductImportReportDTO;
 import com.pizzashop.principal.dtos.ProductRequestDTO;
+import com.pizzashop.principal.dtos.ProductResponseDTO;
 import com.pizzashop.principal.entities.ProductEntity;
+import com.pizzashop.principal.services.ProductImportService;
 import com.pizzashop.principal.services.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,11 +19,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -28,6 +44,9 @@ public class ProductRestController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
     @Operation(
             summary = "Save Product",
             description = "Save a new product into the database."
@@ -45,6 +64,25 @@ public class ProductRestController {
         return ResponseEntity.ok(productService.saveProduct(productRequestDTO));
     }
 
+    @Operation(
+            summary = "Import Products",
+            description = "Import products from a NDJSON or CSV body into the database. " +
+                    "The report has the result of every row."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductImportReportDTO.class))),
+            @ApiResponse(responseCode = "400", description = "The CSV header is not valid.")}
+    )
+    @PostMapping(value = "/import")
+    public ResponseEntity<?> importProducts(@RequestParam(defaultValue = "ndjson") final String format,
+                                            final InputStream inputStream) throws IOException {
+        log.info("Executing importProducts from ProductRestController");
+
+        return ResponseEntity.ok(productImportService.importProducts(FileFormat.of(format), inputStream));
+    }
+
     @Operation(
             summary = "Update Product",
             description = "Update an existent product from the database."
@@ -52,14 +90,38 @@ public class ProductRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = ProductEntity.class)))}
+                            schema = @Schema(implementation = ProductEntity.class))),
+            @ApiResponse(responseCode = "412", description = "The If-Match version is outdated.")}
     )
     @PutMapping(value = "/{id}")
     public ResponseEntity<?> updateProduct(@PathVariable final Long id,
-                                           @RequestBody @Valid final ProductRequestDTO productRequestDTO) {
+                                           @RequestBody @Valid final ProductRequestDTO productRequestDTO,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                           final String ifMatch) {
         log.info("Executing updateProduct from ProductRestController");
 
-        return ResponseEntity.ok(productService.updateProduct(id, productRequestDTO));
+        return ResponseEntity.ok(productService.updateProduct(id, productRequestDTO, ETags.tagOf(ifMatch)));
+    }
+
+    @Operation(
+            summary = "Patch Product",
+            description = "Update only the fields of a JSON Merge Patch of an existent product from the database."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductEntity.class))),
+            @ApiResponse(responseCode = "400", description = "The patched product is not valid."),
+            @ApiResponse(responseCode = "412", description = "The If-Match version is outdated.")}
+    )
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchProduct(@PathVariable final Long id,
+                                          @RequestBody final JsonNode patch,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                          final String ifMatch) {
+        log.info("Executing patchProduct from ProductRestController");
+
+        return ResponseEntity.ok(productService.patchProduct(id, patch, ETags.tagOf(ifMatch)));
     }
 
     @Operation(
@@ -79,51 +141,136 @@ public class ProductRestController {
     }
 
     @Operation(
-            summary = "Find All Products",
-            description = "Find all existent products from the database."
+            summary = "Find Products",
+            description = "Find a page of existent products from the database, " +
+                    "sorted by id, name or price. The next cursor gives the following page. " +
+                    "With all=true all the products are returned as a list."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = List.class)))}
+                            schema = @Schema(implementation = PageResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the If-None-Match version.")}
     )
     @GetMapping
-    public ResponseEntity<?> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(@ParameterObject final PageRequestDTO pageRequestDTO,
+                                            @RequestParam(defaultValue = "false") final boolean all,
+                                            final WebRequest request) {
         log.info("Executing getAllProducts from ProductRestController");
 
-        return ResponseEntity.ok(productService.findAllProducts());
+        if (!all) {
+            return ResponseEntity.ok(productService.findProductsPage(pageRequestDTO));
+        }
+
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            final String eTag = ETags.of(productService.findProductsVersion());
+
+            if (request.checkNotModified(eTag)) {
+                return ETags.notModified(eTag);
+            }
+        }
+
+        final List<ProductResponseDTO> products = productService.findAllProducts();
+
+        return ResponseEntity.ok().eTag(ETags.of(productService.versionOf(products))).body(products);
+    }
+
+    @Operation(
+            summary = "Export Products",
+            description = "Export all existent products from the database as NDJSON or CSV. " +
+                    "The products are streamed as they are read."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = {@Content(mediaType = "application/x-ndjson"),
+                            @Content(mediaType = "text/csv")})}
+    )
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") final String format) {
+        log.info("Executing exportProducts from ProductRestController");
+
+        final FileFormat fileFormat = FileFormat.of(format);
+
+        final StreamingResponseBody body = outputStream ->
+                productService.exportProducts(fileFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fileFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + fileFormat.getExtension())
+                        .build().toString())
+                .body(body);
     }
 
     @Operation(
             summary = "Find Products",
-            description = "Find by statusValue a existent products from the database."
+            description = "Find by statusValue a page of existent products from the database. " +
+                    "With all=true all the products are returned as a list."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = List.class)))}
+                            schema = @Schema(implementation = PageResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the If-None-Match version.")}
     )
     @GetMapping(value = "/by/status/{value}")
-    public ResponseEntity<?> getProductsByStatus(@PathVariable final String value) {
+    public ResponseEntity<?> getProductsByStatus(@PathVariable final String value,
+                                                 @ParameterObject final PageRequestDTO pageRequestDTO,
+                                                 @RequestParam(defaultValue = "false") final boolean all,
+                                                 final WebRequest request) {
         log.info("Executing getProductByStatus from ProductRestController");
 
-        return ResponseEntity.ok(productService.findProductsByStatus(value));
+        if (!all) {
+            return ResponseEntity.ok(productService.findProductsPageByStatus(value, pageRequestDTO));
+        }
+
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            final String eTag = ETags.of(productService.findProductsVersionByStatus(value));
+
+            if (request.checkNotModified(eTag)) {
+                return ETags.notModified(eTag);
+            }
+        }
+
+        final List<ProductResponseDTO> products = productService.findProductsByStatus(value);
+
+        return ResponseEntity.ok().eTag(ETags.of(productService.versionOf(products))).body(products);
     }
 
     @Operation(
             summary = "Find Products",
-            description = "Find by category id a existent products from the database."
+            description = "Find by category id a page of existent products from the database. " +
+                    "With all=true all the products are returned as a list."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = List.class)))}
+                            schema = @Schema(implementation = PageResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the If-None-Match version.")}
     )
     @GetMapping(value = "/by/category/{id}")
-    public ResponseEntity<?> getProductsByCategoryId(@PathVariable final Long id) {
+    public ResponseEntity<?> getProductsByCategoryId(@PathVariable final Long id,
+                                                     @ParameterObject final PageRequestDTO pageRequestDTO,
+                                                     @RequestParam(defaultValue = "false") final boolean all,
+                                                     final WebRequest request) {
         log.info("Executing getProductByCategory from ProductRestController");
 
-        return ResponseEntity.ok(productService.findProductsByCategoryId(id));
+        if (!all) {
+            return ResponseEntity.ok(productService.findProductsPageByCategoryId(id, pageRequestDTO));
+        }
+
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            final String eTag = ETags.of(productService.findProductsVersionByCategoryId(id));
+
+            if (request.checkNotModified(eTag)) {
+                return ETags.notModified(eTag);
+            }
+        }
+
+        final List<ProductResponseDTO> products = productService.findProductsByCategoryId(id);
+
+        return ResponseEntity.ok().eTag(ETags.of(productService.versionOf(products))).body(products);
     }
 
     @Operation(
@@ -133,13 +280,21 @@ public class ProductRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = ProductEntity.class)))}
+                            schema = @Schema(implementation = ProductResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the If-None-Match version.")}
     )
     @GetMapping(value = "/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable final Long id) {
+    public ResponseEntity<?> getProductById(@PathVariable final Long id,
+                                            final WebRequest request) {
         log.info("Executing getProductById from ProductRestController");
 
-        return ResponseEntity.ok(productService.findProductById(id));
+        final String eTag = ETags.of(productService.findProductVersion(id));
+
+        if (request.checkNotModified(eTag)) {
+            return ETags.notModified(eTag);
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(productService.findProductById(id));
     }
 
     @Operation(
@@ -149,7 +304,7 @@ public class ProductRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = ProductEntity.class)))}
+                            schema = @Schema(implementation = ProductResponseDTO.class)))}
     )
     @GetMapping(value = "/by/name/{name}")
     public ResponseEntity<?> getProductByName(@PathVariable final String name) {
@@ -158,5 +313,39 @@ public class ProductRestController {
         return ResponseEntity.ok(productService.findProductByName(name));
     }
 
+    @Operation(
+            summary = "Find Products by Ids",
+            description = "Find the products of a list of ids, in the order of the ids, " +
+                    "with the ids that don't exist as missing."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "There are too many ids.")}
+    )
+    @GetMapping(value = "/by/ids")
+    public ResponseEntity<?> getProductsByIds(@RequestParam final List<Long> ids) {
+        log.info("Executing getProductsByIds from ProductRestController");
+
+        return ResponseEntity.ok(productService.findProductsByIds(ids));
+    }
+
+    @Operation(
+            summary = "Find Products by Ids",
+            description = "Find the products of a list of ids in the body, for the lists too long for a query string."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "There are too many ids.")}
+    )
+    @PostMapping(value = "/by/ids")
+    public ResponseEntity<?> postProductsByIds(@RequestBody final List<Long> ids) {
+        log.info("Executing postProductsByIds from ProductRestController");
+
+        return ResponseEntity.ok(productService.findProductsByIds(ids));
+    }
 
 }
@@ -13,9 +13,11 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -55,14 +57,17 @@ public class RoleRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = RoleEntity.class)))}
+                            schema = @Schema(implementation = RoleEntity.class))),
+            @ApiResponse(responseCode = "412", description = "The If-Match version is outdated.")}
     )
     @PutMapping(value = "/{id}")
     public ResponseEntity<?> updateRole(@PathVariable final Long id,
-                                        @RequestBody @Valid final RoleRequestDTO roleRequestDTO) {
+                                        @RequestBody @Valid final RoleRequestDTO roleRequestDTO,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                        final String ifMatch) {
         log.info("Executing updateRole from RoleRestController");
 
-        return ResponseEntity.ok(roleService.updateRole(id, roleRequestDTO));
+        return ResponseEntity.ok(roleService.updateRole(id, roleRequestDTO, ETags.tagOf(ifMatch)));
     }
 
     @Operation(
@@ -88,13 +93,20 @@ public class RoleRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = List.class)))}
+                            schema = @Schema(implementation = List.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the If-None-Match version.")}
     )
     @GetMapping
-    public ResponseEntity<?> getAllRoles() {
+    public ResponseEntity<?> getAllRoles(final WebRequest request) {
         log.info("Executing getAllRoles from RoleRestController");
 
-        return ResponseEntity.ok(roleService.findAllRoles());
+        final String eTag = ETags.of(roleService.findRolesVersion());
+
+        if (request.checkNotModified(eTag)) {
+            return ETags.notModified(eTag);
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(roleService.findAllRoles());
     }
 
     @Operation(
@@ -104,13 +116,21 @@ public class RoleRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = RoleEntity.class)))}
+                            schema = @Schema(implementation = RoleEntity.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the If-None-Match version.")}
     )
     @GetMapping(value = "/{id}")
-    public ResponseEntity<?> getRoleById(@PathVariable final Long id) {
+    public ResponseEntity<?> getRoleById(@PathVariable final Long id,
+                                         final WebRequest request) {
         log.info("Executing getRoleById from RoleRestController");
 
-        return ResponseEntity.ok(roleService.findRoleById(id));
+        final String eTag = ETags.of(roleService.findRoleVersion(id));
+
+        if (request.checkNotModified(eTag)) {
+            return ETags.notModified(eTag);
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(roleService.findRoleById(id));
     }
 
     @Operation(
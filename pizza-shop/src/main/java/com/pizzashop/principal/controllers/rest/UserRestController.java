@@ -1,5 +1,7 @@
 package com.pizzashop.principal.controllers.rest;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pizzashop.principal.dtos.BatchResponseDTO;
 import com.pizzashop.principal.dtos.UserRequestDTO;
 import com.pizzashop.principal.entities.UserEntity;
 import com.pizzashop.principal.services.UserService;
@@ -12,9 +14,12 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -53,14 +58,38 @@ public class UserRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = UserEntity.class)))}
+                            schema = @Schema(implementation = UserEntity.class))),
+            @ApiResponse(responseCode = "412", description = "The If-Match version is outdated.")}
     )
     @PutMapping(value = "/{id}")
     public ResponseEntity<?> updateUser(@PathVariable final Long id,
-                                        @RequestBody @Valid final UserRequestDTO UserRequestDTO) {
+                                        @RequestBody @Valid final UserRequestDTO UserRequestDTO,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                        final String ifMatch) {
         log.info("Executing updateUser from UserRestController");
 
-        return ResponseEntity.ok(userService.updateUser(id, UserRequestDTO));
+        return ResponseEntity.ok(userService.updateUser(id, UserRequestDTO, ETags.tagOf(ifMatch)));
+    }
+
+    @Operation(
+            summary = "Patch User",
+            description = "Update only the fields of a JSON Merge Patch of a existent user from the database."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = UserEntity.class))),
+            @ApiResponse(responseCode = "400", description = "The patched user is not valid."),
+            @ApiResponse(responseCode = "412", description = "The If-Match version is outdated.")}
+    )
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchUser(@PathVariable final Long id,
+                                       @RequestBody final JsonNode patch,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                       final String ifMatch) {
+        log.info("Executing patchUser from UserRestController");
+
+        return ResponseEntity.ok(userService.patchUser(id, patch, ETags.tagOf(ifMatch)));
     }
 
     @Operation(
@@ -86,13 +115,20 @@ public class UserRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = List.class)))}
+                            schema = @Schema(implementation = List.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the If-None-Match version.")}
     )
     @GetMapping
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(final WebRequest request) {
         log.info("Executing getAllUsers from UserRestController");
 
-        return ResponseEntity.ok(userService.findAllUsers());
+        final String eTag = ETags.of(userService.findUsersVersion());
+
+        if (request.checkNotModified(eTag)) {
+            return ETags.notModified(eTag);
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(userService.findAllUsers());
     }
 
     @Operation(
@@ -102,13 +138,21 @@ public class UserRestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful operation",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = UserEntity.class)))}
+                            schema = @Schema(implementation = UserEntity.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the If-None-Match version.")}
     )
     @GetMapping(value = "/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable final Long id) {
+    public ResponseEntity<?> getUserById(@PathVariable final Long id,
+                                         final WebRequest request) {
         log.info("Executing getUserById from UserRestController");
 
-        return ResponseEntity.ok(userService.findUserById(id));
+        final String eTag = ETags.of(userService.findUserVersion(id));
+
+        if (request.checkNotModified(eTag)) {
+            return ETags.notModified(eTag);
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(userService.findUserById(id));
     }
 
     @Operation(
@@ -143,5 +187,39 @@ public class UserRestController {
         return ResponseEntity.ok(userService.findUserByEmail(email));
     }
 
+    @Operation(
+            summary = "Find Users by Ids",
+            description = "Find the users of a list of ids, in the order of the ids, " +
+                    "with the ids that don't exist as missing."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "There are too many ids.")}
+    )
+    @GetMapping(value = "/by/ids")
+    public ResponseEntity<?> getUsersByIds(@RequestParam final List<Long> ids) {
+        log.info("Executing getUsersByIds from UserRestController");
+
+        return ResponseEntity.ok(userService.findUsersByIds(ids));
+    }
+
+    @Operation(
+            summary = "Find Users by Ids",
+            description = "Find the users of a list of ids in the body, for the lists too long for a query string."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful operation",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BatchResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "There are too many ids.")}
+    )
+    @PostMapping(value = "/by/ids")
+    public ResponseEntity<?> postUsersByIds(@RequestBody final List<Long> ids) {
+        log.info("Executing postUsersByIds from UserRestController");
+
+        return ResponseEntity.ok(userService.findUsersByIds(ids));
+    }
 
 }
@@ -1,9 +1,11 @@
 package com.pizzashop.principal.daos;
 
-import com.pizzashop.principal.entities.CategoryEntity;
+import com.pizzashop.principal.projections.MenuRow;
+
+import java.util.List;
 
 public interface CategoryDAO {
 
-    CategoryEntity findCategoryWithProductsById(Long id);
+    List<MenuRow> findMenuRows();
 
 }
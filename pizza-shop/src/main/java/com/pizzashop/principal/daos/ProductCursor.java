@@ -0,0 +1,97 @@
+package com.pizzashop.principal.daos;
+
+import com.pizzashop.principal.dtos.ProductResponseDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a product in a keyset paginated listing.
+ * The cursor is sent to the clients as an opaque URL safe Base64 token
+ * with the sort, the direction, the id and the sort key of the product.
+ * A key is written after a marker, so a null key is told apart from an empty one.
+ *
+ * @param sort       Sort of the listing.
+ * @param descending Boolean descending order.
+ * @param id         Long id of the product.
+ * @param key        String sort key of the product, null when the sort is by id or the product has no key.
+ */
+public record ProductCursor(ProductPageQuery.Sort sort, boolean descending, Long id, String key) {
+
+    private static final String SEPARATOR = ":";
+
+    private static final String KEY_MARKER = "=";
+
+    private static final String INVALID_CURSOR = "This is not a valid cursor.";
+
+    /**
+     * Cursor of a product.
+     *
+     * @param product    ProductResponseDTO, last product of a page.
+     * @param sort       Sort of the listing.
+     * @param descending Boolean descending order.
+     * @return ProductCursor.
+     */
+    public static ProductCursor of(final ProductResponseDTO product,
+                                   final ProductPageQuery.Sort sort,
+                                   final boolean descending) {
+        final String key = switch (sort) {
+            case ID -> null;
+            case NAME -> product.name();
+            case PRICE -> product.price() == null ? null : Double.toString(product.price());
+        };
+
+        return new ProductCursor(sort, descending, product.id(), key);
+    }
+
+    /**
+     * Decode a token.
+     *
+     * @param token String token.
+     * @return ProductCursor.
+     * @throws IllegalArgumentException If the token is not a valid cursor.
+     */
+    public static ProductCursor decode(final String token) {
+        try {
+            final String[] parts = new String(Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8).split(SEPARATOR, 4);
+
+            if (parts.length != 4) {
+                throw new IllegalArgumentException(INVALID_CURSOR);
+            }
+
+            final ProductPageQuery.Sort sort = ProductPageQuery.Sort.valueOf(parts[0]);
+            final String key;
+
+            if (sort == ProductPageQuery.Sort.ID || parts[3].isEmpty()) {
+                key = null;
+            } else if (parts[3].startsWith(KEY_MARKER)) {
+                key = parts[3].substring(KEY_MARKER.length());
+            } else {
+                throw new IllegalArgumentException(INVALID_CURSOR);
+            }
+
+            if (sort == ProductPageQuery.Sort.PRICE && key != null) {
+                Double.parseDouble(key);
+            }
+
+            return new ProductCursor(sort, Boolean.parseBoolean(parts[1]),
+                    Long.valueOf(parts[2]), key);
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException(INVALID_CURSOR);
+        }
+    }
+
+    /**
+     * Encode the cursor as a token.
+     *
+     * @return String token.
+     */
+    public String encode() {
+        final String value = sort.name() + SEPARATOR + descending + SEPARATOR + id
+                + SEPARATOR + (key == null ? "" : KEY_MARKER + key);
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,10 +1,20 @@
 package com.pizzashop.principal.daos;
 
+import com.pizzashop.principal.dtos.ProductResponseDTO;
 import com.pizzashop.principal.entities.ProductEntity;
+import com.pizzashop.principal.entities.ProductStatus;
+import com.pizzashop.principal.projections.ProductExportRow;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProductDAO {
 
     List<ProductEntity> mostSellProducts();
+
+    List<ProductResponseDTO> findProductsPage(ProductPageQuery query);
+
+    long countProducts(ProductStatus status, Long categoryId);
+
+    Stream<ProductExportRow> streamProductExportRows();
 }
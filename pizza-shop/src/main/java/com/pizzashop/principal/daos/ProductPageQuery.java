@@ -0,0 +1,40 @@
+package com.pizzashop.principal.daos;
+
+import com.pizzashop.principal.entities.ProductStatus;
+
+/**
+ * Keyset query of a page of products.
+ *
+ * @param status     ProductStatus filter, null for all.
+ * @param categoryId Long category id filter, null for all.
+ * @param sort       Sort of the products, the id breaks the ties.
+ * @param descending Boolean descending order.
+ * @param after      ProductCursor of the last product of the previous page, null for the first page.
+ * @param limit      Int max number of products.
+ */
+public record ProductPageQuery(ProductStatus status,
+                               Long categoryId,
+                               Sort sort,
+                               boolean descending,
+                               ProductCursor after,
+                               int limit) {
+
+    /**
+     * Sort orders of the products with their key property.
+     */
+    public enum Sort {
+        ID("id"),
+        NAME("name"),
+        PRICE("price");
+
+        private final String property;
+
+        Sort(final String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+    }
+}
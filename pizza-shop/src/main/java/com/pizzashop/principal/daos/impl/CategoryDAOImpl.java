@@ -2,25 +2,37 @@ package com.pizzashop.principal.daos.impl;
 
 import com.pizzashop.principal.daos.CategoryDAO;
 import com.pizzashop.principal.entities.CategoryEntity;
-import org.hibernate.Session;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.pizzashop.principal.entities.ProductEntity;
+import com.pizzashop.principal.projections.MenuRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public class CategoryDAOImpl implements CategoryDAO {
 
-    @Autowired
-    private Session session;
+    @PersistenceContext
+    private EntityManager entityManager;
 
+    /**
+     * Find every category with its products in a single query.
+     * The category has no association to its products, so they are joined by their
+     * category, and a category without products still has a row.
+     *
+     * @return List<MenuRow> ordered by category id and product id.
+     */
     @Override
-    public CategoryEntity findCategoryWithProductsById(Long id) {
-        String query = "select distinct c " +
+    public List<MenuRow> findMenuRows() {
+        final String query = "select new " + MenuRow.class.getName() + "(" +
+                "c.id, c.name, c.description, c.version, " +
+                "p.id, p.name, p.description, p.amount, p.price, p.imageUrl, p.status, p.version) " +
                 "from " + CategoryEntity.class.getName() + " c " +
-                "join fetch c.products " +
-                "where c.id=:id";
+                "left join " + ProductEntity.class.getName() + " p on p.category = c " +
+                "order by c.id, p.id";
 
-        return session.createQuery(query, CategoryEntity.class)
-                .setParameter("id", id)
-                .getSingleResult();
+        return entityManager.createQuery(query, MenuRow.class)
+                .getResultList();
     }
 }
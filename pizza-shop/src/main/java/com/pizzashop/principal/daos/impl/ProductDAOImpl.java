@@ -1,17 +1,44 @@
 package com.pizzashop.principal.daos.impl;
 
+import com.pizzashop.principal.daos.ProductCursor;
 import com.pizzashop.principal.daos.ProductDAO;
+import com.pizzashop.principal.daos.ProductPageQuery;
+import com.pizzashop.principal.dtos.ProductResponseDTO;
 import com.pizzashop.principal.entities.ProductEntity;
+import com.pizzashop.principal.entities.ProductStatus;
+import com.pizzashop.principal.projections.ProductExportRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
+@Repository
 public class ProductDAOImpl implements ProductDAO {
 
+    @Value("${products.export.fetch-size:500}")
+    private int EXPORT_FETCH_SIZE;
+
     @Autowired
     private Session session;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
     public List<ProductEntity> mostSellProducts() {
         String query = "select distinct p " +
@@ -22,5 +49,172 @@ public class ProductDAOImpl implements ProductDAO {
                 .list();
     }
 
+    /**
+     * Find a page of products after the cursor, in the order of the sort with the id as tie-breaker.
+     * The cursor is turned into a range condition on the sort key and the id instead of an offset,
+     * so with the (key, id) indexes every page costs the same as the first one.
+     * The products without a key are sorted as the highest keys, last ascending and first
+     * descending as in the indexes, and they are kept in the condition of the cursor.
+     * The rows are read-only projections with the category joined, no entity is loaded.
+     *
+     * @param query ProductPageQuery.
+     * @return List<ProductResponseDTO> with at most the limit of the query.
+     */
+    @Override
+    public List<ProductResponseDTO> findProductsPage(final ProductPageQuery query) {
+        final Map<String, Object> parameters = new HashMap<>();
+        final StringBuilder where = filters(query.status(), query.categoryId(), parameters);
+        final String key = "p." + query.sort().getProperty();
+        final String direction = query.descending() ? "desc" : "asc";
+        final String after = query.descending() ? "<" : ">";
+        final String nulls = query.descending() ? "nulls first" : "nulls last";
+        final ProductCursor cursor = query.after();
+
+        if (cursor != null) {
+            if (query.sort() == ProductPageQuery.Sort.ID) {
+                and(where).append("p.id ").append(after).append(" :afterId");
+            } else if (cursor.key() == null) {
+                and(where).append(query.descending() ?
+                        "(" + key + " is not null or p.id < :afterId)" :
+                        "(" + key + " is null and p.id > :afterId)");
+            } else {
+                and(where).append('(').append(key).append(' ').append(after).append("= :afterKey and (")
+                        .append(key).append(' ').append(after).append(" :afterKey or p.id ")
+                        .append(after).append(" :afterId)")
+                        .append(query.descending() ? ")" : " or " + key + " is null)");
+
+                parameters.put("afterKey", query.sort() == ProductPageQuery.Sort.PRICE ?
+                        Double.valueOf(cursor.key()) : cursor.key());
+            }
+
+            parameters.put("afterId", cursor.id());
+        }
+
+        final String hql = "select new " + ProductResponseDTO.class.getName() + "(" +
+                "p.id, p.name, p.description, p.amount, p.price, p.imageUrl, p.status, p.version, " +
+                "c.id, c.name, c.description, c.version) " +
+                "from " + ProductEntity.class.getName() + " p " +
+                "left join p.category c" +
+                where +
+                (query.sort() == ProductPageQuery.Sort.ID ? " order by p.id " + direction :
+                        " order by " + key + " " + direction + " " + nulls + ", p.id " + direction);
+
+        final Query<ProductResponseDTO> page = entityManager.unwrap(Session.class)
+                .createQuery(hql, ProductResponseDTO.class)
+                .setMaxResults(query.limit());
+
+        parameters.forEach(page::setParameter);
+
+        return page.list();
+    }
+
+    /**
+     * Count the products of the filters.
+     *
+     * @param status     ProductStatus, null for all.
+     * @param categoryId Long category id, null for all.
+     * @return Long count.
+     */
+    @Override
+    public long countProducts(final ProductStatus status, final Long categoryId) {
+        final Map<String, Object> parameters = new HashMap<>();
+        final String hql = "select count(p) " +
+                "from " + ProductEntity.class.getName() + " p" +
+                filters(status, categoryId, parameters);
+
+        final Query<Long> count = entityManager.unwrap(Session.class)
+                .createQuery(hql, Long.class);
+
+        parameters.forEach(count::setParameter);
+
+        return count.getSingleResult();
+    }
+
+    /**
+     * Stream all the products as export rows, ordered by id.
+     * The rows are read with a forward-only cursor in a stateless session, so there is no
+     * persistence context to grow and only a fetch size of rows is in memory at a time.
+     * PostgreSQL only honors the fetch size inside a transaction, so a read-only one is kept
+     * open until the stream is closed. Closing the stream early, for example when the client
+     * disconnects, closes the cursor and rolls the transaction back, which ends the query.
+     *
+     * @return Stream<ProductExportRow>, it must be closed.
+     */
+    @Override
+    public Stream<ProductExportRow> streamProductExportRows() {
+        final String query = "select new " + ProductExportRow.class.getName() + "(" +
+                "p.id, p.name, p.description, p.amount, p.price, p.imageUrl, p.status, c.id, c.name) " +
+                "from " + ProductEntity.class.getName() + " p " +
+                "left join p.category c " +
+                "order by p.id";
+
+        final StatelessSession statelessSession = entityManagerFactory
+                .unwrap(SessionFactory.class).openStatelessSession();
+
+        try {
+            final Transaction transaction = statelessSession.beginTransaction();
+
+            return statelessSession.createQuery(query, ProductExportRow.class)
+                    .setFetchSize(EXPORT_FETCH_SIZE)
+                    .setReadOnly(true)
+                    .stream()
+                    .onClose(() -> close(statelessSession, transaction));
+        } catch (RuntimeException exception) {
+            statelessSession.close();
+
+            throw exception;
+        }
+    }
+
+    /**
+     * Roll back the read-only transaction of an export and close its session.
+     *
+     * @param statelessSession StatelessSession.
+     * @param transaction      Transaction.
+     */
+    private void close(final StatelessSession statelessSession, final Transaction transaction) {
+        try {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+        } finally {
+            statelessSession.close();
+        }
+    }
+
+    /**
+     * Where clause of the filters.
+     *
+     * @param status     ProductStatus, null for all.
+     * @param categoryId Long category id, null for all.
+     * @param parameters Map of the query parameters.
+     * @return StringBuilder where clause, empty if there are no filters.
+     */
+    private StringBuilder filters(final ProductStatus status,
+                                  final Long categoryId,
+                                  final Map<String, Object> parameters) {
+        final StringBuilder where = new StringBuilder();
+
+        if (status != null) {
+            and(where).append("p.status = :status");
+            parameters.put("status", status);
+        }
 
+        if (categoryId != null) {
+            and(where).append("p.category.id = :categoryId");
+            parameters.put("categoryId", categoryId);
+        }
+
+        return where;
+    }
+
+    /**
+     * Start the where clause or add a new condition to it.
+     *
+     * @param where StringBuilder where clause.
+     * @return StringBuilder where clause.
+     */
+    private StringBuilder and(final StringBuilder where) {
+        return where.append(where.isEmpty() ? " where " : " and ");
+    }
 }
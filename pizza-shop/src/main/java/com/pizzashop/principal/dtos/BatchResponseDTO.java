@@ -0,0 +1,12 @@
+package com.pizzashop.principal.dtos;
+
+import java.util.List;
+
+/**
+ * Result of a multi-get by ids.
+ *
+ * @param items   Items found, in the order of the requested ids.
+ * @param missing List<Long> requested ids without an item, in the order they were requested.
+ */
+public record BatchResponseDTO<T>(List<T> items, List<Long> missing) {
+}
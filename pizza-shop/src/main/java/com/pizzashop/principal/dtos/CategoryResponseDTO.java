@@ -0,0 +1,29 @@
+package com.pizzashop.principal.dtos;
+
+import com.pizzashop.principal.entities.CategoryEntity;
+
+/**
+ * Immutable snapshot of a category, it can be cached and shared.
+ *
+ * @param id          Long id.
+ * @param name        String name.
+ * @param description String description.
+ * @param version     Long version.
+ */
+public record CategoryResponseDTO(Long id, String name, String description, Long version) {
+
+    /**
+     * Snapshot of a category.
+     *
+     * @param category CategoryEntity, it can be null.
+     * @return CategoryResponseDTO, null if the category is null.
+     */
+    public static CategoryResponseDTO of(final CategoryEntity category) {
+        if (category == null) {
+            return null;
+        }
+
+        return new CategoryResponseDTO(category.getId(), category.getName(),
+                category.getDescription(), category.getVersion());
+    }
+}
@@ -0,0 +1,43 @@
+package com.pizzashop.principal.dtos;
+
+import java.util.Locale;
+
+/**
+ * Formats of the exports and imports with their content type and file extension.
+ */
+public enum FileFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+
+    private final String extension;
+
+    FileFormat(final String contentType, final String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * Format of a request parameter.
+     *
+     * @param value String ndjson or csv.
+     * @return FileFormat.
+     * @throws IllegalArgumentException If the format is not supported.
+     */
+    public static FileFormat of(final String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException("The format must be ndjson or csv.");
+        }
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,23 @@
+package com.pizzashop.principal.dtos;
+
+import java.util.List;
+
+/**
+ * Immutable category of the menu with its products.
+ *
+ * @param id          Long id.
+ * @param name        String name.
+ * @param description String description.
+ * @param version     Long version.
+ * @param products    List<MenuProductDTO> ordered by id, unmodifiable.
+ */
+public record MenuCategoryDTO(Long id,
+                              String name,
+                              String description,
+                              Long version,
+                              List<MenuProductDTO> products) {
+
+    public MenuCategoryDTO {
+        products = List.copyOf(products);
+    }
+}
@@ -0,0 +1,25 @@
+package com.pizzashop.principal.dtos;
+
+import com.pizzashop.principal.entities.ProductStatus;
+
+/**
+ * Immutable product of a category of the menu.
+ *
+ * @param id          Long id.
+ * @param name        String name.
+ * @param description String description.
+ * @param amount      Integer amount.
+ * @param price       Double price.
+ * @param imageUrl    String image url.
+ * @param status      ProductStatus.
+ * @param version     Long version.
+ */
+public record MenuProductDTO(Long id,
+                             String name,
+                             String description,
+                             Integer amount,
+                             Double price,
+                             String imageUrl,
+                             ProductStatus status,
+                             Long version) {
+}
@@ -0,0 +1,16 @@
+package com.pizzashop.principal.dtos;
+
+import java.util.List;
+
+/**
+ * Immutable snapshot of the menu, it can be cached and shared.
+ *
+ * @param categories List<MenuCategoryDTO> ordered by id, unmodifiable.
+ * @param version    String version tag of the categories and the products of the menu.
+ */
+public record MenuResponseDTO(List<MenuCategoryDTO> categories, String version) {
+
+    public MenuResponseDTO {
+        categories = List.copyOf(categories);
+    }
+}
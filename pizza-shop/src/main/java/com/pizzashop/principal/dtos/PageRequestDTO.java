@@ -0,0 +1,25 @@
+package com.pizzashop.principal.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Query parameters of a keyset paginated listing.
+ *
+ * @param cursor    String cursor of the page, from the next of the previous page.
+ * @param size      Integer size of the page, it is limited by the server.
+ * @param sort      String sort of the items.
+ * @param direction String asc or desc.
+ * @param count     Boolean to include the total of items, it costs a count query.
+ */
+public record PageRequestDTO(
+        @Schema(description = "Cursor of the page, from the next of the previous page")
+        String cursor,
+        @Schema(description = "Size of the page", example = "20")
+        Integer size,
+        @Schema(description = "Sort of the items", example = "id")
+        String sort,
+        @Schema(description = "Direction of the sort", example = "asc")
+        String direction,
+        @Schema(description = "Include the total of items", example = "false")
+        Boolean count) {
+}
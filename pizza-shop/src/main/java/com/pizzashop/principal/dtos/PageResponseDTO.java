@@ -0,0 +1,13 @@
+package com.pizzashop.principal.dtos;
+
+import java.util.List;
+
+/**
+ * Page of a keyset paginated listing.
+ *
+ * @param items Items of the page.
+ * @param next  String cursor of the next page, null if this is the last page.
+ * @param total Long total of items, null if it was not requested.
+ */
+public record PageResponseDTO<T>(List<T> items, String next, Long total) {
+}
@@ -0,0 +1,13 @@
+package com.pizzashop.principal.dtos;
+
+import java.util.List;
+
+/**
+ * Report of a product import.
+ *
+ * @param imported Long number of products inserted.
+ * @param failed   Long number of rows rejected.
+ * @param rows     Result of every row, in the order of the file.
+ */
+public record ProductImportReportDTO(long imported, long failed, List<ProductImportRowDTO> rows) {
+}
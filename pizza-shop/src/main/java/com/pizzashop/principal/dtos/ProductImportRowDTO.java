@@ -0,0 +1,13 @@
+package com.pizzashop.principal.dtos;
+
+/**
+ * Result of a row of a product import.
+ *
+ * @param line     Long line of the row in the file.
+ * @param id       Long id of the inserted product, null if it was not inserted.
+ * @param name     String name of the product, null if the row couldn't be read.
+ * @param imported Boolean true if the product was inserted.
+ * @param message  String error, null if the product was inserted.
+ */
+public record ProductImportRowDTO(long line, Long id, String name, boolean imported, String message) {
+}
@@ -0,0 +1,81 @@
+package com.pizzashop.principal.dtos;
+
+import com.pizzashop.principal.entities.ProductEntity;
+import com.pizzashop.principal.entities.ProductStatus;
+
+/**
+ * Immutable snapshot of a product and its category, it can be cached and shared.
+ *
+ * @param id          Long id.
+ * @param name        String name.
+ * @param description String description.
+ * @param amount      Integer amount.
+ * @param price       Double price.
+ * @param imageUrl    String image url.
+ * @param status      ProductStatus.
+ * @param category    CategoryResponseDTO, it can be null.
+ * @param version     Long version.
+ */
+public record ProductResponseDTO(Long id,
+                                 String name,
+                                 String description,
+                                 Integer amount,
+                                 Double price,
+                                 String imageUrl,
+                                 ProductStatus status,
+                                 CategoryResponseDTO category,
+                                 Long version) {
+
+    /**
+     * Flat constructor for the query projections, with the category joined in the same row.
+     *
+     * @param id                  Long id.
+     * @param name                String name.
+     * @param description         String description.
+     * @param amount              Integer amount.
+     * @param price               Double price.
+     * @param imageUrl            String image url.
+     * @param status              ProductStatus.
+     * @param version             Long version.
+     * @param categoryId          Long category id, null if there is no category.
+     * @param categoryName        String category name.
+     * @param categoryDescription String category description.
+     * @param categoryVersion     Long category version.
+     */
+    public ProductResponseDTO(final Long id,
+                              final String name,
+                              final String description,
+                              final Integer amount,
+                              final Double price,
+                              final String imageUrl,
+                              final ProductStatus status,
+                              final Long version,
+                              final Long categoryId,
+                              final String categoryName,
+                              final String categoryDescription,
+                              final Long categoryVersion) {
+        this(id, name, description, amount, price, imageUrl, status,
+                categoryId == null ? null :
+                        new CategoryResponseDTO(categoryId, categoryName, categoryDescription, categoryVersion),
+                version);
+    }
+
+    /**
+     * Snapshot of a product.
+     *
+     * @param product ProductEntity.
+     * @return ProductResponseDTO.
+     */
+    public static ProductResponseDTO of(final ProductEntity product) {
+        return new ProductResponseDTO(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getAmount(),
+                product.getPrice(),
+                product.getImageUrl(),
+                product.getStatus(),
+                CategoryResponseDTO.of(product.getCategory()),
+                product.getVersion());
+    }
+}
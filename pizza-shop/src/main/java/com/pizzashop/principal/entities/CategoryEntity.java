@@ -6,8 +6,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
+@DynamicUpdate
 @Table(name = "t_category")
 @AllArgsConstructor
 @NoArgsConstructor
@@ -17,7 +19,8 @@ import lombok.NoArgsConstructor;
 public class CategoryEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "t_category_seq")
+    @SequenceGenerator(name = "t_category_seq", sequenceName = "t_category_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 20)
@@ -26,4 +29,8 @@ public class CategoryEntity {
     @Column
     private String description;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
 }
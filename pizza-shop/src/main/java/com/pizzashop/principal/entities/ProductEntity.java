@@ -6,9 +6,16 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
-@Table(name = "t_product")
+@DynamicUpdate
+@Table(name = "t_product",
+        indexes = {
+                @Index(name = "idx_t_product_name_id", columnList = "name, id"),
+                @Index(name = "idx_t_product_price_id", columnList = "price, id"),
+                @Index(name = "idx_t_product_status_id", columnList = "status, id"),
+                @Index(name = "idx_t_product_category_id_id", columnList = "category_id, id")})
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -17,7 +24,8 @@ import lombok.NoArgsConstructor;
 public class ProductEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "t_product_seq")
+    @SequenceGenerator(name = "t_product_seq", sequenceName = "t_product_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 15, unique = true)
@@ -38,10 +46,14 @@ public class ProductEntity {
     @Enumerated(EnumType.STRING)
     private ProductStatus status;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id",
             foreignKey = @ForeignKey(name = "fk_t_category_id")
     )
     private CategoryEntity category;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
 }
@@ -0,0 +1,55 @@
+package com.pizzashop.principal.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "t_refresh_token",
+        indexes = {
+                @Index(name = "idx_t_refresh_token_token_hash", columnList = "token_hash", unique = true),
+                @Index(name = "idx_t_refresh_token_family_id", columnList = "family_id"),
+                @Index(name = "idx_t_refresh_token_expires_at", columnList = "expires_at")})
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class RefreshTokenEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "t_refresh_token_seq")
+    @SequenceGenerator(name = "t_refresh_token_seq", sequenceName = "t_refresh_token_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "token_hash", length = 43, nullable = false)
+    private String tokenHash;
+
+    @Column(name = "family_id", length = 36, nullable = false)
+    private String familyId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(nullable = false)
+    private String roles;
+
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "used_at")
+    private Instant usedAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+}
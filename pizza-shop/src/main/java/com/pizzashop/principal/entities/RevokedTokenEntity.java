@@ -0,0 +1,30 @@
+package com.pizzashop.principal.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "t_revoked_token",
+        indexes = @Index(name = "idx_t_revoked_token_revoked_at", columnList = "revoked_at"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class RevokedTokenEntity {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+}
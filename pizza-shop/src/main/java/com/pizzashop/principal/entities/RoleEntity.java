@@ -19,7 +19,8 @@ import java.io.Serializable;
 public class RoleEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "t_role_seq")
+    @SequenceGenerator(name = "t_role_seq", sequenceName = "t_role_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 15)
@@ -28,4 +29,8 @@ public class RoleEntity implements Serializable {
     @Column
     private String description;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
 }
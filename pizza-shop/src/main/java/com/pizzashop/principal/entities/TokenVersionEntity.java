@@ -0,0 +1,30 @@
+package com.pizzashop.principal.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "t_token_version",
+        indexes = @Index(name = "idx_t_token_version_changed_at", columnList = "changed_at"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class TokenVersionEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+}
@@ -7,11 +7,13 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.io.Serializable;
 import java.util.Set;
 
 @Entity
+@DynamicUpdate
 @Table(name = "t_user")
 @AllArgsConstructor
 @NoArgsConstructor
@@ -21,7 +23,8 @@ import java.util.Set;
 public class UserEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "t_user_seq")
+    @SequenceGenerator(name = "t_user_seq", sequenceName = "t_user_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "first_name", length = 50)
@@ -46,6 +49,14 @@ public class UserEntity implements Serializable {
     @Column(length = 15)
     private String phone;
 
+    @JsonIgnore
+    @Column(name = "token_version", columnDefinition = "integer default 0")
+    private Integer tokenVersion;
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(name = "t_user_role",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -0,0 +1,16 @@
+package com.pizzashop.principal.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class PreconditionFailedException extends ResponseStatusException {
+
+    /**
+     * Exception: Precondition Failed
+     *
+     * @param message String
+     */
+    public PreconditionFailedException(String message) {
+        super(HttpStatus.PRECONDITION_FAILED, message);
+    }
+}
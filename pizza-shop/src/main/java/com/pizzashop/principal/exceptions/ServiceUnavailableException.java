@@ -0,0 +1,22 @@
+package com.pizzashop.principal.exceptions;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+@Getter
+public class ServiceUnavailableException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Exception: Service Unavailable
+     *
+     * @param message           String
+     * @param retryAfterSeconds Long seconds for the Retry-After header.
+     */
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
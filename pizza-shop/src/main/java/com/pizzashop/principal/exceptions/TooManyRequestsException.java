@@ -0,0 +1,22 @@
+package com.pizzashop.principal.exceptions;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+@Getter
+public class TooManyRequestsException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Exception: Too Many Requests
+     *
+     * @param message           String
+     * @param retryAfterSeconds Long seconds for the Retry-After header.
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
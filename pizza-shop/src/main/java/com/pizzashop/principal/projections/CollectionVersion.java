@@ -0,0 +1,53 @@
+package com.pizzashop.principal.projections;
+
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Version of a list of rows, it is built by an aggregate query, so no entity is loaded,
+ * or from the rows already loaded, with the same result.
+ * An insert changes the count and the max id, a delete changes the count
+ * and an update increases the sum of the versions.
+ *
+ * @param count             Long number of rows.
+ * @param maxId             Long max id, 0 if there are no rows.
+ * @param versionSum        Long sum of the versions, 0 if there are no rows.
+ * @param relatedVersionSum Long sum of the versions of the embedded entities, 0 if there are no rows.
+ */
+public record CollectionVersion(Long count, Long maxId, Long versionSum, Long relatedVersionSum) {
+
+    /**
+     * Version of the rows already loaded.
+     *
+     * @param rows    Collection of rows.
+     * @param id      Function of the id of a row.
+     * @param version Function of the EntityVersion of a row.
+     * @param <T>     Type of the rows.
+     * @return CollectionVersion.
+     */
+    public static <T> CollectionVersion of(final Collection<T> rows,
+                                           final ToLongFunction<T> id,
+                                           final Function<T, EntityVersion> version) {
+        long maxId = 0;
+        long versionSum = 0;
+        long relatedVersionSum = 0;
+
+        for (T row : rows) {
+            final EntityVersion entityVersion = version.apply(row);
+
+            maxId = Math.max(maxId, id.applyAsLong(row));
+            versionSum += entityVersion.version();
+            relatedVersionSum += entityVersion.relatedVersion();
+        }
+
+        return new CollectionVersion((long) rows.size(), maxId, versionSum, relatedVersionSum);
+    }
+
+    /**
+     * @return String tag of the rows, the value of the ETag.
+     */
+    public String tag() {
+        return count + "." + maxId + "." + versionSum + "." + relatedVersionSum;
+    }
+}
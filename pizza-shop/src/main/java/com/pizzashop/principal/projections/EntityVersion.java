@@ -0,0 +1,18 @@
+package com.pizzashop.principal.projections;
+
+/**
+ * Version of an entity and of the entities embedded in its response,
+ * it changes when the response changes.
+ *
+ * @param version        Long version of the entity.
+ * @param relatedVersion Long version of the embedded entities, 0 if there aren't.
+ */
+public record EntityVersion(Long version, Long relatedVersion) {
+
+    /**
+     * @return String tag of the versions, the value of the ETag.
+     */
+    public String tag() {
+        return version + "." + relatedVersion;
+    }
+}
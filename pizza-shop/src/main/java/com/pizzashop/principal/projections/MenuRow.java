@@ -0,0 +1,22 @@
+package com.pizzashop.principal.projections;
+
+import com.pizzashop.principal.entities.ProductStatus;
+
+/**
+ * Flat read-only row of a category and one of its products for the menu.
+ * A category without products has a single row with the product columns null.
+ * It is built by the query itself, so no entity is loaded or tracked.
+ */
+public record MenuRow(Long categoryId,
+                      String categoryName,
+                      String categoryDescription,
+                      Long categoryVersion,
+                      Long productId,
+                      String productName,
+                      String productDescription,
+                      Integer amount,
+                      Double price,
+                      String imageUrl,
+                      ProductStatus status,
+                      Long productVersion) {
+}
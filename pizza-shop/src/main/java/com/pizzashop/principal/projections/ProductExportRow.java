@@ -0,0 +1,18 @@
+package com.pizzashop.principal.projections;
+
+import com.pizzashop.principal.entities.ProductStatus;
+
+/**
+ * Flat read-only row of a product and its category for the catalog export.
+ * It is built by the query itself, so no entity is loaded or tracked.
+ */
+public record ProductExportRow(Long id,
+                               String name,
+                               String description,
+                               Integer amount,
+                               Double price,
+                               String imageUrl,
+                               ProductStatus status,
+                               Long categoryId,
+                               String categoryName) {
+}
@@ -0,0 +1,20 @@
+package com.pizzashop.principal.projections;
+
+/**
+ * Read-only projection of the user columns needed to authenticate.
+ * The role names are aggregated in a sorted comma separated list,
+ * so the same set of roles is always the same string.
+ */
+public interface UserAuthView {
+
+    Long getId();
+
+    String getUsername();
+
+    String getPassword();
+
+    Integer getTokenVersion();
+
+    String getRoles();
+
+}
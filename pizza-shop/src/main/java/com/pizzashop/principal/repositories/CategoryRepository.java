@@ -1,16 +1,51 @@
 package com.pizzashop.principal.repositories;
 
+import com.pizzashop.principal.dtos.CategoryResponseDTO;
 import com.pizzashop.principal.entities.CategoryEntity;
+import com.pizzashop.principal.projections.CollectionVersion;
+import com.pizzashop.principal.projections.EntityVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<CategoryEntity, Long> {
 
+    String SELECT_CATEGORY_RESPONSE = "SELECT new com.pizzashop.principal.dtos.CategoryResponseDTO(" +
+            "c.id, c.name, c.description, c.version) FROM CategoryEntity c ";
+
     CategoryEntity findCategoryById(Long id);
 
     CategoryEntity findCategoryByName(String name);
 
+    @Query(SELECT_CATEGORY_RESPONSE + "WHERE c.id = :id")
+    CategoryResponseDTO findCategoryResponseById(@Param("id") Long id);
+
+    @Query(SELECT_CATEGORY_RESPONSE + "WHERE c.name = :name")
+    CategoryResponseDTO findCategoryResponseByName(@Param("name") String name);
+
+    @Query(SELECT_CATEGORY_RESPONSE + "WHERE c.id IN :ids")
+    List<CategoryResponseDTO> findCategoryResponsesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_CATEGORY_RESPONSE + "ORDER BY c.id")
+    List<CategoryResponseDTO> findCategories();
+
     boolean existsCategoryByName(String name);
 
+    @Query("SELECT c.id FROM CategoryEntity c WHERE c.id IN :ids")
+    Set<Long> findExistingCategoryIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.pizzashop.principal.projections.EntityVersion(c.version, 0L) " +
+            "FROM CategoryEntity c WHERE c.id = :id")
+    EntityVersion findCategoryVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.pizzashop.principal.projections.CollectionVersion(" +
+            "COUNT(c), COALESCE(MAX(c.id), 0L), COALESCE(SUM(c.version), 0L), 0L) FROM CategoryEntity c")
+    CollectionVersion findCategoriesVersion();
+
 }
@@ -1,26 +1,71 @@
 package com.pizzashop.principal.repositories;
 
+import com.pizzashop.principal.dtos.ProductResponseDTO;
 import com.pizzashop.principal.entities.ProductEntity;
 import com.pizzashop.principal.entities.ProductStatus;
+import com.pizzashop.principal.projections.CollectionVersion;
+import com.pizzashop.principal.projections.EntityVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
 
+    String SELECT_PRODUCT_RESPONSE = "SELECT new com.pizzashop.principal.dtos.ProductResponseDTO(" +
+            "p.id, p.name, p.description, p.amount, p.price, p.imageUrl, p.status, p.version, " +
+            "c.id, c.name, c.description, c.version) " +
+            "FROM ProductEntity p LEFT JOIN p.category c ";
+
+    String SELECT_PRODUCTS_VERSION = "SELECT new com.pizzashop.principal.projections.CollectionVersion(" +
+            "COUNT(p), COALESCE(MAX(p.id), 0L), COALESCE(SUM(p.version), 0L), " +
+            "COALESCE(SUM(COALESCE(c.version + 1, 0L)), 0L)) " +
+            "FROM ProductEntity p LEFT JOIN p.category c ";
+
     ProductEntity findProductById(Long id);
 
     ProductEntity findProductByName(String name);
 
-    List<ProductEntity> findProductsByStatus(ProductStatus status);
+    @Query(SELECT_PRODUCT_RESPONSE + "WHERE p.id = :id")
+    ProductResponseDTO findProductResponseById(@Param("id") Long id);
+
+    @Query(SELECT_PRODUCT_RESPONSE + "WHERE p.name = :name")
+    ProductResponseDTO findProductResponseByName(@Param("name") String name);
+
+    @Query(SELECT_PRODUCT_RESPONSE + "WHERE p.id IN :ids")
+    List<ProductResponseDTO> findProductResponsesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(SELECT_PRODUCT_RESPONSE + "ORDER BY p.id")
+    List<ProductResponseDTO> findProducts();
+
+    @Query(SELECT_PRODUCT_RESPONSE + "WHERE p.status = :status ORDER BY p.id")
+    List<ProductResponseDTO> findProductsByStatus(@Param("status") ProductStatus status);
 
-    @Query("SELECT p FROM ProductEntity p WHERE p.category.id = :categoryId")
-    List<ProductEntity> findProductsByCategoryId(@Param("categoryId") Long categoryId);
+    @Query(SELECT_PRODUCT_RESPONSE + "WHERE c.id = :categoryId ORDER BY p.id")
+    List<ProductResponseDTO> findProductsByCategoryId(@Param("categoryId") Long categoryId);
 
     boolean existsProductByName(String name);
 
+    @Query("SELECT p.name FROM ProductEntity p WHERE p.name IN :names")
+    Set<String> findExistingProductNames(@Param("names") Collection<String> names);
+
+    @Query("SELECT new com.pizzashop.principal.projections.EntityVersion(" +
+            "p.version, COALESCE(c.version + 1, 0L)) " +
+            "FROM ProductEntity p LEFT JOIN p.category c WHERE p.id = :id")
+    EntityVersion findProductVersionById(@Param("id") Long id);
+
+    @Query(SELECT_PRODUCTS_VERSION)
+    CollectionVersion findProductsVersion();
+
+    @Query(SELECT_PRODUCTS_VERSION + "WHERE p.status = :status")
+    CollectionVersion findProductsVersionByStatus(@Param("status") ProductStatus status);
+
+    @Query(SELECT_PRODUCTS_VERSION + "WHERE c.id = :categoryId")
+    CollectionVersion findProductsVersionByCategoryId(@Param("categoryId") Long categoryId);
+
 }
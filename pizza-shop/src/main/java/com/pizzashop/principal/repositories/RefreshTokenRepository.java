@@ -0,0 +1,34 @@
+package com.pizzashop.principal.repositories;
+
+import com.pizzashop.principal.entities.RefreshTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+
+    Optional<RefreshTokenEntity> findRefreshTokenByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("UPDATE RefreshTokenEntity r SET r.usedAt = :now " +
+            "WHERE r.id = :id AND r.usedAt IS NULL AND r.revoked = false")
+    int markAsUsed(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE RefreshTokenEntity r SET r.revoked = true " +
+            "WHERE r.familyId = :familyId AND r.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshTokenEntity r WHERE r.expiresAt < :now")
+    int deleteExpiredTokens(@Param("now") Instant now);
+
+}
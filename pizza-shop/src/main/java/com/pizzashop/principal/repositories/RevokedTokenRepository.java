@@ -0,0 +1,26 @@
+package com.pizzashop.principal.repositories;
+
+import com.pizzashop.principal.entities.RevokedTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, String> {
+
+    List<RevokedTokenEntity> findRevokedTokensByExpiresAtAfter(Instant now);
+
+    List<RevokedTokenEntity> findRevokedTokensByRevokedAtAfter(Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedTokenEntity r WHERE r.expiresAt < :now")
+    int deleteExpiredTokens(@Param("now") Instant now);
+
+}
@@ -1,7 +1,11 @@
 package com.pizzashop.principal.repositories;
 
 import com.pizzashop.principal.entities.RoleEntity;
+import com.pizzashop.principal.projections.CollectionVersion;
+import com.pizzashop.principal.projections.EntityVersion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -13,4 +17,12 @@ public interface RoleRepository extends JpaRepository<RoleEntity, Long> {
 
     boolean existsRoleByName(String name);
 
+    @Query("SELECT new com.pizzashop.principal.projections.EntityVersion(r.version, 0L) " +
+            "FROM RoleEntity r WHERE r.id = :id")
+    EntityVersion findRoleVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.pizzashop.principal.projections.CollectionVersion(" +
+            "COUNT(r), COALESCE(MAX(r.id), 0L), COALESCE(SUM(r.version), 0L), 0L) FROM RoleEntity r")
+    CollectionVersion findRolesVersion();
+
 }
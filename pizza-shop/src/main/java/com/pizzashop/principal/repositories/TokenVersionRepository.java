@@ -0,0 +1,24 @@
+package com.pizzashop.principal.repositories;
+
+import com.pizzashop.principal.entities.TokenVersionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TokenVersionRepository extends JpaRepository<TokenVersionEntity, Long> {
+
+    List<TokenVersionEntity> findTokenVersionsByChangedAtAfter(Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenVersionEntity t WHERE t.changedAt < :before")
+    int deleteChangedBefore(@Param("before") Instant before);
+
+}
@@ -1,8 +1,18 @@
 package com.pizzashop.principal.repositories;
 
 import com.pizzashop.principal.entities.UserEntity;
+import com.pizzashop.principal.projections.CollectionVersion;
+import com.pizzashop.principal.projections.EntityVersion;
+import com.pizzashop.principal.projections.UserAuthView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
@@ -12,8 +22,42 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
     UserEntity findUserByEmail(String email);
 
+    @Query("SELECT DISTINCT u FROM UserEntity u LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+    List<UserEntity> findUsersByIds(@Param("ids") Collection<Long> ids);
+
     boolean existsUserByUsername(String username);
 
     boolean existsUserByEmail(String email);
 
+    @Query(value = "SELECT u.id AS \"id\", u.username AS \"username\", u.password AS \"password\", " +
+            "COALESCE(u.token_version, 0) AS \"tokenVersion\", " +
+            "string_agg(r.name, ',' ORDER BY r.name) AS \"roles\" " +
+            "FROM t_user u " +
+            "LEFT JOIN t_user_role ur ON ur.user_id = u.id " +
+            "LEFT JOIN t_role r ON r.id = ur.role_id " +
+            "WHERE u.username = :username " +
+            "GROUP BY u.id", nativeQuery = true)
+    UserAuthView findUserAuthViewByUsername(@Param("username") String username);
+
+    @Query("SELECT new com.pizzashop.principal.projections.EntityVersion(" +
+            "u.version, COALESCE(SUM(r.version + 1), 0L)) " +
+            "FROM UserEntity u LEFT JOIN u.roles r WHERE u.id = :id GROUP BY u.id, u.version")
+    EntityVersion findUserVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.pizzashop.principal.projections.CollectionVersion(" +
+            "COUNT(u), COALESCE(MAX(u.id), 0L), COALESCE(SUM(u.version), 0L), 0L) FROM UserEntity u")
+    CollectionVersion findUsersVersion();
+
+    @Query("SELECT u.id, u.tokenVersion FROM UserEntity u WHERE u.tokenVersion > 0")
+    List<Object[]> findTokenVersions();
+
+    @Query("SELECT SUBSTRING(u.password, 1, 7), COUNT(u) FROM UserEntity u " +
+            "GROUP BY SUBSTRING(u.password, 1, 7)")
+    List<Object[]> countPasswordCosts();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
 }
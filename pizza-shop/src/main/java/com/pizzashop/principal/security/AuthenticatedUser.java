@@ -0,0 +1,49 @@
+package com.pizzashop.principal.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+
+/**
+ * Immutable UserDetails carrying the user id and the token version,
+ * so a principal can be rebuilt from the token claims without the database.
+ */
+@Getter
+@AllArgsConstructor
+@ToString(exclude = "password")
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+
+    private final String username;
+
+    private final String password;
+
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    private final int tokenVersion;
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
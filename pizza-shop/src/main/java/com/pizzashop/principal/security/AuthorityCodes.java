@@ -0,0 +1,120 @@
+package com.pizzashop.principal.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short role codes of the compact token claims and of the aggregated role names.
+ * The code of a role is its authority without the ROLE_ prefix, so ROLE_ADMIN,ROLE_USER
+ * is written as ADMIN,USER. An authority without the prefix, like SCOPE_read, is written with
+ * a marker as !SCOPE_read so it is decoded as it was. There are only a few distinct role
+ * combinations, so the decoded authorities are interned by the claim value and a decode
+ * is a single map lookup.
+ */
+public final class AuthorityCodes {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private static final char SEPARATOR = ',';
+
+    private static final char RAW_MARKER = '!';
+
+    private static final int MAX_ENTRIES = 1024;
+
+    private final Map<String, List<GrantedAuthority>> decoded = new ConcurrentHashMap<>();
+
+    /**
+     * Encode the authorities as role codes.
+     *
+     * @param authorities Authorities.
+     * @return String role codes.
+     * @throws IllegalArgumentException If an authority is empty, has the separator,
+     *                                  or is a role whose code starts with the marker.
+     */
+    public String encode(final Collection<? extends GrantedAuthority> authorities) {
+        final StringBuilder codes = new StringBuilder();
+
+        for (GrantedAuthority authority : authorities) {
+            final String value = authority.getAuthority();
+            final boolean role = value != null && value.startsWith(ROLE_PREFIX);
+
+            if (value == null || value.length() == (role ? ROLE_PREFIX.length() : 0)
+                    || value.indexOf(SEPARATOR) >= 0
+                    || role && value.charAt(ROLE_PREFIX.length()) == RAW_MARKER) {
+                throw new IllegalArgumentException("The authority " + value + " can't be encoded.");
+            }
+
+            if (!codes.isEmpty()) {
+                codes.append(SEPARATOR);
+            }
+
+            if (role) {
+                codes.append(value, ROLE_PREFIX.length(), value.length());
+            } else {
+                codes.append(RAW_MARKER).append(value);
+            }
+        }
+
+        return codes.toString();
+    }
+
+    /**
+     * Decode the role codes into the interned authorities.
+     *
+     * @param codes String role codes, it can be null or empty.
+     * @return Immutable list of authorities.
+     */
+    public List<GrantedAuthority> decode(final String codes) {
+        if (codes == null || codes.isEmpty()) {
+            return List.of();
+        }
+
+        final List<GrantedAuthority> authorities = decoded.get(codes);
+
+        if (authorities != null) {
+            return authorities;
+        }
+
+        final List<GrantedAuthority> parsed = parse(codes);
+
+        if (decoded.size() < MAX_ENTRIES) {
+            decoded.putIfAbsent(codes, parsed);
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Split the codes and add the role prefix, or remove the marker of the other authorities.
+     *
+     * @param codes String role codes.
+     * @return Immutable list of authorities.
+     */
+    private List<GrantedAuthority> parse(final String codes) {
+        final List<GrantedAuthority> authorities = new ArrayList<>();
+        int start = 0;
+
+        while (start <= codes.length()) {
+            int end = codes.indexOf(SEPARATOR, start);
+
+            if (end < 0) {
+                end = codes.length();
+            }
+
+            if (end > start) {
+                authorities.add(new SimpleGrantedAuthority(codes.charAt(start) == RAW_MARKER ?
+                        codes.substring(start + 1, end) : ROLE_PREFIX + codes.substring(start, end)));
+            }
+
+            start = end + 1;
+        }
+
+        return List.copyOf(authorities);
+    }
+}
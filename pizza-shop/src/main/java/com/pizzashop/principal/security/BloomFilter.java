@@ -0,0 +1,107 @@
+package com.pizzashop.principal.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of Strings.
+ * mightContain never returns false for a value that was put,
+ * and returns true for a value that was not put with the configured probability.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final int numBits;
+
+    private final int numHashes;
+
+    /**
+     * Create a Bloom filter sized for the expected insertions.
+     *
+     * @param expectedInsertions       Int expected number of values.
+     * @param falsePositiveProbability Double false positive probability, between 0 and 1.
+     */
+    public BloomFilter(final int expectedInsertions, final double falsePositiveProbability) {
+        final int insertions = Math.max(1, expectedInsertions);
+        final long optimalBits = (long) Math.ceil(
+                -insertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+
+        this.numBits = (int) Math.max(64, Math.min(optimalBits, Integer.MAX_VALUE - 64));
+        this.numHashes = Math.max(1,
+                (int) Math.round((double) numBits / insertions * Math.log(2)));
+        this.bits = new AtomicLongArray((numBits + 63) >>> 6);
+    }
+
+    /**
+     * Put a value into the filter.
+     *
+     * @param value String value.
+     */
+    public void put(final String value) {
+        final long hash = hash(value);
+        final int hash1 = (int) hash;
+        final int hash2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= numHashes; i++) {
+            final int index = index(hash1 + i * hash2);
+            final long mask = 1L << index;
+
+            bits.getAndAccumulate(index >>> 6, mask, (current, bit) -> current | bit);
+        }
+    }
+
+    /**
+     * Might the value have been put into the filter.
+     *
+     * @param value String value.
+     * @return Boolean false if the value was never put.
+     */
+    public boolean mightContain(final String value) {
+        final long hash = hash(value);
+        final int hash1 = (int) hash;
+        final int hash2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= numHashes; i++) {
+            final int index = index(hash1 + i * hash2);
+
+            if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Map a combined hash to a bit position.
+     *
+     * @param combinedHash Int hash.
+     * @return Int bit index.
+     */
+    private int index(final int combinedHash) {
+        return (combinedHash < 0 ? ~combinedHash : combinedHash) % numBits;
+    }
+
+    /**
+     * 64 bits FNV-1a hash of the chars, finished with the MurmurHash3 mix.
+     *
+     * @param value String value.
+     * @return Long hash.
+     */
+    private static long hash(final String value) {
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
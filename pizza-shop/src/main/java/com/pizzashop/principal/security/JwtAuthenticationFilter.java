@@ -1,6 +1,7 @@
 package com.pizzashop.principal.security;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzashop.principal.caches.RoleRegistry;
 import com.pizzashop.principal.services.impls.UserDetailsServiceImpl;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
@@ -33,12 +34,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Value("${jwt.token.prefix}")
     public String TOKEN_PREFIX;
 
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean STATELESS_ENABLED;
+
+    @Value("${jwt.renewal.header:X-Renewed-Token}")
+    private String RENEWAL_HEADER;
+
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
     @Autowired
     private TokenProvider tokenProvider;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private TokenRenewer tokenRenewer;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
     /**
      * @param httpServletRequest  Http Servlet Request
      * @param httpServletResponse Http Servlet Response
@@ -55,15 +77,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         log.info("Executing doFilterInternal from JwtAuthenticationFilter");
 
         final String header = httpServletRequest.getHeader(HEADER_STRING);
-        String username = null;
-        String authToken = null;
+        String authToken;
+        VerifiedToken verifiedToken = null;
         boolean expired = false;
 
         if (header != null && header.startsWith(TOKEN_PREFIX)) {
             authToken = header.replace(TOKEN_PREFIX, "");
 
             try {
-                username = tokenProvider.getUsernameFromToken(authToken);
+                verifiedToken = verifiedTokenCache.verify(authToken);
             } catch (MalformedJwtException exception) {
                 log.error("This is not a valid token.");
             } catch (IllegalArgumentException exception) {
@@ -78,14 +100,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             log.warn("Couldn't find bearer string, header will be ignored");
         }
         if (!expired) {
-            if (username != null &&
+            if (verifiedToken != null &&
                     SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                final String username = verifiedToken.username();
 
-                if (tokenProvider.validateToken(authToken, userDetails)) {
-                    UsernamePasswordAuthenticationToken authentication =
-                            tokenProvider.getAuthenticationToken(authToken, userDetails);
+                UsernamePasswordAuthenticationToken authentication = authenticate(verifiedToken);
 
+                if (authentication != null) {
                     authentication.setDetails(
                             new WebAuthenticationDetailsSource()
                                     .buildDetails(httpServletRequest)
@@ -96,6 +117,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     SecurityContextHolder
                             .getContext()
                             .setAuthentication(authentication);
+
+                    final String renewedToken = tokenRenewer.renew(verifiedToken, authentication);
+
+                    if (renewedToken != null) {
+                        httpServletResponse.setHeader(RENEWAL_HEADER, renewedToken);
+                    }
                 }
             }
 
@@ -107,6 +134,52 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     }
 
+    /**
+     * Build the authentication from the verified token.
+     * In stateless mode the principal comes only from the token claims, without
+     * any database access, otherwise the user is loaded with the UserDetailsService.
+     * Refresh tokens, revoked tokens and tokens with an old token version are rejected in both modes.
+     * The authentication carries the role mask of the user for the method security.
+     *
+     * @param verifiedToken VerifiedToken.
+     * @return UsernamePasswordAuthenticationToken, null if the token is not valid.
+     */
+    private UsernamePasswordAuthenticationToken authenticate(final VerifiedToken verifiedToken) {
+        if (verifiedToken.isRefresh()) {
+            log.warn("The token is a refresh token, it will be ignored");
+
+            return null;
+        }
+
+        if (tokenRevocationStore.isRevoked(verifiedToken)) {
+            log.warn("The token has been revoked, it will be ignored");
+
+            return null;
+        }
+
+        if (verifiedToken.isStateless()) {
+            if (!tokenVersionRegistry.isCurrent(verifiedToken.userId(), verifiedToken.tokenVersion())) {
+                log.warn("The token version is not current, it will be ignored");
+
+                return null;
+            }
+
+            if (STATELESS_ENABLED) {
+                return verifiedToken.isExpired() ? null : RoleMaskAuthenticationToken.of(
+                        tokenProvider.getAuthenticationToken(verifiedToken), roleRegistry);
+            }
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(verifiedToken.username());
+
+        if (tokenProvider.validateToken(verifiedToken, userDetails)) {
+            return RoleMaskAuthenticationToken.of(
+                    tokenProvider.getAuthenticationToken(verifiedToken, userDetails), roleRegistry);
+        }
+
+        return null;
+    }
+
     /**
      * Write in the response that the token has expired.
      *
@@ -0,0 +1,236 @@
+package com.pizzashop.principal.security;
+
+import com.pizzashop.principal.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets of failed logins by username and by client IP.
+ * A login is rejected before the AuthenticationManager when any of its buckets is empty,
+ * so an over-limit attempt costs neither a BCrypt comparison nor a database lookup.
+ * Each bucket is a single AtomicLong with the theoretical arrival time of the GCRA,
+ * updated with a CAS, in a ConcurrentHashMap, so there are no locks.
+ * Full buckets are idle, they are evicted, and the number of keys is bounded.
+ * When the keys are at the bound, the failures of new keys are counted in a bucket shared
+ * by all of them, so filling the map with junk keys throttles the new keys instead of
+ * turning off the throttle.
+ */
+@Component
+@Slf4j
+public class LoginThrottle {
+
+    private static final String USERNAME_PREFIX = "u:";
+
+    private static final String IP_PREFIX = "ip:";
+
+    @Value("${security.login.throttle.enabled:true}")
+    private boolean ENABLED;
+
+    @Value("${security.login.throttle.username.burst:5}")
+    private int USERNAME_BURST;
+
+    @Value("${security.login.throttle.username.refill-period:60000}")
+    private long USERNAME_REFILL_PERIOD;
+
+    @Value("${security.login.throttle.ip.burst:20}")
+    private int IP_BURST;
+
+    @Value("${security.login.throttle.ip.refill-period:6000}")
+    private long IP_REFILL_PERIOD;
+
+    @Value("${security.login.throttle.max-keys:100000}")
+    private int MAX_KEYS;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Shared buckets of the new keys by prefix, used while the keys are at the bound.
+     */
+    private Map<String, AtomicLong> overflow;
+
+    private final AtomicBoolean overflowing = new AtomicBoolean();
+
+    private Counter rejections;
+
+    /**
+     * Bucket limits in nanoseconds.
+     *
+     * @param interval  Long time to refill one token.
+     * @param tolerance Long time to refill the burst minus one token.
+     */
+    private record Limit(long interval, long tolerance) {
+
+        static Limit of(final int burst, final long refillPeriod) {
+            final long interval = TimeUnit.MILLISECONDS.toNanos(refillPeriod);
+
+            return new Limit(interval, interval * (Math.max(burst, 1) - 1));
+        }
+    }
+
+    private Limit usernameLimit;
+
+    private Limit ipLimit;
+
+    /**
+     * Build the limits and register the metrics into the Meter Registry.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Executing init from LoginThrottle");
+
+        usernameLimit = Limit.of(USERNAME_BURST, USERNAME_REFILL_PERIOD);
+        ipLimit = Limit.of(IP_BURST, IP_REFILL_PERIOD);
+
+        final long now = System.nanoTime();
+
+        overflow = Map.of(USERNAME_PREFIX, new AtomicLong(now), IP_PREFIX, new AtomicLong(now));
+
+        rejections = Counter.builder("login.throttle.rejections").register(meterRegistry);
+        Gauge.builder("login.throttle.keys", buckets, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Reject the login if the username or the IP have no tokens left.
+     *
+     * @param username String username, it can be null.
+     * @param ip       String client IP, it can be null.
+     * @throws TooManyRequestsException If any of the buckets is empty.
+     */
+    public void check(final String username, final String ip) {
+        if (!ENABLED) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+        final long wait = Math.max(
+                wait(USERNAME_PREFIX, username, usernameLimit, now),
+                wait(IP_PREFIX, ip, ipLimit, now));
+
+        if (wait > 0) {
+            rejections.increment();
+
+            throw new TooManyRequestsException("Too many failed logins, try again later.",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+
+    /**
+     * Take a token from the username and IP buckets after a failed login.
+     *
+     * @param username String username, it can be null.
+     * @param ip       String client IP, it can be null.
+     */
+    public void recordFailure(final String username, final String ip) {
+        if (!ENABLED) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+
+        consume(USERNAME_PREFIX, username, usernameLimit, now);
+        consume(IP_PREFIX, ip, ipLimit, now);
+    }
+
+    /**
+     * Evict the idle buckets, the ones that are full again.
+     */
+    @Scheduled(fixedDelayString = "${security.login.throttle.purge.interval:60000}")
+    public void purgeIdle() {
+        final long now = System.nanoTime();
+
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+
+        if (buckets.size() < MAX_KEYS) {
+            overflowing.set(false);
+        }
+    }
+
+    /**
+     * Time until the bucket has a token again.
+     *
+     * @param prefix String key prefix.
+     * @param value  String key value.
+     * @param limit  Limit of the bucket.
+     * @param now    Long nanoTime.
+     * @return Long nanoseconds, 0 or less if there is a token.
+     */
+    private long wait(final String prefix, final String value, final Limit limit, final long now) {
+        if (value == null) {
+            return 0;
+        }
+
+        final AtomicLong bucket = bucket(prefix, value, false, now);
+
+        return bucket == null ? 0 : bucket.get() - limit.tolerance() - now;
+    }
+
+    /**
+     * Take a token with the GCRA, the arrival time never goes further than a full burst.
+     *
+     * @param prefix String key prefix.
+     * @param value  String key value.
+     * @param limit  Limit of the bucket.
+     * @param now    Long nanoTime.
+     */
+    private void consume(final String prefix, final String value, final Limit limit, final long now) {
+        if (value == null) {
+            return;
+        }
+
+        final AtomicLong bucket = bucket(prefix, value, true, now);
+
+        long current;
+        long next;
+
+        do {
+            current = bucket.get();
+            final long start = current - now > 0 ? current : now;
+            next = Math.min(start + limit.interval(), now + limit.tolerance() + limit.interval());
+        } while (!bucket.compareAndSet(current, next));
+    }
+
+    /**
+     * Bucket of a key, or the shared bucket of its prefix if the key is new and the keys
+     * are at the bound.
+     *
+     * @param prefix String key prefix.
+     * @param value  String key value.
+     * @param create Boolean if a missing bucket is created.
+     * @param now    Long nanoTime.
+     * @return AtomicLong bucket, null if it doesn't exist and it is not created.
+     */
+    private AtomicLong bucket(final String prefix, final String value, final boolean create, final long now) {
+        final String key = prefix + value;
+        final AtomicLong bucket = buckets.get(key);
+
+        if (bucket != null) {
+            return bucket;
+        }
+
+        if (buckets.size() >= MAX_KEYS) {
+            if (create && overflowing.compareAndSet(false, true)) {
+                log.warn("The login throttle is full, the failures of new keys share a bucket");
+            }
+
+            return overflow.get(prefix);
+        }
+
+        return create ? buckets.computeIfAbsent(key, k -> new AtomicLong(now)) : null;
+    }
+}
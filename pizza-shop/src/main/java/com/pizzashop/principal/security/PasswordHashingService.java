@@ -0,0 +1,277 @@
+package com.pizzashop.principal.security;
+
+import com.pizzashop.principal.exceptions.ServiceUnavailableException;
+import com.pizzashop.principal.repositories.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Password Encoder that runs the BCrypt work in its own bounded pool.
+ * The pool has one thread per core and a bounded queue, so a login storm can't take
+ * all the request threads hashing. When the queue is full the caller gets a fast 503
+ * with Retry-After instead of waiting, and the other endpoints keep their latency.
+ * The BCrypt cost is calibrated at startup to the target hash latency on this hardware,
+ * and the stored hashes with a lower cost are upgraded on the next successful login.
+ */
+@Component
+@Slf4j
+public class PasswordHashingService implements PasswordEncoder {
+
+    @Value("${security.password.hashing.threads:0}")
+    private int THREADS;
+
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int QUEUE_CAPACITY;
+
+    @Value("${security.password.hashing.timeout:5000}")
+    private long TIMEOUT;
+
+    @Value("${security.password.hashing.retry-after:1}")
+    private long RETRY_AFTER;
+
+    @Value("${security.password.hashing.strength:0}")
+    private int STRENGTH;
+
+    @Value("${security.password.hashing.target-hash-ms:50}")
+    private long TARGET_HASH_MS;
+
+    @Value("${security.password.hashing.min-strength:8}")
+    private int MIN_STRENGTH;
+
+    @Value("${security.password.hashing.max-strength:14}")
+    private int MAX_STRENGTH;
+
+    private static final int CALIBRATION_STRENGTH = 8;
+
+    private static final int CALIBRATION_ROUNDS = 5;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Integer, AtomicLong> storedCosts = new ConcurrentHashMap<>();
+
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer hashTimer;
+
+    private Counter rejections;
+
+    /**
+     * Build the pool and register its metrics into the Meter Registry.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Executing init from PasswordHashingService");
+
+        strength = STRENGTH > 0 ? STRENGTH : calibrate();
+        encoder = new BCryptPasswordEncoder(strength);
+
+        log.info("BCrypt cost " + strength);
+
+        final int threads = THREADS > 0 ? THREADS : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger threadNumber = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    final Thread thread = new Thread(runnable,
+                            "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        hashTimer = Timer.builder("password.hashing.latency")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        rejections = Counter.builder("password.hashing.rejections")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.cost", this, service -> service.strength)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count the stored hashes by cost factor.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${security.password.hashing.stored-costs.interval:300000}",
+            initialDelayString = "${security.password.hashing.stored-costs.interval:300000}")
+    public void countStoredCosts() {
+        final Map<Integer, Long> counts = new HashMap<>();
+
+        userRepository.countPasswordCosts().forEach(row -> {
+            final int cost = cost((String) row[0]);
+
+            counts.merge(cost, (Long) row[1], Long::sum);
+        });
+
+        storedCosts.values().forEach(count -> count.set(0));
+
+        counts.forEach((cost, count) -> storedCosts.computeIfAbsent(cost, key -> {
+            final AtomicLong value = new AtomicLong();
+
+            Gauge.builder("password.hashing.stored.cost", value, AtomicLong::get)
+                    .tag("cost", key < 0 ? "unknown" : String.valueOf(key))
+                    .register(meterRegistry);
+
+            return value;
+        }).set(count));
+    }
+
+    /**
+     * Stop the pool.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+        return submit(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * A stored hash must be upgraded if its cost is lower than the calibrated one.
+     * A higher cost is kept, a slower host must not weaken the hashes of a faster one.
+     *
+     * @param encodedPassword String stored hash.
+     * @return Boolean.
+     */
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        final int cost = cost(encodedPassword);
+
+        return cost > 0 && cost < strength;
+    }
+
+    /**
+     * Pick the highest cost whose hash time stays within the target.
+     * Every cost step doubles the time, so it is estimated from a cheap cost.
+     *
+     * @return Int cost.
+     */
+    private int calibrate() {
+        final BCryptPasswordEncoder calibration = new BCryptPasswordEncoder(CALIBRATION_STRENGTH);
+        long best = Long.MAX_VALUE;
+
+        calibration.encode("calibration");
+
+        for (int round = 0; round < CALIBRATION_ROUNDS; round++) {
+            final long start = System.nanoTime();
+
+            calibration.encode("calibration");
+
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        final long target = TimeUnit.MILLISECONDS.toNanos(TARGET_HASH_MS);
+        int cost = MIN_STRENGTH;
+
+        while (cost < MAX_STRENGTH
+                && best * (1L << (cost + 1 - CALIBRATION_STRENGTH)) <= target) {
+            cost++;
+        }
+
+        log.info("Calibrated BCrypt cost " + cost + " for a target of " + TARGET_HASH_MS
+                + " ms, cost " + CALIBRATION_STRENGTH + " takes "
+                + TimeUnit.NANOSECONDS.toMicros(best) + " us");
+
+        return cost;
+    }
+
+    /**
+     * Read the cost factor from a BCrypt hash, $2a$10$...
+     *
+     * @param encodedPassword String hash.
+     * @return Int cost, -1 if it is not a BCrypt hash.
+     */
+    private static int cost(final String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7
+                || encodedPassword.charAt(0) != '$' || encodedPassword.charAt(3) != '$') {
+            return -1;
+        }
+
+        try {
+            return Integer.parseInt(encodedPassword, 4, 6, 10);
+        } catch (NumberFormatException exception) {
+            return -1;
+        }
+    }
+
+    /**
+     * Run the hash in the pool and wait for it.
+     *
+     * @param task Callable hash.
+     * @param <T>  Result type.
+     * @return Result of the hash.
+     * @throws ServiceUnavailableException If the queue is full or the hash takes too long.
+     */
+    private <T> T submit(final Callable<T> task) {
+        final Future<T> future;
+
+        try {
+            future = executor.submit(() -> hashTimer.recordCallable(task));
+        } catch (RejectedExecutionException exception) {
+            rejections.increment();
+            log.warn("The password hashing queue is full");
+
+            throw new ServiceUnavailableException("The server is busy, try again later.", RETRY_AFTER);
+        }
+
+        try {
+            return future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException exception) {
+            future.cancel(true);
+
+            throw new ServiceUnavailableException("The server is busy, try again later.", RETRY_AFTER);
+        } catch (InterruptedException exception) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+
+            throw new ServiceUnavailableException("The server is busy, try again later.", RETRY_AFTER);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.pizzashop.principal.security;
+
+import com.pizzashop.principal.entities.RefreshTokenEntity;
+import com.pizzashop.principal.repositories.RefreshTokenRepository;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Refresh tokens by family.
+ * Every refresh token is stored by the SHA-256 of its id (jti), and each use rotates it to a
+ * new token of the same family. The stored record has everything needed to mint the new tokens,
+ * so a refresh is a single indexed lookup without loading the user.
+ * A token used twice means that it was leaked, so the whole family is revoked, except when
+ * the second use comes within a short grace period, as the concurrent refreshes of a client do.
+ */
+@Component
+@Slf4j
+public class RefreshTokenStore {
+
+    private static final String NOT_VALID = "This is not a valid token.";
+
+    private static final String ALREADY_USED = "The refresh token has already been used.";
+
+    @Value("${jwt.token.validity.refresh}")
+    private long REFRESH_TOKEN_VALIDITY;
+
+    @Value("${jwt.refresh.reuse-grace:10000}")
+    private long REUSE_GRACE;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    private final AuthorityCodes authorityCodes = new AuthorityCodes();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    });
+
+    /**
+     * Result of an issue or a rotation.
+     *
+     * @param authentication Authentication built from the stored record.
+     * @param refreshToken   String new refresh token of the family.
+     * @param familyId       String family id, for the access token.
+     */
+    public record Rotation(Authentication authentication, String refreshToken, String familyId) {
+    }
+
+    /**
+     * Issue the first refresh token of a new family.
+     *
+     * @param authentication Authentication, the principal must be an AuthenticatedUser.
+     * @return Rotation with the authentication, the refresh token and its family.
+     */
+    @Transactional
+    public Rotation issue(final Authentication authentication) {
+        log.info("Executing issue from RefreshTokenStore");
+
+        final String familyId = UUID.randomUUID().toString();
+
+        return new Rotation(authentication, issue(authentication, familyId), familyId);
+    }
+
+    /**
+     * Revoke every refresh token of a family, as the logout of its session does.
+     *
+     * @param familyId String family id.
+     */
+    @Transactional
+    public void revokeFamily(final String familyId) {
+        log.info("Executing revokeFamily from RefreshTokenStore");
+
+        refreshTokenRepository.revokeFamily(familyId);
+    }
+
+    /**
+     * Rotate a verified refresh token.
+     * The revocations are committed even if the rotation fails.
+     *
+     * @param refreshToken VerifiedToken.
+     * @return Rotation with the authentication and the new refresh token.
+     * @throws MalformedJwtException If the token is unknown, revoked or already used.
+     */
+    @Transactional(noRollbackFor = JwtException.class)
+    public Rotation rotate(final VerifiedToken refreshToken) {
+        log.info("Executing rotate from RefreshTokenStore");
+
+        if (refreshToken.id() == null) {
+            throw new MalformedJwtException(NOT_VALID);
+        }
+
+        final RefreshTokenEntity stored = refreshTokenRepository
+                .findRefreshTokenByTokenHash(hash(refreshToken.id()))
+                .orElseThrow(() -> new MalformedJwtException(NOT_VALID));
+
+        if (stored.isRevoked()) {
+            throw new MalformedJwtException(NOT_VALID);
+        }
+
+        if (!tokenVersionRegistry.isCurrent(stored.getUserId(), stored.getTokenVersion())) {
+            refreshTokenRepository.revokeFamily(stored.getFamilyId());
+
+            throw new MalformedJwtException(NOT_VALID);
+        }
+
+        final Instant now = Instant.now();
+
+        if (refreshTokenRepository.markAsUsed(stored.getId(), now) == 0) {
+            final Instant usedAt = stored.getUsedAt();
+
+            if (usedAt != null && usedAt.plusMillis(REUSE_GRACE).isBefore(now)) {
+                log.warn("Refresh token reuse detected, revoking the family of the user "
+                        + stored.getUsername());
+
+                refreshTokenRepository.revokeFamily(stored.getFamilyId());
+            }
+
+            throw new MalformedJwtException(ALREADY_USED);
+        }
+
+        final List<GrantedAuthority> authorities = authorityCodes.decode(stored.getRoles());
+
+        final AuthenticatedUser principal = new AuthenticatedUser(
+                stored.getUserId(),
+                stored.getUsername(),
+                "",
+                authorities,
+                stored.getTokenVersion()
+        );
+
+        final Authentication authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, authorities);
+
+        return new Rotation(authentication, issue(authentication, stored.getFamilyId()), stored.getFamilyId());
+    }
+
+    /**
+     * Delete the expired refresh tokens.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge.interval:3600000}")
+    public void purgeExpired() {
+        final int deleted = refreshTokenRepository.deleteExpiredTokens(Instant.now());
+
+        if (deleted > 0) {
+            log.info("Deleted " + deleted + " expired refresh tokens");
+        }
+    }
+
+    /**
+     * Generate and store a refresh token of a family.
+     *
+     * @param authentication Authentication, the principal must be an AuthenticatedUser.
+     * @param familyId       String family id.
+     * @return String refresh token.
+     */
+    private String issue(final Authentication authentication, final String familyId) {
+        if (!(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new IllegalStateException("The principal must be an AuthenticatedUser.");
+        }
+
+        final String id = UUID.randomUUID().toString();
+        final String refreshToken = tokenProvider.generateRefreshToken(authentication, id);
+
+        refreshTokenRepository.save(RefreshTokenEntity.builder()
+                .tokenHash(hash(id))
+                .familyId(familyId)
+                .userId(user.getId())
+                .username(user.getUsername())
+                .roles(authorityCodes.encode(authentication.getAuthorities()))
+                .tokenVersion(user.getTokenVersion())
+                .expiresAt(Instant.now().plusMillis(REFRESH_TOKEN_VALIDITY))
+                .build());
+
+        return refreshToken;
+    }
+
+    /**
+     * Hash the token id, the raw id is never stored.
+     *
+     * @param id String token id.
+     * @return String Base64URL SHA-256.
+     */
+    private String hash(final String id) {
+        final MessageDigest messageDigest = SHA_256.get();
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                messageDigest.digest(id.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
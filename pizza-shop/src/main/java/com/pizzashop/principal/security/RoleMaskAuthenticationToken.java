@@ -0,0 +1,76 @@
+package com.pizzashop.principal.security;
+
+import com.pizzashop.principal.caches.RoleRegistry;
+import lombok.Getter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Authentication that carries the roles of the user as a bitmask,
+ * with the bit positions of the RoleRegistry, so a role check is a single mask test.
+ */
+@Getter
+public class RoleMaskAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final long roleMask;
+
+    /**
+     * Authenticated token with the role mask.
+     *
+     * @param principal   Principal.
+     * @param credentials Credentials.
+     * @param authorities Authorities.
+     * @param roleMask    Long role mask of the authorities.
+     */
+    public RoleMaskAuthenticationToken(final Object principal,
+                                       final Object credentials,
+                                       final Collection<? extends GrantedAuthority> authorities,
+                                       final long roleMask) {
+        super(principal, credentials, authorities);
+        this.roleMask = roleMask;
+    }
+
+    /**
+     * Add the role mask to an authentication.
+     * If an authority is not a role or there is no bit for it, the authentication is returned as it is.
+     *
+     * @param authentication UsernamePasswordAuthenticationToken authenticated.
+     * @param roleRegistry   RoleRegistry with the bit positions.
+     * @return UsernamePasswordAuthenticationToken.
+     */
+    public static UsernamePasswordAuthenticationToken of(
+            final UsernamePasswordAuthenticationToken authentication,
+            final RoleRegistry roleRegistry) {
+        long roleMask = 0;
+
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            final String value = authority.getAuthority();
+
+            if (value == null || !value.startsWith(ROLE_PREFIX)) {
+                return authentication;
+            }
+
+            final int bit = roleRegistry.bitOf(value.substring(ROLE_PREFIX.length()));
+
+            if (bit < 0) {
+                return authentication;
+            }
+
+            roleMask |= 1L << bit;
+        }
+
+        final RoleMaskAuthenticationToken token = new RoleMaskAuthenticationToken(
+                authentication.getPrincipal(),
+                authentication.getCredentials(),
+                authentication.getAuthorities(),
+                roleMask);
+
+        token.setDetails(authentication.getDetails());
+
+        return token;
+    }
+}
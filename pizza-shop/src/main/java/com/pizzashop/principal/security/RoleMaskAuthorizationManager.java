@@ -0,0 +1,109 @@
+package com.pizzashop.principal.security;
+
+import com.pizzashop.principal.caches.RoleRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Authorization Manager for @PreAuthorize.
+ * The hasRole and hasAnyRole expressions are parsed once per method into a mask of the
+ * required roles, and checked with a single test against the mask of a
+ * RoleMaskAuthenticationToken. Any other expression or authentication goes to the
+ * SpEL PreAuthorizeAuthorizationManager, with the expression handler of the context
+ * so the expressions can reference beans.
+ */
+public class RoleMaskAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final Pattern ROLES_EXPRESSION =
+            Pattern.compile("^\\s*has(?:Any)?Role\\(\\s*('[A-Za-z0-9_]+'(?:\\s*,\\s*'[A-Za-z0-9_]+')*)\\s*\\)\\s*$");
+
+    private static final Pattern ROLE = Pattern.compile("'([A-Za-z0-9_]+)'");
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private static final long NO_MASK = 0L;
+
+    private final PreAuthorizeAuthorizationManager fallback = new PreAuthorizeAuthorizationManager();
+
+    private final Map<Method, Long> requiredMasks = new ConcurrentHashMap<>();
+
+    private final Supplier<RoleRegistry> roleRegistry;
+
+    /**
+     * @param roleRegistry      Supplier of the RoleRegistry, it is resolved on the first check.
+     * @param expressionHandler MethodSecurityExpressionHandler of the SpEL expressions.
+     */
+    public RoleMaskAuthorizationManager(final Supplier<RoleRegistry> roleRegistry,
+                                        final MethodSecurityExpressionHandler expressionHandler) {
+        this.roleRegistry = roleRegistry;
+        this.fallback.setExpressionHandler(expressionHandler);
+    }
+
+    @Override
+    public AuthorizationDecision check(final Supplier<Authentication> authentication,
+                                       final MethodInvocation invocation) {
+        final long requiredMask = requiredMasks.computeIfAbsent(invocation.getMethod(), this::parse);
+
+        if (requiredMask != NO_MASK
+                && authentication.get() instanceof RoleMaskAuthenticationToken token
+                && token.isAuthenticated()) {
+            return new AuthorizationDecision((token.getRoleMask() & requiredMask) != 0);
+        }
+
+        return fallback.check(authentication, invocation);
+    }
+
+    /**
+     * Parse the @PreAuthorize expression of the method, or of its class.
+     *
+     * @param method Method.
+     * @return Long mask of the required roles, 0 if the expression is not a role check.
+     */
+    private long parse(final Method method) {
+        PreAuthorize preAuthorize = AnnotationUtils.findAnnotation(method, PreAuthorize.class);
+
+        if (preAuthorize == null) {
+            preAuthorize = AnnotationUtils.findAnnotation(method.getDeclaringClass(), PreAuthorize.class);
+        }
+
+        if (preAuthorize == null) {
+            return NO_MASK;
+        }
+
+        final Matcher expression = ROLES_EXPRESSION.matcher(preAuthorize.value());
+
+        if (!expression.matches()) {
+            return NO_MASK;
+        }
+
+        final Matcher role = ROLE.matcher(expression.group(1));
+        long mask = NO_MASK;
+
+        while (role.find()) {
+            final String name = role.group(1);
+            final int bit = roleRegistry.get().bitOf(
+                    name.startsWith(ROLE_PREFIX) ? name.substring(ROLE_PREFIX.length()) : name);
+
+            if (bit < 0) {
+                return NO_MASK;
+            }
+
+            mask |= 1L << bit;
+        }
+
+        return mask;
+    }
+}
@@ -0,0 +1,335 @@
+package com.pizzashop.principal.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Signing keys by key id (kid).
+ * All the keys are built once into an immutable snapshot, the active one signs the new tokens
+ * and the others only verify, so a key can be rotated without invalidating the issued tokens.
+ * The keys are read from an optional properties file that is polled for changes:
+ * <pre>
+ * active=2024-06
+ * key.2024-06=Base64 key
+ * key.2024-01=Base64 key
+ * </pre>
+ * With HS256 the values are the HMAC secrets, with RS256 the PKCS#8 private keys,
+ * and the public keys are published as a JWKS.
+ * Tokens without a kid header were signed with jwt.signing.key before the key ring, and tokens
+ * with the default kid were signed with it before the keys file. Both are verified with it
+ * until the cut-off jwt.signing.legacy.until (an ISO-8601 instant), by default the startup
+ * plus the longest token validity, so the issued tokens outlive the switch and then
+ * the legacy secret is retired.
+ */
+@Component
+@Slf4j
+public class SigningKeyRing extends SigningKeyResolverAdapter {
+
+    private static final String DEFAULT_KID = "default";
+
+    private static final String ACTIVE_PROPERTY = "active";
+
+    private static final String KEY_PROPERTY_PREFIX = "key.";
+
+    @Value("${jwt.signing.key}")
+    private String SIGNING_KEY;
+
+    @Value("${jwt.signing.algorithm:HS256}")
+    private String ALGORITHM;
+
+    @Value("${jwt.signing.keys.location:}")
+    private String KEYS_LOCATION;
+
+    @Value("${jwt.signing.legacy.until:}")
+    private String LEGACY_UNTIL;
+
+    @Value("${jwt.token.validity.access}")
+    private long ACCESS_TOKEN_VALIDITY;
+
+    @Value("${jwt.token.validity.refresh}")
+    private long REFRESH_TOKEN_VALIDITY;
+
+    private transient Key legacyKey;
+
+    private transient Instant legacyUntil;
+
+    private transient FileTime lastModified;
+
+    private volatile KeySet keySet;
+
+    /**
+     * Immutable snapshot of the keys.
+     *
+     * @param activeKid        String kid of the signing key.
+     * @param signingKey       Key used to sign.
+     * @param verificationKeys Keys used to verify by kid.
+     * @param jwks             Public keys as JWKs, empty for HMAC keys.
+     */
+    private record KeySet(String activeKid,
+                          Key signingKey,
+                          Map<String, Key> verificationKeys,
+                          List<Map<String, Object>> jwks) {
+    }
+
+    /**
+     * Build the legacy key and load the key ring.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Executing init from SigningKeyRing");
+
+        legacyKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY));
+        legacyUntil = LEGACY_UNTIL == null || LEGACY_UNTIL.isBlank()
+                ? Instant.now().plusMillis(Math.max(ACCESS_TOKEN_VALIDITY, REFRESH_TOKEN_VALIDITY))
+                : Instant.parse(LEGACY_UNTIL);
+
+        if (KEYS_LOCATION.isBlank()) {
+            if (getSignatureAlgorithm() != SignatureAlgorithm.HS256) {
+                throw new IllegalStateException(
+                        "jwt.signing.keys.location is required with " + ALGORITHM);
+            }
+
+            keySet = new KeySet(DEFAULT_KID, legacyKey,
+                    Map.of(DEFAULT_KID, legacyKey), List.of());
+        } else {
+            reload();
+
+            if (keySet == null) {
+                throw new IllegalStateException("The signing keys could not be loaded from "
+                        + KEYS_LOCATION);
+            }
+        }
+    }
+
+    /**
+     * Reload the keys file when it changes.
+     * If the new file is not valid the current keys are kept.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.keys.refresh.interval:60000}",
+            initialDelayString = "${jwt.signing.keys.refresh.interval:60000}")
+    public void reload() {
+        if (KEYS_LOCATION.isBlank()) {
+            return;
+        }
+
+        final Path path = Path.of(KEYS_LOCATION);
+
+        try {
+            final FileTime modified = Files.getLastModifiedTime(path);
+
+            if (modified.equals(lastModified)) {
+                return;
+            }
+
+            final Properties properties = new Properties();
+
+            try (Reader reader = Files.newBufferedReader(path)) {
+                properties.load(reader);
+            }
+
+            keySet = load(properties);
+            lastModified = modified;
+
+            log.info("Loaded the signing keys " + keySet.verificationKeys().keySet()
+                    + ", active " + keySet.activeKid());
+        } catch (IOException | GeneralSecurityException | RuntimeException exception) {
+            log.error("The signing keys could not be reloaded: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Add the kid header and sign with the active key.
+     *
+     * @param builder JwtBuilder.
+     * @return JwtBuilder.
+     */
+    public JwtBuilder signWith(final JwtBuilder builder) {
+        final KeySet current = keySet;
+
+        return builder
+                .setHeaderParam(JwsHeader.KEY_ID, current.activeKid())
+                .signWith(current.signingKey(), getSignatureAlgorithm());
+    }
+
+    /**
+     * Pick the pre-built key by the kid header.
+     * The legacy key only verifies, without kid or as the default kid missing from the keys file,
+     * until the legacy cut-off.
+     *
+     * @param header JwsHeader.
+     * @param claims Claims.
+     * @return Key.
+     * @throws SignatureException If the kid is unknown, or missing after the legacy cut-off.
+     */
+    @Override
+    public Key resolveSigningKey(final JwsHeader header, final Claims claims) {
+        final String kid = header.getKeyId();
+
+        if (kid == null) {
+            if (!isLegacyAccepted()) {
+                throw new SignatureException("The token has no signing key id.");
+            }
+
+            return legacyKey;
+        }
+
+        final Key key = keySet.verificationKeys().get(kid);
+
+        if (key == null) {
+            if (DEFAULT_KID.equals(kid) && isLegacyAccepted()) {
+                return legacyKey;
+            }
+
+            throw new SignatureException("Unknown signing key id " + kid + ".");
+        }
+
+        return key;
+    }
+
+    /**
+     * Get the public keys as a JWK Set.
+     *
+     * @return Map with the keys.
+     */
+    public Map<String, Object> getJwks() {
+        return Map.of("keys", keySet.jwks());
+    }
+
+    /**
+     * Are the tokens signed with the legacy key still accepted.
+     *
+     * @return Boolean true before the legacy cut-off.
+     */
+    private boolean isLegacyAccepted() {
+        return Instant.now().isBefore(legacyUntil);
+    }
+
+    /**
+     * Get the signature algorithm.
+     *
+     * @return SignatureAlgorithm.
+     */
+    private SignatureAlgorithm getSignatureAlgorithm() {
+        return SignatureAlgorithm.forName(ALGORITHM);
+    }
+
+    /**
+     * Build all the keys of the file.
+     *
+     * @param properties Properties with the active kid and the keys.
+     * @return KeySet.
+     * @throws GeneralSecurityException If a key is not valid.
+     */
+    private KeySet load(final Properties properties) throws GeneralSecurityException {
+        final String activeKid = properties.getProperty(ACTIVE_PROPERTY);
+        final boolean rsa = getSignatureAlgorithm().isRsa();
+
+        final Map<String, Key> verificationKeys = new HashMap<>();
+        final List<Map<String, Object>> jwks = new ArrayList<>();
+        Key signingKey = null;
+
+        for (String name : properties.stringPropertyNames()) {
+            if (!name.startsWith(KEY_PROPERTY_PREFIX)) {
+                continue;
+            }
+
+            final String kid = name.substring(KEY_PROPERTY_PREFIX.length());
+            final byte[] encoded = Decoders.BASE64.decode(properties.getProperty(name).trim());
+
+            if (rsa) {
+                final RSAPrivateCrtKey privateKey = (RSAPrivateCrtKey) KeyFactory.getInstance("RSA")
+                        .generatePrivate(new PKCS8EncodedKeySpec(encoded));
+
+                final RSAPublicKey publicKey = (RSAPublicKey) KeyFactory.getInstance("RSA")
+                        .generatePublic(new RSAPublicKeySpec(
+                                privateKey.getModulus(), privateKey.getPublicExponent()));
+
+                verificationKeys.put(kid, publicKey);
+                jwks.add(toJwk(kid, publicKey));
+
+                if (kid.equals(activeKid)) {
+                    signingKey = privateKey;
+                }
+            } else {
+                final Key key = Keys.hmacShaKeyFor(encoded);
+
+                verificationKeys.put(kid, key);
+
+                if (kid.equals(activeKid)) {
+                    signingKey = key;
+                }
+            }
+        }
+
+        if (signingKey == null) {
+            throw new IllegalArgumentException("There is no key for the active kid " + activeKid);
+        }
+
+        return new KeySet(activeKid, signingKey,
+                Map.copyOf(verificationKeys), List.copyOf(jwks));
+    }
+
+    /**
+     * Convert an RSA public key to a JWK.
+     *
+     * @param kid       String key id.
+     * @param publicKey RSAPublicKey.
+     * @return Map with the JWK members.
+     */
+    private Map<String, Object> toJwk(final String kid, final RSAPublicKey publicKey) {
+        final Map<String, Object> jwk = new LinkedHashMap<>();
+
+        jwk.put("kty", "RSA");
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", ALGORITHM);
+        jwk.put("n", toBase64Url(publicKey.getModulus()));
+        jwk.put("e", toBase64Url(publicKey.getPublicExponent()));
+
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    /**
+     * Base64URL of the unsigned big-endian bytes.
+     *
+     * @param value BigInteger.
+     * @return String.
+     */
+    private String toBase64Url(final BigInteger value) {
+        byte[] bytes = value.toByteArray();
+
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+
+        return Encoders.BASE64URL.encode(bytes);
+    }
+}
@@ -4,7 +4,9 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.io.Encoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -16,11 +18,10 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -31,96 +32,125 @@ public class TokenProvider implements Serializable {
 
     @Value("${jwt.token.validity.refresh}")
     private long REFRESH_TOKEN_VALIDITY;
-    @Value("${jwt.signing.key}")
-    private String SIGNING_KEY;
-
     @Value("${jwt.payload.key}")
     private String PAYLOAD_KEY;
 
     @Value("${jwt.authorities.key}")
     private String AUTHORITIES_KEY;
 
-    /**
-     * Get the User from the token.
-     *
-     * @param token String token.
-     * @return String username from the token clams.
-     */
-    public String getUsernameFromToken(final String token) {
-        log.info("Executing getUsernameFromToken from TokenProvider");
+    @Value("${jwt.claims.compact:true}")
+    private boolean COMPACT_CLAIMS;
 
-        return decode(getClaimFromToken(token, Claims::getSubject));
-    }
+    private static final String USER_ID_CLAIM = "uid";
+
+    private static final String TOKEN_VERSION_CLAIM = "tv";
+
+    private static final String FORMAT_CLAIM = "v";
+
+    private static final String ROLES_CLAIM = "rl";
+
+    private static final String FAMILY_CLAIM = "fid";
+
+    private static final String TYPE_CLAIM = "typ";
+
+    private static final int COMPACT_FORMAT = 2;
+
+    private final transient AuthorityCodes authorityCodes = new AuthorityCodes();
+
+    private transient String encodedAuthoritiesKey;
+
+    @Autowired
+    private transient SigningKeyRing signingKeyRing;
+
+    private transient JwtParser jwtParser;
 
     /**
-     * Get expiration date from the token.
-     *
-     * @param token String token.
-     * @return Date expiration date.
+     * Build the JwtParser and the legacy authorities claim name once.
+     * The JwtParser is immutable and thread-safe, so it is shared by all the requests,
+     * the verification key is picked from the key ring by the kid header.
      */
-    private Date getExpirationDateFromToken(final String token) {
-        log.info("Executing getExpirationDateFromToken from TokenProvider");
+    @PostConstruct
+    public void init() {
+        log.info("Executing init from TokenProvider");
 
-        return getClaimFromToken(token, Claims::getExpiration);
+        encodedAuthoritiesKey = encode(AUTHORITIES_KEY);
+
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(signingKeyRing)
+                .build();
     }
 
     /**
-     * Get claim from token.
+     * Get the User from the token.
      *
-     * @param token          String token.
-     * @param claimsResolver Claim resolver.
-     * @param <T>            Any object
-     * @return Any object.
+     * @param token String token.
+     * @return String username from the token clams.
      */
-    private <T> T getClaimFromToken(final String token,
-                                    final Function<Claims, T> claimsResolver) {
-        log.info("Executing getClaimFromToken from TokenProvider");
-
-        final Claims claims = getAllClaimsFromToken(token);
+    public String getUsernameFromToken(final String token) {
+        log.info("Executing getUsernameFromToken from TokenProvider");
 
-        return claimsResolver.apply(claims);
+        return verifyToken(token).username();
     }
 
     /**
-     * Get all claims from token.
+     * Verify the signature and parse the token only once,
+     * extracting the username, authorities, issued at and expiration.
+     * Compact tokens (v=2) carry the plain username and the role codes,
+     * tokens without the format claim are decoded with the legacy encoding.
      *
      * @param token String token.
-     * @return Claims from the token.
+     * @return VerifiedToken.
+     * @throws ExpiredJwtException   If the token has expired.
+     * @throws MalformedJwtException If the token is not a valid JWT.
      */
-    private Claims getAllClaimsFromToken(final String token) {
-        log.info("Executing getAllClaimsFromToken from TokenProvider");
+    public VerifiedToken verifyToken(final String token) {
+        log.info("Executing verifyToken from TokenProvider");
 
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        final Claims claims = jwtParser
                 .parseClaimsJws(token)
                 .getBody();
+
+        final Integer format = claims.get(FORMAT_CLAIM, Integer.class);
+        final boolean compact = format != null && format == COMPACT_FORMAT;
+
+        return new VerifiedToken(
+                compact ? claims.getSubject() : decode(claims.getSubject()),
+                compact ? authorityCodes.decode(claims.get(ROLES_CLAIM, String.class)) :
+                        getLegacyAuthorities(claims),
+                claims.getIssuedAt(),
+                claims.getExpiration(),
+                claims.get(USER_ID_CLAIM, Long.class),
+                claims.get(TOKEN_VERSION_CLAIM, Integer.class),
+                claims.getId(),
+                claims.get(FAMILY_CLAIM, String.class),
+                claims.get(TYPE_CLAIM, String.class)
+        );
     }
 
     /**
-     * Is the token has expired.
+     * Generate access token.
      *
-     * @param token String token.
-     * @return Boolean is the token has expired or not.
+     * @param authentication Authentication
+     * @return String token.
      */
-    private Boolean isTokenExpired(final String token) {
-        log.info("Executing isTokenExpired from TokenProvider");
-
-        final Date expiration = getExpirationDateFromToken(token);
+    public String generateAccessToken(final Authentication authentication) {
+        log.info("Executing generateAccessToken from TokenProvider");
 
-        return expiration.before(new Date());
+        return generateAccessToken(authentication, null);
     }
 
     /**
-     * Generate access token.
+     * Generate access token of a refresh token family, so the logout can revoke the family.
      *
      * @param authentication Authentication
+     * @param familyId       String refresh token family id, null if it has none.
      * @return String token.
      */
-    public String generateAccessToken(final Authentication authentication) {
+    public String generateAccessToken(final Authentication authentication, final String familyId) {
         log.info("Executing generateAccessToken from TokenProvider");
 
-        return generateToken(authentication, ACCESS_TOKEN_VALIDITY);
+        return generateToken(authentication, ACCESS_TOKEN_VALIDITY, UUID.randomUUID().toString(),
+                familyId, VerifiedToken.ACCESS_TYPE);
     }
 
     /**
@@ -132,82 +162,121 @@ public class TokenProvider implements Serializable {
     public String generateRefreshToken(final Authentication authentication) {
         log.info("Executing generateRefreshToken from TokenProvider");
 
-        return generateToken(authentication, REFRESH_TOKEN_VALIDITY);
+        return generateRefreshToken(authentication, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Generate refresh token with a given token id.
+     *
+     * @param authentication Authentication
+     * @param id             String token id (jti).
+     * @return String token.
+     */
+    public String generateRefreshToken(final Authentication authentication, final String id) {
+        log.info("Executing generateRefreshToken from TokenProvider");
+
+        return generateToken(authentication, REFRESH_TOKEN_VALIDITY, id, null, VerifiedToken.REFRESH_TYPE);
     }
 
     /**
      * Generate token.
+     * The type claim keeps a refresh token from being used as a bearer access token.
      *
      * @param authentication Authentication
      * @param expiration     Long expiration time.
+     * @param id             String token id (jti).
+     * @param familyId       String refresh token family id, null if it has none.
+     * @param type           String token type (access or refresh).
      * @return String token.
      */
     private String generateToken(final Authentication authentication,
-                                 final long expiration) {
+                                 final long expiration,
+                                 final String id,
+                                 final String familyId,
+                                 final String type) {
         log.info("Executing generateToken from TokenProvider");
 
-        final String authorities = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining(","));
+        final JwtBuilder builder = Jwts.builder();
+
+        if (COMPACT_CLAIMS) {
+            builder.claim(FORMAT_CLAIM, COMPACT_FORMAT)
+                    .setSubject(authentication.getName())
+                    .claim(ROLES_CLAIM, authorityCodes.encode(authentication.getAuthorities()));
+        } else {
+            final String authorities = authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.joining(","));
+
+            builder.setSubject(encode(authentication.getName()))
+                    .claim(encodedAuthoritiesKey, encode(authorities));
+        }
+
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            builder.claim(USER_ID_CLAIM, user.getId())
+                    .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        }
 
-        return Jwts.builder()
-                .setSubject(encode(authentication.getName()))
-                .claim(encode(AUTHORITIES_KEY), encode(authorities))
+        if (familyId != null) {
+            builder.claim(FAMILY_CLAIM, familyId);
+        }
+
+        builder.claim(TYPE_CLAIM, type)
+                .setId(id)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+                .setExpiration(new Date(System.currentTimeMillis() + expiration));
+
+        return signingKeyRing.signWith(builder).compact();
     }
 
     /**
-     * Extract the username from the token and compare it
+     * Compare the username from the verified token
      * to the User from the UserDetails.
      *
-     * @param token       String token.
-     * @param userDetails User Details.
+     * @param verifiedToken VerifiedToken.
+     * @param userDetails   User Details.
      * @return Boolean.
      */
-    public Boolean validateToken(final String token, final UserDetails userDetails) {
+    public Boolean validateToken(final VerifiedToken verifiedToken, final UserDetails userDetails) {
         log.info("Executing validateToken from TokenProvider");
 
-        final String username = getUsernameFromToken(token);
-
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return (verifiedToken.username().equals(userDetails.getUsername()) && !verifiedToken.isExpired());
     }
 
     /**
-     * Extract the authorities from the token and create a new
-     * UsernamePasswordAuthenticationToken with the UserDetails and those authorities.
+     * Create a new UsernamePasswordAuthenticationToken with the UserDetails
+     * and the authorities from the verified token.
      *
-     * @param token       String token.
-     * @param userDetails UserDetails.
+     * @param verifiedToken VerifiedToken.
+     * @param userDetails   UserDetails.
      * @return UsernamePasswordAuthenticationToken.
      */
     public UsernamePasswordAuthenticationToken getAuthenticationToken
-    (final String token, final UserDetails userDetails) {
+    (final VerifiedToken verifiedToken, final UserDetails userDetails) {
         log.info("Executing getAuthenticationToken from TokenProvider");
 
-        final JwtParser jwtParser = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
-
-        final Jws<Claims> claimsJws = jwtParser.parseClaimsJws(token);
-
-        final Claims claims = claimsJws.getBody();
-
-        final Collection<? extends GrantedAuthority> authorities =
-                Arrays.stream(decode(claims.get(encode(AUTHORITIES_KEY)).toString()).split(","))
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toList());
-
-        return new UsernamePasswordAuthenticationToken(userDetails, "", authorities);
+        return new UsernamePasswordAuthenticationToken(userDetails, "", verifiedToken.authorities());
     }
 
     /**
-     * Get the encode Key
+     * Create a new UsernamePasswordAuthenticationToken only from the verified claims,
+     * the principal is an AuthenticatedUser without password.
      *
-     * @return Key.
+     * @param verifiedToken VerifiedToken, it must carry the user id and token version.
+     * @return UsernamePasswordAuthenticationToken.
      */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY));
+    public UsernamePasswordAuthenticationToken getAuthenticationToken
+    (final VerifiedToken verifiedToken) {
+        log.info("Executing getAuthenticationToken from TokenProvider");
+
+        final AuthenticatedUser principal = new AuthenticatedUser(
+                verifiedToken.userId(),
+                verifiedToken.username(),
+                "",
+                verifiedToken.authorities(),
+                verifiedToken.tokenVersion()
+        );
+
+        return new UsernamePasswordAuthenticationToken(principal, "", verifiedToken.authorities());
     }
 
     /**
@@ -221,6 +290,18 @@ public class TokenProvider implements Serializable {
         return Encoders.BASE64.encode(key.getEncoded());
     }
 
+    /**
+     * Get the authorities from the legacy encoded claim.
+     *
+     * @param claims Claims.
+     * @return Immutable list of authorities.
+     */
+    private List<GrantedAuthority> getLegacyAuthorities(final Claims claims) {
+        return Arrays.stream(decode(claims.get(encodedAuthoritiesKey).toString()).split(","))
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
     /**
      * Encode the string value.
      *
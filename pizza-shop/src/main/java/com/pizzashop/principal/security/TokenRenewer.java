@@ -0,0 +1,89 @@
+package com.pizzashop.principal.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sliding renewal of the access tokens.
+ * Once a token has lived a fraction of its lifetime, the filter returns a new one in a
+ * response header, so the active clients never reach the expiration.
+ * Each user gets at most one renewal per interval, so concurrent requests don't all mint tokens.
+ */
+@Component
+@Slf4j
+public class TokenRenewer {
+
+    @Value("${jwt.renewal.enabled:false}")
+    private boolean ENABLED;
+
+    @Value("${jwt.renewal.threshold:0.75}")
+    private double THRESHOLD;
+
+    @Value("${jwt.renewal.min-interval:30000}")
+    private long MIN_INTERVAL;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    private final Map<String, Long> lastRenewals = new ConcurrentHashMap<>();
+
+    /**
+     * Mint a new access token if the verified one has passed the threshold
+     * and the user has not got one in the last interval.
+     *
+     * @param verifiedToken  VerifiedToken of the request.
+     * @param authentication Authentication built from it.
+     * @return String new access token, null if it is not renewed.
+     */
+    public String renew(final VerifiedToken verifiedToken, final Authentication authentication) {
+        if (!ENABLED || verifiedToken.issuedAt() == null) {
+            return null;
+        }
+
+        final long now = System.currentTimeMillis();
+        final long issuedAt = verifiedToken.issuedAt().getTime();
+        final long lifetime = verifiedToken.expiration().getTime() - issuedAt;
+
+        if (now - issuedAt < lifetime * THRESHOLD) {
+            return null;
+        }
+
+        final AtomicBoolean granted = new AtomicBoolean();
+
+        lastRenewals.compute(verifiedToken.username(), (username, last) -> {
+            if (last != null && now - last < MIN_INTERVAL) {
+                return last;
+            }
+
+            granted.set(true);
+
+            return now;
+        });
+
+        if (!granted.get()) {
+            return null;
+        }
+
+        log.info("Renewing the access token of " + verifiedToken.username());
+
+        return tokenProvider.generateAccessToken(authentication, verifiedToken.familyId());
+    }
+
+    /**
+     * Evict the users whose interval has passed.
+     */
+    @Scheduled(fixedDelayString = "${jwt.renewal.min-interval:30000}")
+    public void purge() {
+        final long now = System.currentTimeMillis();
+
+        lastRenewals.values().removeIf(last -> now - last >= MIN_INTERVAL);
+    }
+}
@@ -0,0 +1,195 @@
+package com.pizzashop.principal.security;
+
+import com.pizzashop.principal.entities.RevokedTokenEntity;
+import com.pizzashop.principal.repositories.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked tokens by id (jti), and revoked sessions by refresh token family id (fid).
+ * The table is the source of truth, shared by all the app nodes, and it is mirrored
+ * into an exact in-memory set behind a Bloom filter, so checking a token that was
+ * not revoked is a single filter probe.
+ */
+@Component
+@Slf4j
+public class TokenRevocationStore {
+
+    @Value("${jwt.revocation.bloom.expected-insertions:100000}")
+    private int BLOOM_EXPECTED_INSERTIONS;
+
+    @Value("${jwt.revocation.bloom.false-positive-probability:0.01}")
+    private double BLOOM_FALSE_POSITIVE_PROBABILITY;
+
+    @Value("${jwt.revocation.refresh.interval:10000}")
+    private long REFRESH_INTERVAL;
+
+    @Value("${jwt.token.validity.access}")
+    private long ACCESS_TOKEN_VALIDITY;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+
+    private volatile BloomFilter bloomFilter = new BloomFilter(1, 0.01);
+
+    private volatile Instant lastRefresh = Instant.EPOCH;
+
+    /**
+     * Load the revoked tokens that have not expired yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.info("Executing load from TokenRevocationStore");
+
+        final Instant now = Instant.now();
+
+        revokedTokenRepository.findRevokedTokensByExpiresAtAfter(now)
+                .forEach(token -> revoked.put(token.getId(), token.getExpiresAt()));
+
+        lastRefresh = now;
+
+        rebuild();
+    }
+
+    /**
+     * Is the token revoked.
+     *
+     * @param id String token id (jti), null for tokens issued without it.
+     * @return Boolean.
+     */
+    public boolean isRevoked(final String id) {
+        if (id == null || !bloomFilter.mightContain(id)) {
+            return false;
+        }
+
+        return revoked.containsKey(id);
+    }
+
+    /**
+     * Is the token, or the session it was issued in, revoked.
+     *
+     * @param verifiedToken VerifiedToken.
+     * @return Boolean.
+     */
+    public boolean isRevoked(final VerifiedToken verifiedToken) {
+        return isRevoked(verifiedToken.id()) || isRevoked(verifiedToken.familyId());
+    }
+
+    /**
+     * Revoke a token until its expiration.
+     *
+     * @param id         String token id (jti).
+     * @param expiration Date token expiration.
+     */
+    public void revoke(final String id, final Date expiration) {
+        log.info("Executing revoke from TokenRevocationStore");
+
+        if (id == null) {
+            return;
+        }
+
+        final RevokedTokenEntity token = RevokedTokenEntity.builder()
+                .id(id)
+                .expiresAt(expiration.toInstant())
+                .revokedAt(Instant.now())
+                .build();
+
+        revokedTokenRepository.save(token);
+
+        add(token.getId(), token.getExpiresAt());
+    }
+
+    /**
+     * Revoke all the access tokens of a refresh token family, including the renewed ones,
+     * until the last one that could have been issued before expires.
+     *
+     * @param familyId String family id (fid).
+     */
+    public void revokeFamily(final String familyId) {
+        log.info("Executing revokeFamily from TokenRevocationStore");
+
+        revoke(familyId, new Date(System.currentTimeMillis() + ACCESS_TOKEN_VALIDITY));
+    }
+
+    /**
+     * Poll the table for the tokens revoked by other nodes, and evict the expired ones
+     * from memory. The poll overlaps the previous one to tolerate clock skew between the nodes.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh.interval:10000}",
+            initialDelayString = "${jwt.revocation.refresh.interval:10000}")
+    public void refresh() {
+        final Instant now = Instant.now();
+        final Instant since = lastRefresh.minus(Duration.ofMillis(REFRESH_INTERVAL * 2));
+
+        final List<RevokedTokenEntity> tokens =
+                revokedTokenRepository.findRevokedTokensByRevokedAtAfter(since);
+
+        tokens.forEach(token -> {
+            if (!revoked.containsKey(token.getId())) {
+                add(token.getId(), token.getExpiresAt());
+            }
+        });
+
+        lastRefresh = now;
+
+        if (revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now))) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Delete the expired tokens from the table, on a slower schedule than the poll.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge.interval:3600000}")
+    public void purgeExpired() {
+        final int deleted = revokedTokenRepository.deleteExpiredTokens(Instant.now());
+
+        if (deleted > 0) {
+            log.info("Deleted " + deleted + " expired revoked tokens");
+        }
+    }
+
+    /**
+     * Add a token to the exact set and the Bloom filter.
+     *
+     * @param id        String token id.
+     * @param expiresAt Instant token expiration.
+     */
+    private void add(final String id, final Instant expiresAt) {
+        synchronized (lock) {
+            revoked.put(id, expiresAt);
+            bloomFilter.put(id);
+        }
+    }
+
+    /**
+     * Bloom filters can't remove values, so a new one is built from the exact set.
+     */
+    private void rebuild() {
+        synchronized (lock) {
+            final BloomFilter rebuilt = new BloomFilter(
+                    Math.max(BLOOM_EXPECTED_INSERTIONS, revoked.size() * 2),
+                    BLOOM_FALSE_POSITIVE_PROBABILITY);
+
+            revoked.keySet().forEach(rebuilt::put);
+
+            bloomFilter = rebuilt;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.pizzashop.principal.security;
+
+import com.pizzashop.principal.entities.TokenVersionEntity;
+import com.pizzashop.principal.repositories.TokenVersionRepository;
+import com.pizzashop.principal.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory map of the users whose token version is not the initial one.
+ * A token is current only if it carries the same version the user has now,
+ * so password changes and deletes invalidate the old tokens without a database lookup.
+ * Every change is also written to a table that the other app nodes poll, on the schedule of
+ * the TokenRevocationStore, so a change on one node reaches all of them.
+ */
+@Component
+@Slf4j
+public class TokenVersionRegistry {
+
+    private static final int DELETED = -1;
+
+    @Value("${jwt.revocation.refresh.interval:10000}")
+    private long REFRESH_INTERVAL;
+
+    @Value("${jwt.token.validity.refresh}")
+    private long REFRESH_TOKEN_VALIDITY;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenVersionRepository tokenVersionRepository;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    private volatile Instant lastRefresh = Instant.EPOCH;
+
+    /**
+     * Load the users with a token version greater than the initial one,
+     * and then the changes of the table, they include the deleted users.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.info("Executing load from TokenVersionRegistry");
+
+        final Instant now = Instant.now();
+
+        userRepository.findTokenVersions()
+                .forEach(row -> versions.put((Long) row[0], (Integer) row[1]));
+
+        tokenVersionRepository.findAll()
+                .forEach(change -> versions.put(change.getUserId(), change.getTokenVersion()));
+
+        lastRefresh = now;
+    }
+
+    /**
+     * Is the token version the current one of the user.
+     *
+     * @param userId       Long user id from the token.
+     * @param tokenVersion Integer token version from the token.
+     * @return Boolean.
+     */
+    public boolean isCurrent(final Long userId, final Integer tokenVersion) {
+        final int current = versions.getOrDefault(userId, 0);
+
+        return current != DELETED && current == tokenVersion;
+    }
+
+    /**
+     * Register the new token version of a user.
+     *
+     * @param userId       Long user id.
+     * @param tokenVersion Integer token version.
+     */
+    public void update(final Long userId, final Integer tokenVersion) {
+        change(userId, tokenVersion == null ? 0 : tokenVersion);
+    }
+
+    /**
+     * Invalidate all the tokens of a deleted user.
+     *
+     * @param userId Long user id.
+     */
+    public void delete(final Long userId) {
+        change(userId, DELETED);
+    }
+
+    /**
+     * Poll the table for the changes made by other nodes.
+     * The poll overlaps the previous one to tolerate clock skew between the nodes.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh.interval:10000}",
+            initialDelayString = "${jwt.revocation.refresh.interval:10000}")
+    public void refresh() {
+        final Instant now = Instant.now();
+        final Instant since = lastRefresh.minus(Duration.ofMillis(REFRESH_INTERVAL * 2));
+
+        tokenVersionRepository.findTokenVersionsByChangedAtAfter(since)
+                .forEach(change -> versions.put(change.getUserId(), change.getTokenVersion()));
+
+        lastRefresh = now;
+    }
+
+    /**
+     * Delete the changes older than the refresh token validity,
+     * the tokens issued before them have expired.
+     */
+    @Scheduled(fixedDelayString = "${jwt.token-version.purge.interval:3600000}")
+    public void purgeExpired() {
+        final int deleted = tokenVersionRepository.deleteChangedBefore(
+                Instant.now().minusMillis(REFRESH_TOKEN_VALIDITY));
+
+        if (deleted > 0) {
+            log.info("Deleted " + deleted + " expired token version changes");
+        }
+    }
+
+    /**
+     * Keep the new token version and write it for the other nodes, if it changed.
+     *
+     * @param userId       Long user id.
+     * @param tokenVersion Int token version, DELETED for a deleted user.
+     */
+    private void change(final Long userId, final int tokenVersion) {
+        final Integer previous = versions.put(userId, tokenVersion);
+
+        if (previous == null ? tokenVersion == 0 : previous == tokenVersion) {
+            return;
+        }
+
+        tokenVersionRepository.save(TokenVersionEntity.builder()
+                .userId(userId)
+                .tokenVersion(tokenVersion)
+                .changedAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,72 @@
+package com.pizzashop.principal.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Result of a single signature verification and parse of a JWT.
+ * Everything the request needs from the token is read once into this value.
+ *
+ * @param username     String username from the subject claim.
+ * @param authorities  Authorities from the authorities claim.
+ * @param issuedAt     Date issued at.
+ * @param expiration   Date expiration.
+ * @param userId       Long user id, null in tokens issued before the claim existed.
+ * @param tokenVersion Integer token version, null in tokens issued before the claim existed.
+ * @param id           String token id (jti), null in tokens issued before the claim existed.
+ * @param familyId     String refresh token family of an access token, null if it has none.
+ * @param type         String token type (access or refresh), null in tokens issued before the claim existed.
+ */
+public record VerifiedToken(String username,
+                            Collection<? extends GrantedAuthority> authorities,
+                            Date issuedAt,
+                            Date expiration,
+                            Long userId,
+                            Integer tokenVersion,
+                            String id,
+                            String familyId,
+                            String type) {
+
+    public static final String ACCESS_TYPE = "access";
+
+    public static final String REFRESH_TYPE = "refresh";
+
+    /**
+     * Is the token has expired.
+     *
+     * @return Boolean is the token has expired or not.
+     */
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+
+    /**
+     * Does the token carry the user id and the token version
+     * needed to build the principal without the database.
+     *
+     * @return Boolean.
+     */
+    public boolean isStateless() {
+        return userId != null && tokenVersion != null;
+    }
+
+    /**
+     * Is the token an access token.
+     *
+     * @return Boolean false for the refresh tokens and the tokens without type.
+     */
+    public boolean isAccess() {
+        return ACCESS_TYPE.equals(type);
+    }
+
+    /**
+     * Is the token a refresh token.
+     *
+     * @return Boolean false for the access tokens and the tokens without type.
+     */
+    public boolean isRefresh() {
+        return REFRESH_TYPE.equals(type);
+    }
+}
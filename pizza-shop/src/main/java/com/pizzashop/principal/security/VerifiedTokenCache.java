@@ -0,0 +1,97 @@
+package com.pizzashop.principal.security;
+
+import com.pizzashop.principal.caches.BoundedTtlCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    @Value("${jwt.cache.enabled:true}")
+    private boolean CACHE_ENABLED;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int CACHE_MAX_SIZE;
+
+    @Value("${jwt.cache.ttl:3600000}")
+    private long CACHE_TTL;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BoundedTtlCache<String, VerifiedToken> cache;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    });
+
+    /**
+     * Build the cache, its entries expire with their tokens.
+     * Its meters are the cache.* ones of the BoundedTtlCache, tagged with cache=jwt.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Executing init from VerifiedTokenCache");
+
+        cache = new BoundedTtlCache<>("jwt", CACHE_MAX_SIZE, Duration.ofMillis(CACHE_TTL),
+                verifiedToken -> verifiedToken.expiration() == null
+                        ? null : verifiedToken.expiration().toInstant(),
+                meterRegistry);
+    }
+
+    /**
+     * Return the verified token from the cache, or verify it with the
+     * TokenProvider and keep it until its own expiration.
+     * If the cache is disabled, the token is always verified.
+     *
+     * @param token String token.
+     * @return VerifiedToken.
+     */
+    public VerifiedToken verify(final String token) {
+        if (!CACHE_ENABLED) {
+            return tokenProvider.verifyToken(token);
+        }
+
+        return cache.get(digest(token), key -> tokenProvider.verifyToken(token));
+    }
+
+    /**
+     * Evict the tokens that have expired.
+     */
+    @Scheduled(fixedDelayString = "${jwt.cache.purge.interval:60000}")
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+
+    /**
+     * The raw token is never kept in memory, only its SHA-256 digest.
+     *
+     * @param token String token.
+     * @return String digest.
+     */
+    private String digest(final String token) {
+        final MessageDigest messageDigest = SHA_256.get();
+
+        return Base64.getEncoder().encodeToString(
+                messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -11,5 +11,5 @@ public interface AuthService {
     AuthResponseDTO refresh(HttpServletRequest request,
                             HttpServletResponse response);
 
-    void logout();
+    void logout(HttpServletRequest request);
 }
@@ -1,6 +1,9 @@
 package com.pizzashop.principal.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pizzashop.principal.dtos.BatchResponseDTO;
 import com.pizzashop.principal.dtos.CategoryRequestDTO;
+import com.pizzashop.principal.dtos.CategoryResponseDTO;
 import com.pizzashop.principal.entities.CategoryEntity;
 
 import java.util.List;
@@ -9,13 +12,23 @@ public interface CategoryService {
 
     CategoryEntity saveCategory(CategoryRequestDTO categoryRequestDTO);
 
-    CategoryEntity updateCategory(Long id, CategoryRequestDTO toUpdate);
+    CategoryEntity updateCategory(Long id, CategoryRequestDTO toUpdate, String version);
+
+    CategoryEntity patchCategory(Long id, JsonNode patch, String version);
 
     CategoryEntity deleteCategory(Long id);
 
-    List<CategoryEntity> findAllCategories();
+    List<CategoryResponseDTO> findAllCategories();
+
+    CategoryResponseDTO findCategoryById(Long id);
+
+    CategoryResponseDTO findCategoryByName(String name);
+
+    BatchResponseDTO<CategoryResponseDTO> findCategoriesByIds(List<Long> ids);
+
+    String findCategoryVersion(Long id);
 
-    CategoryEntity findCategoryById(Long id);
+    String findCategoriesVersion();
 
-    CategoryEntity findCategoryByName(String name);
+    String versionOf(List<CategoryResponseDTO> categories);
 }
@@ -0,0 +1,11 @@
+package com.pizzashop.principal.services;
+
+import com.pizzashop.principal.dtos.MenuResponseDTO;
+
+public interface MenuService {
+
+    MenuResponseDTO findMenu();
+
+    void invalidate();
+
+}
@@ -0,0 +1,13 @@
+package com.pizzashop.principal.services;
+
+import com.pizzashop.principal.dtos.FileFormat;
+import com.pizzashop.principal.dtos.ProductImportReportDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    ProductImportReportDTO importProducts(FileFormat format, InputStream inputStream) throws IOException;
+
+}
@@ -1,26 +1,58 @@
 package com.pizzashop.principal.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pizzashop.principal.dtos.BatchResponseDTO;
+import com.pizzashop.principal.dtos.FileFormat;
+import com.pizzashop.principal.dtos.PageRequestDTO;
+import com.pizzashop.principal.dtos.PageResponseDTO;
 import com.pizzashop.principal.dtos.ProductRequestDTO;
+import com.pizzashop.principal.dtos.ProductResponseDTO;
 import com.pizzashop.principal.entities.ProductEntity;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ProductService {
 
     ProductEntity saveProduct(ProductRequestDTO productRequestDTO);
 
-    ProductEntity updateProduct(Long id, ProductRequestDTO toUpdate);
+    ProductEntity updateProduct(Long id, ProductRequestDTO toUpdate, String version);
+
+    ProductEntity patchProduct(Long id, JsonNode patch, String version);
 
     ProductEntity deleteProduct(Long id);
 
-    List<ProductEntity> findAllProducts();
+    List<ProductResponseDTO> findAllProducts();
+
+    List<ProductResponseDTO> findProductsByStatus(String status);
+
+    List<ProductResponseDTO> findProductsByCategoryId(Long categoryId);
+
+    PageResponseDTO<ProductResponseDTO> findProductsPage(PageRequestDTO pageRequestDTO);
+
+    PageResponseDTO<ProductResponseDTO> findProductsPageByStatus(String status, PageRequestDTO pageRequestDTO);
+
+    PageResponseDTO<ProductResponseDTO> findProductsPageByCategoryId(Long categoryId, PageRequestDTO pageRequestDTO);
+
+    long exportProducts(FileFormat format, OutputStream outputStream) throws IOException;
+
+    ProductResponseDTO findProductById(Long id);
+
+    ProductResponseDTO findProductByName(String name);
+
+    BatchResponseDTO<ProductResponseDTO> findProductsByIds(List<Long> ids);
+
+    String findProductVersion(Long id);
+
+    String findProductsVersion();
 
-    List<ProductEntity> findProductsByStatus(String status);
+    String findProductsVersionByStatus(String status);
 
-    List<ProductEntity> findProductsByCategoryId(Long categoryId);
+    String findProductsVersionByCategoryId(Long categoryId);
 
-    ProductEntity findProductById(Long id);
+    String versionOf(List<ProductResponseDTO> products);
 
-    ProductEntity findProductByName(String name);
+    void invalidateCategory(Long categoryId);
 
 }
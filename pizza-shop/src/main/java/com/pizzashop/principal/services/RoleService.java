@@ -9,7 +9,7 @@ public interface RoleService {
 
     RoleEntity saveRole(RoleRequestDTO roleRequestDTO);
 
-    RoleEntity updateRole(Long id, RoleRequestDTO toUpdate);
+    RoleEntity updateRole(Long id, RoleRequestDTO toUpdate, String version);
 
     RoleEntity deleteRole(Long id);
 
@@ -18,4 +18,8 @@ public interface RoleService {
     RoleEntity findRoleById(Long id);
 
     RoleEntity findRoleByName(String name);
+
+    String findRoleVersion(Long id);
+
+    String findRolesVersion();
 }
@@ -1,5 +1,7 @@
 package com.pizzashop.principal.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pizzashop.principal.dtos.BatchResponseDTO;
 import com.pizzashop.principal.dtos.UserRequestDTO;
 import com.pizzashop.principal.entities.UserEntity;
 
@@ -8,7 +10,9 @@ import java.util.List;
 public interface UserService {
     UserEntity saveUser(UserRequestDTO userRequestDTO);
 
-    UserEntity updateUser(Long id, UserRequestDTO toUpdate);
+    UserEntity updateUser(Long id, UserRequestDTO toUpdate, String version);
+
+    UserEntity patchUser(Long id, JsonNode patch, String version);
 
     UserEntity deleteUser(Long id);
 
@@ -19,4 +23,10 @@ public interface UserService {
     UserEntity findUserByUsername(String username);
 
     UserEntity findUserByEmail(String email);
+
+    BatchResponseDTO<UserEntity> findUsersByIds(List<Long> ids);
+
+    String findUserVersion(Long id);
+
+    String findUsersVersion();
 }
@@ -2,8 +2,14 @@ package com.pizzashop.principal.services.impls;
 
 import com.pizzashop.principal.dtos.AuthRequestDTO;
 import com.pizzashop.principal.dtos.AuthResponseDTO;
+import com.pizzashop.principal.exceptions.TooManyRequestsException;
+import com.pizzashop.principal.security.LoginThrottle;
+import com.pizzashop.principal.security.RefreshTokenStore;
 import com.pizzashop.principal.security.TokenProvider;
+import com.pizzashop.principal.security.TokenRevocationStore;
+import com.pizzashop.principal.security.VerifiedToken;
 import com.pizzashop.principal.services.AuthService;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -14,10 +20,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 @Service
 @Slf4j
@@ -36,41 +43,63 @@ public class AuthServiceImpl implements AuthService {
     private TokenProvider tokenProvider;
 
     @Autowired
-    private UserDetailsServiceImpl userDetailsService;
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
 
     /**
      * Login into the Security Context.
+     * The attempt is throttled by username and client IP before the authentication,
+     * and the failures are recorded in the LoginThrottle.
      *
      * @param authRequestDTO It will have the username and password to login.
      * @return AuthResponseDTO It will have the access and refresh token as response.
+     * @throws TooManyRequestsException If there are too many failed logins.
      */
     @Override
     public AuthResponseDTO login(@NotNull final AuthRequestDTO authRequestDTO) {
         log.info("Executing login from AuthServiceImpl");
 
+        final String username = authRequestDTO.getUsername();
+        final String ip = getClientIp();
+
+        loginThrottle.check(username, ip);
+
         final Authentication authentication;
 
-        authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        authRequestDTO.getUsername(),
-                        authRequestDTO.getPassword()
-                )
-        );
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            username,
+                            authRequestDTO.getPassword()
+                    )
+            );
+        } catch (AuthenticationException exception) {
+            loginThrottle.recordFailure(username, ip);
+
+            throw exception;
+        }
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        final String accessToken = tokenProvider.generateAccessToken(authentication);
-        final String refreshToken = tokenProvider.generateRefreshToken(authentication);
+        final RefreshTokenStore.Rotation issued = refreshTokenStore.issue(authentication);
+        final String accessToken = tokenProvider.generateAccessToken(authentication, issued.familyId());
 
         return AuthResponseDTO.builder()
                 .accessToken(accessToken)
-                .refreshToken(refreshToken)
+                .refreshToken(issued.refreshToken())
                 .build();
     }
 
     /**
      * Refresh the access token using the refresh token,
      * and then they will be contained into the response.
+     * The refresh token is rotated and the access token is minted from its stored record.
+     * Access tokens are rejected, they can't be rotated.
      *
      * @param request  HttpServletRequest.
      * @param response HttpServletResponse.
@@ -82,37 +111,25 @@ public class AuthServiceImpl implements AuthService {
         log.info("Executing refresh from AuthServiceImpl");
 
         final String header = request.getHeader(HEADER_STRING);
-        final String username;
-        final String refreshToken;
 
         if (header != null && header.startsWith(TOKEN_PREFIX)) {
-            refreshToken = header.replace(TOKEN_PREFIX, "");
+            final VerifiedToken verifiedToken =
+                    tokenProvider.verifyToken(header.replace(TOKEN_PREFIX, ""));
 
-            username = tokenProvider.getUsernameFromToken(refreshToken);
-
-            if (username != null) {
-                UserDetails userDetails = this.userDetailsService
-                        .loadUserByUsername(username);
+            if (verifiedToken.isAccess()) {
+                throw new MalformedJwtException("This is not a valid token.");
+            }
 
-                if (tokenProvider.validateToken(refreshToken, userDetails)) {
-                    final String accessToken = tokenProvider.generateAccessToken(
-                            SecurityContextHolder
-                                    .getContext()
-                                    .getAuthentication()
-                    );
+            final RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(verifiedToken);
 
-                    return AuthResponseDTO
-                            .builder()
-                            .accessToken(accessToken)
-                            .refreshToken(refreshToken)
-                            .build();
+            final String accessToken = tokenProvider.generateAccessToken(
+                    rotation.authentication(), rotation.familyId());
 
-                } else {
-                    throw new MalformedJwtException("This is not a valid token.");
-                }
-            } else {
-                throw new UsernameNotFoundException("An error occurred while fetching Username from Token.");
-            }
+            return AuthResponseDTO
+                    .builder()
+                    .accessToken(accessToken)
+                    .refreshToken(rotation.refreshToken())
+                    .build();
         } else {
             throw new IllegalArgumentException("Couldn't find bearer string.");
         }
@@ -120,13 +137,50 @@ public class AuthServiceImpl implements AuthService {
 
     /**
      * Logout from the Security Context.
+     * The bearer token, if any, is revoked until it expires, and so is the refresh token
+     * family it was issued with, so the session can't mint new access tokens,
+     * and the access tokens already renewed for the session are rejected as well.
+     *
+     * @param request HttpServletRequest.
      */
     @Override
-    public void logout() {
+    public void logout(final HttpServletRequest request) {
         log.info("Executing logOut from AuthServiceImpl");
 
+        final String header = request.getHeader(HEADER_STRING);
+
+        if (header != null && header.startsWith(TOKEN_PREFIX)) {
+            try {
+                final VerifiedToken verifiedToken =
+                        tokenProvider.verifyToken(header.replace(TOKEN_PREFIX, ""));
+
+                tokenRevocationStore.revoke(verifiedToken.id(), verifiedToken.expiration());
+
+                if (verifiedToken.familyId() != null) {
+                    refreshTokenStore.revokeFamily(verifiedToken.familyId());
+                    tokenRevocationStore.revokeFamily(verifiedToken.familyId());
+                }
+            } catch (JwtException | IllegalArgumentException exception) {
+                log.warn("The token is not valid, there is nothing to revoke");
+            }
+        }
+
         SecurityContextHolder.getContext().setAuthentication(null);
         SecurityContextHolder.clearContext();
     }
 
+    /**
+     * Get the IP of the client from the current request.
+     *
+     * @return String IP, null if there is no request.
+     */
+    private String getClientIp() {
+        if (RequestContextHolder.getRequestAttributes()
+                instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getRemoteAddr();
+        }
+
+        return null;
+    }
+
 }
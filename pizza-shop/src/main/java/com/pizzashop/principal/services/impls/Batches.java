@@ -0,0 +1,92 @@
+package com.pizzashop.principal.services.impls;
+
+import com.pizzashop.principal.dtos.BatchResponseDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Multi-get by ids: the ids are queried in chunks, one IN-list query per chunk,
+ * and the response keeps the order of the request.
+ */
+final class Batches {
+
+    private Batches() {
+    }
+
+    /**
+     * Distinct ids in the order of the request.
+     *
+     * @param ids     List<Long> requested ids.
+     * @param maxSize Int max number of distinct ids.
+     * @return List<Long> distinct ids.
+     * @throws IllegalArgumentException If an id is null or there are too many ids.
+     */
+    static List<Long> distinct(final List<Long> ids, final int maxSize) {
+        final LinkedHashSet<Long> distinct = new LinkedHashSet<>();
+
+        for (Long id : ids) {
+            if (id == null) {
+                throw new IllegalArgumentException("The ids must not be null.");
+            }
+
+            distinct.add(id);
+        }
+
+        if (distinct.size() > maxSize) {
+            throw new IllegalArgumentException("The batch must have at most " + maxSize + " ids.");
+        }
+
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * Query the ids in chunks, so a large list doesn't become a single huge statement.
+     *
+     * @param ids       List<Long> ids.
+     * @param chunkSize Int max number of ids of a query.
+     * @param query     Function of a chunk of ids to its items, in any order.
+     * @param idOf      Function of an item to its id.
+     * @return Map<Long, T> items by id, the ids without an item are left out.
+     */
+    static <T> Map<Long, T> query(final List<Long> ids, final int chunkSize,
+                                  final Function<List<Long>, List<T>> query,
+                                  final Function<T, Long> idOf) {
+        final Map<Long, T> items = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            query.apply(ids.subList(from, Math.min(from + chunkSize, ids.size())))
+                    .forEach(item -> items.put(idOf.apply(item), item));
+        }
+
+        return items;
+    }
+
+    /**
+     * Response in the order of the ids, with the ids without an item.
+     *
+     * @param ids   List<Long> distinct ids in the order of the request.
+     * @param items Map<Long, T> items by id.
+     * @return BatchResponseDTO<T>.
+     */
+    static <T> BatchResponseDTO<T> response(final List<Long> ids, final Map<Long, ? extends T> items) {
+        final List<T> found = new ArrayList<>(items.size());
+        final List<Long> missing = new ArrayList<>();
+
+        for (Long id : ids) {
+            final T item = items.get(id);
+
+            if (item != null) {
+                found.add(item);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        return new BatchResponseDTO<>(found, missing);
+    }
+}
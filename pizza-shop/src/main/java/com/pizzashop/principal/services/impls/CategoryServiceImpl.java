@@ -1,26 +1,77 @@
 package com.pizzashop.principal.services.impls;
 
-import com.pizzashop.principal.daos.CategoryDAO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pizzashop.principal.caches.BoundedTtlCache;
+import com.pizzashop.principal.dtos.BatchResponseDTO;
 import com.pizzashop.principal.dtos.CategoryRequestDTO;
+import com.pizzashop.principal.dtos.CategoryResponseDTO;
 import com.pizzashop.principal.entities.CategoryEntity;
 import com.pizzashop.principal.exceptions.EntityNotFoundException;
 import com.pizzashop.principal.exceptions.NameAlreadyExistsException;
+import com.pizzashop.principal.exceptions.PreconditionFailedException;
+import com.pizzashop.principal.projections.CollectionVersion;
+import com.pizzashop.principal.projections.EntityVersion;
 import com.pizzashop.principal.repositories.CategoryRepository;
 import com.pizzashop.principal.services.CategoryService;
+import com.pizzashop.principal.services.MenuService;
+import com.pizzashop.principal.services.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
 
 @Service
 @Slf4j
 public class CategoryServiceImpl implements CategoryService {
+
+    @Value("${catalog.cache.max-size:10000}")
+    private int CACHE_MAX_SIZE;
+
+    @Value("${catalog.cache.ttl:600000}")
+    private long CACHE_TTL;
+
+    @Value("${batch.max-size:10000}")
+    private int BATCH_MAX_SIZE;
+
+    @Value("${batch.chunk-size:1000}")
+    private int BATCH_CHUNK_SIZE;
+
     @Autowired
     private CategoryRepository categoryRepository;
 
     @Autowired
-    private CategoryDAO categoryDAO;
+    private ProductService productService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JsonMergePatcher jsonMergePatcher;
+
+    /**
+     * Categories by id(Long) and by name(String).
+     */
+    private BoundedTtlCache<Object, CategoryResponseDTO> cache;
+
+    /**
+     * Build the categories cache.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Executing init from CategoryServiceImpl");
+
+        cache = new BoundedTtlCache<>("categories", CACHE_MAX_SIZE,
+                Duration.ofMillis(CACHE_TTL), meterRegistry);
+    }
 
     /**
      * Save a category from DTO into the database using JPA.
@@ -38,7 +89,11 @@ public class CategoryServiceImpl implements CategoryService {
         if (categoryRepository.existsCategoryByName(category.getName()))
             throw new NameAlreadyExistsException("Busy name.");
 
-        return categoryRepository.save(category);
+        category = categoryRepository.save(category);
+
+        menuService.invalidate();
+
+        return category;
     }
 
     /**
@@ -46,12 +101,14 @@ public class CategoryServiceImpl implements CategoryService {
      *
      * @param id       Long id, to search the specific category to update.
      * @param toUpdate CategoryDTO as request.
+     * @param version  String version tag the client read, null to skip the check.
      * @return CategoryEntity as response.
-     * @throws EntityNotFoundException    If the category doesn't exist.
-     * @throws NameAlreadyExistsException If the name is already in use.
+     * @throws EntityNotFoundException     If the category doesn't exist.
+     * @throws NameAlreadyExistsException  If the name is already in use.
+     * @throws PreconditionFailedException If the category changed since the client read it.
      */
     @Override
-    public CategoryEntity updateCategory(final Long id, final CategoryRequestDTO toUpdate) {
+    public CategoryEntity updateCategory(final Long id, final CategoryRequestDTO toUpdate, final String version) {
         log.info("Executing updateCategory from CategoryServiceImpl");
 
         CategoryEntity category = categoryRepository.findCategoryById(id);
@@ -61,9 +118,72 @@ public class CategoryServiceImpl implements CategoryService {
                     CategoryEntity.class.getSimpleName() + " with id: " + id);
         }
 
+        if (version != null && !version.equals(new EntityVersion(category.getVersion(), 0L).tag())) {
+            throw new PreconditionFailedException("Outdated version.");
+        }
+
+        final String oldName = category.getName();
+
         update(category, toUpdate);
 
-        return categoryRepository.save(category);
+        category = categoryRepository.save(category);
+
+        invalidate(id, oldName);
+
+        return category;
+    }
+
+    /**
+     * Update only the fields of the patch of an existent category.
+     * The patch is applied to the current category and only its fields are validated,
+     * the name is checked only if it changed. Only the changed columns are written.
+     *
+     * @param id      Long id, to search the specific category to update.
+     * @param patch   JsonNode JSON Merge Patch.
+     * @param version String version tag the client read, null to skip the check.
+     * @return CategoryEntity as response.
+     * @throws EntityNotFoundException     If the category doesn't exist.
+     * @throws NameAlreadyExistsException  If the name is already in use.
+     * @throws PreconditionFailedException If the category changed since the client read it.
+     * @throws IllegalArgumentException    If the patch or the patched category is not valid.
+     */
+    @Override
+    public CategoryEntity patchCategory(final Long id, final JsonNode patch, final String version) {
+        log.info("Executing patchCategory from CategoryServiceImpl");
+
+        CategoryEntity category = categoryRepository.findCategoryById(id);
+
+        if (category == null) {
+            throw new EntityNotFoundException("Couldn't find " +
+                    CategoryEntity.class.getSimpleName() + " with id: " + id);
+        }
+
+        if (version != null && !version.equals(new EntityVersion(category.getVersion(), 0L).tag())) {
+            throw new PreconditionFailedException("Outdated version.");
+        }
+
+        final String oldName = category.getName();
+
+        final CategoryRequestDTO patched = jsonMergePatcher.patch(CategoryRequestDTO
+                .builder()
+                .name(category.getName())
+                .description(category.getDescription())
+                .build(), patch);
+
+        if (!oldName.equals(patched.getName())) {
+            if (categoryRepository.existsCategoryByName(patched.getName()))
+                throw new NameAlreadyExistsException("Busy name.");
+
+            category.setName(patched.getName());
+        }
+
+        category.setDescription(patched.getDescription());
+
+        category = categoryRepository.save(category);
+
+        invalidate(id, oldName);
+
+        return category;
     }
 
     /**
@@ -86,61 +206,165 @@ public class CategoryServiceImpl implements CategoryService {
 
         categoryRepository.deleteById(id);
 
+        invalidate(id, category.getName());
+
         return category;
     }
 
     /**
-     * Find all the categories from the database using JPA.
+     * Find all the categories from the database.
      *
-     * @return Lis<CategoryEntity> it can be Null if there isn't categories.
+     * @return List<CategoryResponseDTO> ordered by id, empty if there isn't categories.
      */
     @Override
-    public List<CategoryEntity> findAllCategories() {
+    public List<CategoryResponseDTO> findAllCategories() {
         log.info("Executing findAllCategories from CategoryServiceImpl");
 
-        return categoryRepository.findAll();
+        return categoryRepository.findCategories();
     }
 
     /**
-     * Find a category from the database using JPA.
+     * Find a category from the cache, or from the database using JPA.
      *
      * @param id Long id, to search the specific category.
-     * @return CategoryEntity as response.
+     * @return CategoryResponseDTO immutable snapshot as response.
      * @throws EntityNotFoundException If the category doesn't exist.
      */
     @Override
-    public CategoryEntity findCategoryById(final Long id) {
+    public CategoryResponseDTO findCategoryById(final Long id) {
         log.info("Executing findCategoryById from CategoryServiceImpl");
 
-        CategoryEntity category = categoryRepository.findCategoryById(id);
+        return cache.get(id, key -> {
+            CategoryResponseDTO category = categoryRepository.findCategoryResponseById(id);
 
-        if (category == null) {
-            throw new EntityNotFoundException("Couldn't find " +
-                    CategoryEntity.class.getSimpleName() + " with id: " + id);
-        }
+            if (category == null) {
+                throw new EntityNotFoundException("Couldn't find " +
+                        CategoryEntity.class.getSimpleName() + " with id: " + id);
+            }
 
-        return category;
+            return category;
+        });
     }
 
     /**
-     * Find a category from the database using JPA.
+     * Find a category from the cache, or from the database using JPA.
      *
      * @param name String name, to search the specific category.
-     * @return CategoryEntity as response.
+     * @return CategoryResponseDTO immutable snapshot as response.
      * @throws EntityNotFoundException If the category doesn't exist.
      */
     @Override
-    public CategoryEntity findCategoryByName(final String name) {
+    public CategoryResponseDTO findCategoryByName(final String name) {
         log.info("Executing findCategoryByName from CategoryServiceImpl");
 
-        CategoryEntity category = categoryRepository.findCategoryByName(name);
+        return cache.get(name, key -> {
+            CategoryResponseDTO category = categoryRepository.findCategoryResponseByName(name);
 
-        if (category == null) {
+            if (category == null) {
+                throw new EntityNotFoundException("Couldn't find " +
+                        CategoryEntity.class.getSimpleName() + " with name: " + name);
+            }
+
+            return category;
+        });
+    }
+
+    /**
+     * Find categories by their ids, from the cache, and the ones that are not cached from the
+     * database with IN-list queries of at most batch.chunk-size ids.
+     *
+     * @param ids List<Long> ids, the repeated ones are returned once.
+     * @return BatchResponseDTO<CategoryResponseDTO> in the order of the ids, with the missing ids.
+     * @throws IllegalArgumentException If an id is null or there are more than batch.max-size ids.
+     */
+    @Override
+    public BatchResponseDTO<CategoryResponseDTO> findCategoriesByIds(final List<Long> ids) {
+        log.info("Executing findCategoriesByIds from CategoryServiceImpl");
+
+        final List<Long> distinct = Batches.distinct(ids, BATCH_MAX_SIZE);
+
+        return Batches.response(distinct, cache.getAll(distinct, missing ->
+                Batches.query(missing, BATCH_CHUNK_SIZE,
+                        categoryRepository::findCategoryResponsesByIds, CategoryResponseDTO::id)));
+    }
+
+    /**
+     * Find the version tag of a category, from the cache or with a query of the version,
+     * so the category is not loaded to answer a conditional request.
+     *
+     * @param id Long id, to search the specific category.
+     * @return String version tag of the category.
+     * @throws EntityNotFoundException If the category doesn't exist.
+     */
+    @Override
+    public String findCategoryVersion(final Long id) {
+        log.info("Executing findCategoryVersion from CategoryServiceImpl");
+
+        final CategoryResponseDTO cached = cache.getIfPresent(id);
+
+        if (cached != null) {
+            return new EntityVersion(cached.version(), 0L).tag();
+        }
+
+        final EntityVersion version = categoryRepository.findCategoryVersionById(id);
+
+        if (version == null) {
             throw new EntityNotFoundException("Couldn't find " +
-                    CategoryEntity.class.getSimpleName() + " with name: " + name);
+                    CategoryEntity.class.getSimpleName() + " with id: " + id);
         }
 
-        return category;
+        return version.tag();
+    }
+
+    /**
+     * Find the version tag of all the categories with an aggregate query.
+     *
+     * @return String version tag, the same as the one of the loaded categories.
+     */
+    @Override
+    public String findCategoriesVersion() {
+        log.info("Executing findCategoriesVersion from CategoryServiceImpl");
+
+        return categoryRepository.findCategoriesVersion().tag();
+    }
+
+    /**
+     * Version tag of categories already loaded, so a full response doesn't need a second query.
+     *
+     * @param categories List<CategoryResponseDTO>.
+     * @return String version tag, the same as the one of the aggregate query.
+     */
+    @Override
+    public String versionOf(final List<CategoryResponseDTO> categories) {
+        return CollectionVersion.of(categories, CategoryResponseDTO::id,
+                category -> new EntityVersion(category.version(), 0L)).tag();
+    }
+
+    /**
+     * Evict the expired categories.
+     */
+    @Scheduled(fixedDelayString = "${catalog.cache.purge.interval:60000}")
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+
+    /**
+     * Remove a category from the cache by its id and its name,
+     * and the products that embed it, and discard the menu.
+     *
+     * @param id   Long id.
+     * @param name String name, the old one if it was renamed.
+     */
+    private void invalidate(final Long id, final String name) {
+        cache.invalidate(id);
+
+        if (name != null) {
+            cache.invalidate(name);
+        }
+
+        productService.invalidateCategory(id);
+
+        menuService.invalidate();
     }
 
     /**
@@ -0,0 +1,72 @@
+package com.pizzashop.principal.services.impls;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.metadata.BeanDescriptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Apply a JSON Merge Patch (RFC 7396) to the request DTO of the current state of an entity.
+ * The members of the patch replace the fields of the DTO, a null member clears the field,
+ * and only the patched fields are validated with the constraints of a full request, so a row
+ * that breaks a newer constraint in another field can still be patched.
+ */
+@Component
+class JsonMergePatcher {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Apply the patch to the DTO.
+     *
+     * @param target DTO with the current state of the entity, it is updated in place.
+     * @param patch  JsonNode patch.
+     * @return The patched DTO.
+     * @throws IllegalArgumentException If the patch is not a JSON object or a patched field is not valid.
+     */
+    <T> T patch(final T target, final JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("The patch must be a JSON object.");
+        }
+
+        final T patched;
+
+        try {
+            patched = objectMapper.readerForUpdating(target).readValue(patch);
+        } catch (IOException exception) {
+            throw new IllegalArgumentException("This is not a valid patch.");
+        }
+
+        final BeanDescriptor descriptor = validator.getConstraintsForClass(patched.getClass());
+        final Iterator<String> fields = patch.fieldNames();
+
+        while (fields.hasNext()) {
+            final String field = fields.next();
+
+            if (descriptor.getConstraintsForProperty(field) == null) {
+                continue;
+            }
+
+            final Set<ConstraintViolation<T>> violations = validator.validateProperty(patched, field);
+
+            if (!violations.isEmpty()) {
+                final ConstraintViolation<T> violation = violations.iterator().next();
+
+                throw new IllegalArgumentException(violation.getMessage() +
+                        " In field: " + violation.getPropertyPath() + ".");
+            }
+        }
+
+        return patched;
+    }
+}
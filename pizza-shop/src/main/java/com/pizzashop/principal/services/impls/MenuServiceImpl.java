@@ -0,0 +1,152 @@
+package com.pizzashop.principal.services.impls;
+
+import com.pizzashop.principal.daos.CategoryDAO;
+import com.pizzashop.principal.dtos.MenuCategoryDTO;
+import com.pizzashop.principal.dtos.MenuProductDTO;
+import com.pizzashop.principal.dtos.MenuResponseDTO;
+import com.pizzashop.principal.projections.CollectionVersion;
+import com.pizzashop.principal.projections.EntityVersion;
+import com.pizzashop.principal.projections.MenuRow;
+import com.pizzashop.principal.services.MenuService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+@Slf4j
+public class MenuServiceImpl implements MenuService {
+
+    @Autowired
+    private CategoryDAO categoryDAO;
+
+    /**
+     * Increased by every write of a product or a category.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    /**
+     * Menu built while the generation had a value, it is valid while the generation doesn't change.
+     *
+     * @param generation Long generation read before the menu was loaded.
+     * @param menu       MenuResponseDTO.
+     */
+    private record Snapshot(long generation, MenuResponseDTO menu) {
+    }
+
+    /**
+     * Find the menu from its snapshot, or build it with a single query if a product or a
+     * category was written since the last build. Concurrent rebuilds are coalesced into one.
+     *
+     * @return MenuResponseDTO immutable snapshot with every category and its products.
+     */
+    @Override
+    public MenuResponseDTO findMenu() {
+        log.info("Executing findMenu from MenuServiceImpl");
+
+        final MenuResponseDTO menu = current();
+
+        return menu != null ? menu : rebuild();
+    }
+
+    /**
+     * Discard the snapshot, after a product or a category is written.
+     */
+    @Override
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot.set(null);
+    }
+
+    /**
+     * @return MenuResponseDTO of the snapshot, null if there isn't one or it is outdated.
+     */
+    private MenuResponseDTO current() {
+        final Snapshot current = snapshot.get();
+
+        return current != null && current.generation() == generation.get() ? current.menu() : null;
+    }
+
+    /**
+     * Build the menu and keep it, unless a write happened while it was being built,
+     * so an invalidation is never undone by a stale menu.
+     *
+     * @return MenuResponseDTO.
+     */
+    private synchronized MenuResponseDTO rebuild() {
+        final MenuResponseDTO current = current();
+
+        if (current != null) {
+            return current;
+        }
+
+        final long buildGeneration = generation.get();
+        final MenuResponseDTO menu = build(categoryDAO.findMenuRows());
+
+        if (generation.get() == buildGeneration) {
+            snapshot.set(new Snapshot(buildGeneration, menu));
+        }
+
+        return menu;
+    }
+
+    /**
+     * Group the rows into the categories, the rows are ordered by category.
+     *
+     * @param rows List<MenuRow> ordered by category id and product id.
+     * @return MenuResponseDTO.
+     */
+    private MenuResponseDTO build(final List<MenuRow> rows) {
+        final List<MenuCategoryDTO> categories = new ArrayList<>();
+        final List<MenuProductDTO> allProducts = new ArrayList<>();
+        List<MenuProductDTO> products = new ArrayList<>();
+        MenuRow category = null;
+
+        for (MenuRow row : rows) {
+            if (category != null && !category.categoryId().equals(row.categoryId())) {
+                categories.add(categoryOf(category, products));
+                products = new ArrayList<>();
+            }
+
+            category = row;
+
+            if (row.productId() != null) {
+                final MenuProductDTO product = new MenuProductDTO(row.productId(), row.productName(),
+                        row.productDescription(), row.amount(), row.price(), row.imageUrl(),
+                        row.status(), row.productVersion());
+
+                products.add(product);
+                allProducts.add(product);
+            }
+        }
+
+        if (category != null) {
+            categories.add(categoryOf(category, products));
+        }
+
+        final String version = CollectionVersion.of(categories, MenuCategoryDTO::id,
+                c -> new EntityVersion(c.version(), 0L)).tag() + "." +
+                CollectionVersion.of(allProducts, MenuProductDTO::id,
+                        p -> new EntityVersion(p.version(), 0L)).tag();
+
+        return new MenuResponseDTO(categories, version);
+    }
+
+    /**
+     * Category of the menu from its row.
+     *
+     * @param row      MenuRow.
+     * @param products List<MenuProductDTO>.
+     * @return MenuCategoryDTO.
+     */
+    private MenuCategoryDTO categoryOf(final MenuRow row, final List<MenuProductDTO> products) {
+        return new MenuCategoryDTO(row.categoryId(), row.categoryName(),
+                row.categoryDescription(), row.categoryVersion(), products);
+    }
+}
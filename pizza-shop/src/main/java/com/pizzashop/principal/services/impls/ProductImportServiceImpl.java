@@ -0,0 +1,563 @@
+package com.pizzashop.principal.services.impls;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.pizzashop.principal.dtos.FileFormat;
+import com.pizzashop.principal.dtos.ProductImportReportDTO;
+import com.pizzashop.principal.dtos.ProductImportRowDTO;
+import com.pizzashop.principal.dtos.ProductRequestDTO;
+import com.pizzashop.principal.entities.CategoryEntity;
+import com.pizzashop.principal.entities.ProductEntity;
+import com.pizzashop.principal.entities.ProductStatus;
+import com.pizzashop.principal.repositories.CategoryRepository;
+import com.pizzashop.principal.repositories.ProductRepository;
+import com.pizzashop.principal.services.MenuService;
+import com.pizzashop.principal.services.ProductImportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final String INSERT_PRODUCT = "INSERT INTO t_product " +
+            "(id, name, description, amount, price, image_url, status, category_id) " +
+            "VALUES (:id, :name, :description, :amount, :price, :imageUrl, :status, :categoryId)";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "price", "imageUrl", "status", "categoryId");
+
+    private static final int MAX_NAME_LENGTH = 15;
+
+    @Value("${products.import.chunk-size:1000}")
+    private int IMPORT_CHUNK_SIZE;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MenuService menuService;
+
+    /**
+     * Row read from the file.
+     *
+     * @param line    Long line in the file.
+     * @param product ProductRequestDTO, null if the row couldn't be read.
+     * @param error   String error, null if the row was read.
+     */
+    private record ImportRow(long line, ProductRequestDTO product, String error) {
+    }
+
+    /**
+     * State of an import across its chunks.
+     * The categories are resolved once for the whole import, and the names
+     * of the accepted rows are kept to reject the duplicates of the file.
+     */
+    private static final class ImportState {
+
+        private final Map<Long, Boolean> categories = new HashMap<>();
+
+        private final Set<String> names = new HashSet<>();
+
+        private final List<ProductImportRowDTO> rows = new ArrayList<>();
+
+        private long imported;
+
+        private long failed;
+
+        private void add(final ImportRow row, final Long id, final String error) {
+            final String name = row.product() == null ? null : row.product().getName();
+
+            rows.add(new ProductImportRowDTO(row.line(), error == null ? id : null,
+                    name, error == null, error));
+
+            if (error == null) {
+                imported++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    /**
+     * Reader of CSV records, the fields can be quoted and the quotes are escaped by doubling them.
+     * A quoted field can have line breaks, so a record can span several lines of the file.
+     */
+    private static final class CsvReader {
+
+        private final BufferedReader reader;
+
+        private long line;
+
+        private long recordLine;
+
+        private CsvReader(final BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Read the next record.
+         *
+         * @return List of fields, null at the end of the file.
+         * @throws IOException If the file can't be read.
+         */
+        private List<String> read() throws IOException {
+            int character = reader.read();
+
+            if (character < 0) {
+                return null;
+            }
+
+            recordLine = ++line;
+
+            final List<String> fields = new ArrayList<>();
+            final StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+
+            while (character >= 0) {
+                if (quoted) {
+                    if (character != '"') {
+                        if (character == '\n') {
+                            line++;
+                        }
+
+                        field.append((char) character);
+                    } else if (peek('"')) {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else if (character == '"') {
+                    quoted = true;
+                } else if (character == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (character == '\n') {
+                    break;
+                } else if (character == '\r') {
+                    peek('\n');
+                    break;
+                } else {
+                    field.append((char) character);
+                }
+
+                character = reader.read();
+            }
+
+            fields.add(field.toString());
+
+            return fields;
+        }
+
+        /**
+         * Consume the next character if it is the expected one.
+         *
+         * @param expected Char.
+         * @return Boolean if it was consumed.
+         * @throws IOException If the file can't be read.
+         */
+        private boolean peek(final char expected) throws IOException {
+            reader.mark(1);
+
+            if (reader.read() == expected) {
+                return true;
+            }
+
+            reader.reset();
+
+            return false;
+        }
+    }
+
+    /**
+     * Import the products of a NDJSON or CSV file.
+     * The file is read row by row and processed in chunks: the rows of a chunk are validated
+     * in parallel, their categories and names are checked with one query each, and the valid
+     * rows get ids from the generator of the product entity and are inserted with a single JDBC batch.
+     * If the batch fails, the rows of the chunk are inserted one by one so only the bad rows
+     * are rejected.
+     * A CSV file must start with a header line with at least the name, price, imageUrl, status
+     * and categoryId columns, in any order, and its quoted fields can span several lines.
+     *
+     * @param format      FileFormat, NDJSON or CSV.
+     * @param inputStream InputStream of the request.
+     * @return ProductImportReportDTO with the result of every row.
+     * @throws IOException              If the file can't be read.
+     * @throws IllegalArgumentException If the CSV header is not valid.
+     */
+    @Override
+    public ProductImportReportDTO importProducts(final FileFormat format,
+                                                 final InputStream inputStream) throws IOException {
+        log.info("Executing importProducts from ProductImportServiceImpl");
+
+        final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        final ObjectReader productReader = objectMapper.readerFor(ProductRequestDTO.class);
+        final ImportState state = new ImportState();
+        final List<ImportRow> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+
+        if (format == FileFormat.CSV) {
+            final CsvReader csvReader = new CsvReader(reader);
+            final List<String> header = csvReader.read();
+
+            if (header == null) {
+                return new ProductImportReportDTO(0, 0, List.of());
+            }
+
+            final Map<String, Integer> columns = columns(header);
+            List<String> fields;
+
+            while ((fields = csvReader.read()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+
+                add(chunk, readCsv(csvReader.recordLine, fields, columns), state);
+            }
+        } else {
+            long line = 0;
+            String value;
+
+            while ((value = reader.readLine()) != null) {
+                line++;
+
+                if (value.isBlank()) {
+                    continue;
+                }
+
+                add(chunk, readNdjson(line, value, productReader), state);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, state);
+        }
+
+        return new ProductImportReportDTO(state.imported, state.failed, state.rows);
+    }
+
+    /**
+     * Add a row to the chunk, and import the chunk when it is full.
+     *
+     * @param chunk List<ImportRow>.
+     * @param row   ImportRow.
+     * @param state ImportState.
+     */
+    private void add(final List<ImportRow> chunk, final ImportRow row, final ImportState state) {
+        chunk.add(row);
+
+        if (chunk.size() >= IMPORT_CHUNK_SIZE) {
+            importChunk(chunk, state);
+            chunk.clear();
+        }
+    }
+
+    /**
+     * Validate, check and insert a chunk of rows.
+     * The menu is discarded once the rows of the chunk are inserted.
+     *
+     * @param chunk List<ImportRow>.
+     * @param state ImportState.
+     */
+    private void importChunk(final List<ImportRow> chunk, final ImportState state) {
+        final List<String> errors = new ArrayList<>(chunk.parallelStream()
+                .map(row -> row.error() != null ? row.error() : validate(row.product()))
+                .toList());
+
+        final Set<Long> unresolvedCategories = new HashSet<>();
+        final Set<String> names = new HashSet<>();
+
+        for (int index = 0; index < chunk.size(); index++) {
+            if (errors.get(index) == null) {
+                final ProductRequestDTO product = chunk.get(index).product();
+
+                if (!state.categories.containsKey(product.getCategoryId())) {
+                    unresolvedCategories.add(product.getCategoryId());
+                }
+
+                names.add(product.getName());
+            }
+        }
+
+        if (!unresolvedCategories.isEmpty()) {
+            final Set<Long> categories = categoryRepository.findExistingCategoryIds(unresolvedCategories);
+
+            unresolvedCategories.forEach(id -> state.categories.put(id, categories.contains(id)));
+        }
+
+        final Set<String> existingNames = names.isEmpty() ?
+                Set.of() : productRepository.findExistingProductNames(names);
+
+        final List<ImportRow> accepted = new ArrayList<>();
+
+        for (int index = 0; index < chunk.size(); index++) {
+            if (errors.get(index) == null) {
+                final ProductRequestDTO product = chunk.get(index).product();
+
+                if (!state.categories.get(product.getCategoryId())) {
+                    errors.set(index, "Couldn't find " + CategoryEntity.class.getSimpleName() +
+                            " with id: " + product.getCategoryId());
+                } else if (existingNames.contains(product.getName()) || !state.names.add(product.getName())) {
+                    errors.set(index, "Busy name.");
+                } else {
+                    accepted.add(chunk.get(index));
+                }
+            }
+        }
+
+        final Map<ImportRow, Long> ids = new HashMap<>();
+        final List<Long> nextIds = nextIds(accepted.size());
+
+        for (int index = 0; index < accepted.size(); index++) {
+            ids.put(accepted.get(index), nextIds.get(index));
+        }
+
+        final Map<ImportRow, String> insertErrors = insert(accepted, ids);
+
+        if (!accepted.isEmpty()) {
+            menuService.invalidate();
+        }
+
+        for (int index = 0; index < chunk.size(); index++) {
+            final ImportRow row = chunk.get(index);
+            final String error = errors.get(index);
+
+            state.add(row, ids.get(row), error != null ? error : insertErrors.get(row));
+        }
+    }
+
+    /**
+     * Take ids from the identifier generator of the product entity, the same generator and
+     * pool of ids used by Hibernate, so the imported ids never collide with the ones of
+     * the saved products. The sequence is only called when the pool is exhausted.
+     *
+     * @param count Int number of ids.
+     * @return List of ids.
+     */
+    private List<Long> nextIds(final int count) {
+        if (count == 0) {
+            return List.of();
+        }
+
+        return transactionTemplate.execute(status -> {
+            final SharedSessionContractImplementor session =
+                    entityManager.unwrap(SharedSessionContractImplementor.class);
+            final IdentifierGenerator generator = session.getFactory().getRuntimeMetamodels()
+                    .getMappingMetamodel().getEntityDescriptor(ProductEntity.class).getIdentifierGenerator();
+            final List<Long> ids = new ArrayList<>(count);
+
+            for (int index = 0; index < count; index++) {
+                ids.add((Long) generator.generate(session, null));
+            }
+
+            return ids;
+        });
+    }
+
+    /**
+     * Insert the rows with a JDBC batch, or one by one if the batch fails.
+     *
+     * @param rows List<ImportRow>.
+     * @param ids  Map with the id of every row.
+     * @return Map with the error of the rows that couldn't be inserted.
+     */
+    private Map<ImportRow, String> insert(final List<ImportRow> rows, final Map<ImportRow, Long> ids) {
+        if (rows.isEmpty()) {
+            return Map.of();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> namedParameterJdbcTemplate
+                    .batchUpdate(INSERT_PRODUCT, rows.stream()
+                            .map(row -> parameters(row, ids.get(row)))
+                            .toArray(SqlParameterSource[]::new)));
+
+            return Map.of();
+        } catch (DataAccessException exception) {
+            log.warn("The batch insert of " + rows.size() + " products failed, inserting them one by one");
+        }
+
+        final Map<ImportRow, String> errors = new HashMap<>();
+
+        for (ImportRow row : rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> namedParameterJdbcTemplate
+                        .update(INSERT_PRODUCT, parameters(row, ids.get(row))));
+            } catch (DataAccessException exception) {
+                errors.put(row, "The product couldn't be inserted.");
+            }
+        }
+
+        return errors;
+    }
+
+    /**
+     * Validate a product with the constraints of the DTO and the columns.
+     *
+     * @param product ProductRequestDTO.
+     * @return String error, null if the product is valid.
+     */
+    private String validate(final ProductRequestDTO product) {
+        final Set<ConstraintViolation<ProductRequestDTO>> violations = validator.validate(product);
+
+        if (!violations.isEmpty()) {
+            final ConstraintViolation<ProductRequestDTO> violation = violations.iterator().next();
+
+            return violation.getMessage() + " In field: " + violation.getPropertyPath() + ".";
+        }
+
+        if (product.getName().length() > MAX_NAME_LENGTH) {
+            return "The name must have at most " + MAX_NAME_LENGTH + " characters.";
+        }
+
+        if (product.getStatus() == null || Arrays.stream(ProductStatus.values())
+                .noneMatch(status -> status.name().equals(product.getStatus()))) {
+            return "The status must be one of " + Arrays.toString(ProductStatus.values()) + ".";
+        }
+
+        return null;
+    }
+
+    /**
+     * Parameters of the insert of a row.
+     *
+     * @param row ImportRow.
+     * @param id  Long id.
+     * @return SqlParameterSource.
+     */
+    private SqlParameterSource parameters(final ImportRow row, final Long id) {
+        final ProductRequestDTO product = row.product();
+
+        return new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("name", product.getName())
+                .addValue("description", product.getDescription())
+                .addValue("amount", product.getAmount())
+                .addValue("price", product.getPrice())
+                .addValue("imageUrl", product.getImageUrl())
+                .addValue("status", product.getStatus())
+                .addValue("categoryId", product.getCategoryId());
+    }
+
+    /**
+     * Read a NDJSON line.
+     *
+     * @param line          Long line.
+     * @param value         String line value.
+     * @param productReader ObjectReader of ProductRequestDTO.
+     * @return ImportRow.
+     */
+    private ImportRow readNdjson(final long line, final String value, final ObjectReader productReader) {
+        try {
+            return new ImportRow(line, productReader.readValue(value), null);
+        } catch (JsonProcessingException exception) {
+            return new ImportRow(line, null, "This is not a valid product.");
+        }
+    }
+
+    /**
+     * Read a CSV record.
+     *
+     * @param line    Long line where the record starts.
+     * @param fields  List of the fields of the record.
+     * @param columns Map of the column indexes by name.
+     * @return ImportRow.
+     */
+    private ImportRow readCsv(final long line, final List<String> fields, final Map<String, Integer> columns) {
+        try {
+            final String amount = field(fields, columns, "amount");
+            final String price = field(fields, columns, "price");
+            final String categoryId = field(fields, columns, "categoryId");
+
+            return new ImportRow(line, ProductRequestDTO.builder()
+                    .name(field(fields, columns, "name"))
+                    .description(field(fields, columns, "description"))
+                    .amount(amount == null ? null : Integer.valueOf(amount))
+                    .price(price == null ? null : Double.valueOf(price))
+                    .imageUrl(field(fields, columns, "imageUrl"))
+                    .status(field(fields, columns, "status"))
+                    .categoryId(categoryId == null ? null : Long.valueOf(categoryId))
+                    .build(), null);
+        } catch (NumberFormatException exception) {
+            return new ImportRow(line, null, "This is not a valid product.");
+        }
+    }
+
+    /**
+     * Column indexes of the CSV header.
+     *
+     * @param names List of the column names of the header.
+     * @return Map of the column indexes by name.
+     * @throws IllegalArgumentException If a required column is missing.
+     */
+    private Map<String, Integer> columns(final List<String> names) {
+        final Map<String, Integer> columns = new HashMap<>();
+
+        for (int index = 0; index < names.size(); index++) {
+            columns.putIfAbsent(names.get(index).trim(), index);
+        }
+
+        if (!columns.keySet().containsAll(REQUIRED_COLUMNS)) {
+            throw new IllegalArgumentException("The CSV header must have the columns: " +
+                    String.join(", ", REQUIRED_COLUMNS) + ".");
+        }
+
+        return columns;
+    }
+
+    /**
+     * Value of a CSV column.
+     *
+     * @param fields  List of the fields of the record.
+     * @param columns Map of the column indexes by name.
+     * @param column  String column name.
+     * @return String value, null if the column is missing or empty.
+     */
+    private String field(final List<String> fields, final Map<String, Integer> columns, final String column) {
+        final Integer index = columns.get(column);
+
+        if (index == null || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+
+        return fields.get(index);
+    }
+}
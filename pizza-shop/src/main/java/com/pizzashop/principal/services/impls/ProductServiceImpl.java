@@ -1,28 +1,106 @@
 package com.pizzashop.principal.services.impls;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pizzashop.principal.caches.BoundedTtlCache;
+import com.pizzashop.principal.daos.ProductCursor;
+import com.pizzashop.principal.daos.ProductDAO;
+import com.pizzashop.principal.daos.ProductPageQuery;
+import com.pizzashop.principal.dtos.BatchResponseDTO;
+import com.pizzashop.principal.dtos.FileFormat;
+import com.pizzashop.principal.dtos.PageRequestDTO;
+import com.pizzashop.principal.dtos.PageResponseDTO;
 import com.pizzashop.principal.dtos.ProductRequestDTO;
+import com.pizzashop.principal.dtos.ProductResponseDTO;
 import com.pizzashop.principal.entities.CategoryEntity;
 import com.pizzashop.principal.entities.ProductEntity;
 import com.pizzashop.principal.entities.ProductStatus;
 import com.pizzashop.principal.exceptions.EntityNotFoundException;
 import com.pizzashop.principal.exceptions.NameAlreadyExistsException;
+import com.pizzashop.principal.exceptions.PreconditionFailedException;
+import com.pizzashop.principal.projections.CollectionVersion;
+import com.pizzashop.principal.projections.EntityVersion;
+import com.pizzashop.principal.projections.ProductExportRow;
 import com.pizzashop.principal.repositories.CategoryRepository;
 import com.pizzashop.principal.repositories.ProductRepository;
+import com.pizzashop.principal.services.MenuService;
 import com.pizzashop.principal.services.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class ProductServiceImpl implements ProductService {
 
+    @Value("${products.page.default-size:20}")
+    private int PAGE_DEFAULT_SIZE;
+
+    @Value("${products.page.max-size:100}")
+    private int PAGE_MAX_SIZE;
+
+    @Value("${catalog.cache.max-size:10000}")
+    private int CACHE_MAX_SIZE;
+
+    @Value("${catalog.cache.ttl:600000}")
+    private long CACHE_TTL;
+
+    @Value("${batch.max-size:10000}")
+    private int BATCH_MAX_SIZE;
+
+    @Value("${batch.chunk-size:1000}")
+    private int BATCH_CHUNK_SIZE;
+
     @Autowired
     CategoryRepository categoryRepository;
     @Autowired
     private ProductRepository productRepository;
+    @Autowired
+    private ProductDAO productDAO;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JsonMergePatcher jsonMergePatcher;
+    @Autowired
+    private MenuService menuService;
+
+    /**
+     * Products by id(Long) and by name(String).
+     */
+    private BoundedTtlCache<Object, ProductResponseDTO> cache;
+
+    /**
+     * Build the products cache.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Executing init from ProductServiceImpl");
+
+        cache = new BoundedTtlCache<>("products", CACHE_MAX_SIZE,
+                Duration.ofMillis(CACHE_TTL), meterRegistry);
+    }
 
     /**
      * Save a product from DTO into the database using JPA.
@@ -48,6 +126,8 @@ public class ProductServiceImpl implements ProductService {
 
             product = productRepository.save(product);
 
+            menuService.invalidate();
+
             return product;
         } else {
             throw new EntityNotFoundException("Couldn't find " +
@@ -62,22 +142,31 @@ public class ProductServiceImpl implements ProductService {
      *
      * @param id       Long id, to search the specific product to update.
      * @param toUpdate ProductDTO as request.
+     * @param version  String version tag the client read, null to skip the check.
      * @return ProductEntity as response.
-     * @throws EntityNotFoundException    If the product or the category doesn't exist.
-     * @throws NameAlreadyExistsException If the name is already in use.
+     * @throws EntityNotFoundException     If the product or the category doesn't exist.
+     * @throws NameAlreadyExistsException  If the name is already in use.
+     * @throws PreconditionFailedException If the product changed since the client read it.
      */
     @Override
-    public ProductEntity updateProduct(final Long id, final ProductRequestDTO toUpdate) {
+    public ProductEntity updateProduct(final Long id, final ProductRequestDTO toUpdate, final String version) {
         log.info("Executing updateProduct from ProductServiceImpl");
 
         ProductEntity product = productRepository.findProductById(id);
 
         if (product != null) {
+            if (version != null && !version.equals(versionOf(product).tag())) {
+                throw new PreconditionFailedException("Outdated version.");
+            }
+
+            final String oldName = product.getName();
 
             update(product, toUpdate);
 
             product = productRepository.save(product);
 
+            invalidate(id, oldName);
+
             return product;
         } else {
             throw new EntityNotFoundException("Couldn't find " +
@@ -85,6 +174,48 @@ public class ProductServiceImpl implements ProductService {
         }
     }
 
+    /**
+     * Update only the fields of the patch of an existent product.
+     * The patch is applied to the current product and only its fields are validated, the name
+     * is checked only if it changed and the category is loaded only if it changed.
+     * Only the changed columns are written.
+     *
+     * @param id      Long id, to search the specific product to update.
+     * @param patch   JsonNode JSON Merge Patch.
+     * @param version String version tag the client read, null to skip the check.
+     * @return ProductEntity as response.
+     * @throws EntityNotFoundException     If the product or the category doesn't exist.
+     * @throws NameAlreadyExistsException  If the name is already in use.
+     * @throws PreconditionFailedException If the product changed since the client read it.
+     * @throws IllegalArgumentException    If the patch or the patched product is not valid,
+     *                                     or the patch clears the status.
+     */
+    @Override
+    public ProductEntity patchProduct(final Long id, final JsonNode patch, final String version) {
+        log.info("Executing patchProduct from ProductServiceImpl");
+
+        ProductEntity product = productRepository.findProductById(id);
+
+        if (product == null) {
+            throw new EntityNotFoundException("Couldn't find " +
+                    ProductEntity.class.getSimpleName() + " with id: " + id);
+        }
+
+        if (version != null && !version.equals(versionOf(product).tag())) {
+            throw new PreconditionFailedException("Outdated version.");
+        }
+
+        final String oldName = product.getName();
+
+        patch(product, jsonMergePatcher.patch(requestOf(product), patch));
+
+        product = productRepository.save(product);
+
+        invalidate(id, oldName);
+
+        return product;
+    }
+
     /**
      * Delete a product into the database using JPA.
      *
@@ -100,6 +231,8 @@ public class ProductServiceImpl implements ProductService {
 
         if (product != null) {
             productRepository.deleteById(id);
+
+            invalidate(id, product.getName());
         } else {
             throw new EntityNotFoundException("Couldn't find " +
                     ProductEntity.class.getSimpleName() + " with id: " + id);
@@ -109,79 +242,461 @@ public class ProductServiceImpl implements ProductService {
     }
 
     /**
-     * Find all the products from the database using JPA.
+     * Find all the products from the database, with their categories in the same query.
      *
-     * @return Lis<ProductEntity> it can be Null if there isn't products.
+     * @return List<ProductResponseDTO> ordered by id, empty if there isn't products.
      */
     @Override
-    public List<ProductEntity> findAllProducts() {
+    public List<ProductResponseDTO> findAllProducts() {
         log.info("Executing findAllProducts from ProductServiceImpl");
 
-        return productRepository.findAll();
+        return productRepository.findProducts();
     }
 
     /**
-     * Find a product from the database using JPA.
+     * Export all the products, ordered by id, into the output stream.
+     * The rows are written as they are read from the database cursor, so the memory
+     * doesn't depend on the size of the catalog. If the output stream fails, for example
+     * because the client disconnected, the cursor is closed and the query ends.
+     *
+     * @param format       FileFormat, NDJSON or CSV.
+     * @param outputStream OutputStream of the response.
+     * @return Long number of products exported.
+     * @throws IOException If the products can't be written.
+     */
+    @Override
+    public long exportProducts(final FileFormat format,
+                               final OutputStream outputStream) throws IOException {
+        log.info("Executing exportProducts from ProductServiceImpl");
+
+        try (Stream<ProductExportRow> rows = productDAO.streamProductExportRows()) {
+            final Iterator<ProductExportRow> iterator = rows.iterator();
+
+            return switch (format) {
+                case NDJSON -> writeNdjson(iterator, outputStream);
+                case CSV -> writeCsv(iterator, outputStream);
+            };
+        }
+    }
+
+    /**
+     * Find a product from the cache, or from the database using JPA.
      *
      * @param id Long id, to search the specific product.
-     * @return ProductEntity as response.
+     * @return ProductResponseDTO immutable snapshot as response.
      * @throws EntityNotFoundException If the product doesn't exist.
      */
     @Override
-    public ProductEntity findProductById(final Long id) {
+    public ProductResponseDTO findProductById(final Long id) {
         log.info("Executing findProductById from ProductServiceImpl");
 
-        ProductEntity product = productRepository.findProductById(id);
+        return cache.get(id, key -> {
+            ProductResponseDTO product = productRepository.findProductResponseById(id);
 
-        if (product == null) {
-            throw new EntityNotFoundException("Couldn't find " +
-                    ProductEntity.class.getSimpleName() + " with id: " + id);
-        }
+            if (product == null) {
+                throw new EntityNotFoundException("Couldn't find " +
+                        ProductEntity.class.getSimpleName() + " with id: " + id);
+            }
 
-        return product;
+            return product;
+        });
     }
 
     /**
-     * Find products from the database using JPA.
+     * Find a product from the cache, or from the database using JPA.
      *
      * @param name String name, to search the specific product.
-     * @return ProductEntity as response.
+     * @return ProductResponseDTO immutable snapshot as response.
      * @throws EntityNotFoundException If the product doesn't exist.
      */
     @Override
-    public ProductEntity findProductByName(final String name) {
+    public ProductResponseDTO findProductByName(final String name) {
         log.info("Executing findProductByName from ProductServiceImpl");
 
-        ProductEntity product = productRepository.findProductByName(name);
+        return cache.get(name, key -> {
+            ProductResponseDTO product = productRepository.findProductResponseByName(name);
 
-        if (product == null) {
+            if (product == null) {
+                throw new EntityNotFoundException("Couldn't find " +
+                        ProductEntity.class.getSimpleName() + " with name: " + name);
+            }
+
+            return product;
+        });
+    }
+
+    /**
+     * Find products by their ids, from the cache, and the ones that are not cached from the
+     * database with IN-list queries of at most batch.chunk-size ids.
+     *
+     * @param ids List<Long> ids, the repeated ones are returned once.
+     * @return BatchResponseDTO<ProductResponseDTO> in the order of the ids, with the missing ids.
+     * @throws IllegalArgumentException If an id is null or there are more than batch.max-size ids.
+     */
+    @Override
+    public BatchResponseDTO<ProductResponseDTO> findProductsByIds(final List<Long> ids) {
+        log.info("Executing findProductsByIds from ProductServiceImpl");
+
+        final List<Long> distinct = Batches.distinct(ids, BATCH_MAX_SIZE);
+
+        return Batches.response(distinct, cache.getAll(distinct, missing ->
+                Batches.query(missing, BATCH_CHUNK_SIZE,
+                        productRepository::findProductResponsesByIds, ProductResponseDTO::id)));
+    }
+
+    /**
+     * Find the version tag of a product, from the cache or with a query of the versions,
+     * so the product is not loaded to answer a conditional request.
+     *
+     * @param id Long id, to search the specific product.
+     * @return String version tag of the product and its category.
+     * @throws EntityNotFoundException If the product doesn't exist.
+     */
+    @Override
+    public String findProductVersion(final Long id) {
+        log.info("Executing findProductVersion from ProductServiceImpl");
+
+        final ProductResponseDTO cached = cache.getIfPresent(id);
+
+        if (cached != null) {
+            return versionOf(cached).tag();
+        }
+
+        final EntityVersion version = productRepository.findProductVersionById(id);
+
+        if (version == null) {
             throw new EntityNotFoundException("Couldn't find " +
-                    ProductEntity.class.getSimpleName() + " with name: " + name);
+                    ProductEntity.class.getSimpleName() + " with id: " + id);
         }
 
-        return product;
+        return version.tag();
+    }
+
+    /**
+     * Find the version tag of all the products with an aggregate query,
+     * it also changes when the category of a product changes.
+     *
+     * @return String version tag, the same as the one of the loaded products.
+     */
+    @Override
+    public String findProductsVersion() {
+        log.info("Executing findProductsVersion from ProductServiceImpl");
+
+        return productRepository.findProductsVersion().tag();
+    }
+
+    /**
+     * Find the version tag of the products of a status with an aggregate query.
+     *
+     * @param status String statusValue, to search the specific products.
+     * @return String version tag, the same as the one of the loaded products.
+     * @throws IllegalArgumentException If the status is not valid.
+     */
+    @Override
+    public String findProductsVersionByStatus(final String status) {
+        log.info("Executing findProductsVersionByStatus from ProductServiceImpl");
+
+        return productRepository.findProductsVersionByStatus(ProductStatus.valueOf(status)).tag();
+    }
+
+    /**
+     * Find the version tag of the products of a category with an aggregate query.
+     *
+     * @param categoryId Long categoryId, to search the specific products.
+     * @return String version tag, the same as the one of the loaded products.
+     */
+    @Override
+    public String findProductsVersionByCategoryId(final Long categoryId) {
+        log.info("Executing findProductsVersionByCategoryId from ProductServiceImpl");
+
+        return productRepository.findProductsVersionByCategoryId(categoryId).tag();
+    }
+
+    /**
+     * Version tag of products already loaded, so a full response doesn't need a second query.
+     *
+     * @param products List<ProductResponseDTO>.
+     * @return String version tag, the same as the one of the aggregate queries.
+     */
+    @Override
+    public String versionOf(final List<ProductResponseDTO> products) {
+        return CollectionVersion.of(products, ProductResponseDTO::id, this::versionOf).tag();
+    }
+
+    /**
+     * Remove the products of a category from the cache, after the category is updated or deleted.
+     *
+     * @param categoryId Long category id.
+     */
+    @Override
+    public void invalidateCategory(final Long categoryId) {
+        cache.invalidateIf(product -> product.category() != null &&
+                categoryId.equals(product.category().id()));
+    }
+
+    /**
+     * Evict the expired products.
+     */
+    @Scheduled(fixedDelayString = "${catalog.cache.purge.interval:60000}")
+    public void purgeExpired() {
+        cache.purgeExpired();
     }
 
     /**
-     * Find a product from the database using JPA.
+     * Find the products of a status from the database, with their categories in the same query.
      *
      * @param status String statusValue, to search the specific products.
-     * @return List<ProductEntity> it can be Null if there isn't products with that statusValue.
+     * @return List<ProductResponseDTO> ordered by id, empty if there isn't products with that statusValue.
      */
     @Override
-    public List<ProductEntity> findProductsByStatus(final String status) {
+    public List<ProductResponseDTO> findProductsByStatus(final String status) {
         log.info("Executing findProductsByStatus from ProductServiceImpl");
 
         return productRepository.findProductsByStatus(ProductStatus.valueOf(status));
     }
 
     @Override
-    public List<ProductEntity> findProductsByCategoryId(Long categoryId) {
+    public List<ProductResponseDTO> findProductsByCategoryId(Long categoryId) {
         log.info("Executing findProductsByCategory from ProductServiceImpl");
 
         return productRepository.findProductsByCategoryId(categoryId);
     }
 
+    /**
+     * Find a page of products from the database.
+     *
+     * @param pageRequestDTO PageRequestDTO.
+     * @return PageResponseDTO<ProductResponseDTO> with the cursor of the next page.
+     * @throws IllegalArgumentException If the page parameters are not valid.
+     */
+    @Override
+    public PageResponseDTO<ProductResponseDTO> findProductsPage(final PageRequestDTO pageRequestDTO) {
+        log.info("Executing findProductsPage from ProductServiceImpl");
+
+        return findPage(null, null, pageRequestDTO);
+    }
+
+    /**
+     * Find a page of products by status from the database.
+     *
+     * @param status         String statusValue, to search the specific products.
+     * @param pageRequestDTO PageRequestDTO.
+     * @return PageResponseDTO<ProductResponseDTO> with the cursor of the next page.
+     * @throws IllegalArgumentException If the status or the page parameters are not valid.
+     */
+    @Override
+    public PageResponseDTO<ProductResponseDTO> findProductsPageByStatus(final String status,
+                                                                        final PageRequestDTO pageRequestDTO) {
+        log.info("Executing findProductsPageByStatus from ProductServiceImpl");
+
+        return findPage(ProductStatus.valueOf(status), null, pageRequestDTO);
+    }
+
+    /**
+     * Find a page of products by category from the database.
+     *
+     * @param categoryId     Long categoryId, to search the specific products.
+     * @param pageRequestDTO PageRequestDTO.
+     * @return PageResponseDTO<ProductResponseDTO> with the cursor of the next page.
+     * @throws IllegalArgumentException If the page parameters are not valid.
+     */
+    @Override
+    public PageResponseDTO<ProductResponseDTO> findProductsPageByCategoryId(final Long categoryId,
+                                                                            final PageRequestDTO pageRequestDTO) {
+        log.info("Executing findProductsPageByCategoryId from ProductServiceImpl");
+
+        return findPage(null, categoryId, pageRequestDTO);
+    }
+
+    /**
+     * Find a page with one product more than the size, to know if there is a next page
+     * without counting the products.
+     *
+     * @param status         ProductStatus, null for all.
+     * @param categoryId     Long category id, null for all.
+     * @param pageRequestDTO PageRequestDTO.
+     * @return PageResponseDTO<ProductResponseDTO>.
+     * @throws IllegalArgumentException If the page parameters are not valid.
+     */
+    private PageResponseDTO<ProductResponseDTO> findPage(final ProductStatus status,
+                                                         final Long categoryId,
+                                                         final PageRequestDTO pageRequestDTO) {
+        final ProductPageQuery.Sort sort = pageRequestDTO.sort() == null ? ProductPageQuery.Sort.ID :
+                ProductPageQuery.Sort.valueOf(pageRequestDTO.sort().toUpperCase(Locale.ROOT));
+
+        final boolean descending = pageRequestDTO.direction() != null &&
+                switch (pageRequestDTO.direction().toLowerCase(Locale.ROOT)) {
+                    case "asc" -> false;
+                    case "desc" -> true;
+                    default -> throw new IllegalArgumentException("The direction must be asc or desc.");
+                };
+
+        final int size = pageRequestDTO.size() == null ? PAGE_DEFAULT_SIZE :
+                Math.min(pageRequestDTO.size(), PAGE_MAX_SIZE);
+
+        if (size < 1) {
+            throw new IllegalArgumentException("The size must be greater than 0.");
+        }
+
+        ProductCursor after = null;
+
+        if (pageRequestDTO.cursor() != null && !pageRequestDTO.cursor().isEmpty()) {
+            after = ProductCursor.decode(pageRequestDTO.cursor());
+
+            if (after.sort() != sort || after.descending() != descending) {
+                throw new IllegalArgumentException("The cursor belongs to another sort.");
+            }
+        }
+
+        List<ProductResponseDTO> products = productDAO.findProductsPage(
+                new ProductPageQuery(status, categoryId, sort, descending, after, size + 1));
+
+        String next = null;
+
+        if (products.size() > size) {
+            products = products.subList(0, size);
+            next = ProductCursor.of(products.get(size - 1), sort, descending).encode();
+        }
+
+        final Long total = Boolean.TRUE.equals(pageRequestDTO.count()) ?
+                productDAO.countProducts(status, categoryId) : null;
+
+        return new PageResponseDTO<>(products, next, total);
+    }
+
+    /**
+     * Version of a product, the same as the query of the repository.
+     *
+     * @param product ProductEntity.
+     * @return EntityVersion.
+     */
+    private EntityVersion versionOf(final ProductEntity product) {
+        return new EntityVersion(product.getVersion(),
+                product.getCategory() == null ? 0L : product.getCategory().getVersion() + 1);
+    }
+
+    /**
+     * Version of a cached product, the same as the query of the repository.
+     *
+     * @param product ProductResponseDTO.
+     * @return EntityVersion.
+     */
+    private EntityVersion versionOf(final ProductResponseDTO product) {
+        return new EntityVersion(product.version(),
+                product.category() == null ? 0L : product.category().version() + 1);
+    }
+
+    /**
+     * Remove a product from the cache by its id and its name, and discard the menu.
+     *
+     * @param id   Long id.
+     * @param name String name, the old one if it was renamed.
+     */
+    private void invalidate(final Long id, final String name) {
+        cache.invalidate(id);
+
+        if (name != null) {
+            cache.invalidate(name);
+        }
+
+        menuService.invalidate();
+    }
+
+    /**
+     * Write the rows as JSON objects separated by new lines.
+     * The writer is not flushed after each row, the rows are sent as the buffers fill.
+     *
+     * @param rows         Iterator<ProductExportRow>.
+     * @param outputStream OutputStream.
+     * @return Long number of rows written.
+     * @throws IOException If the rows can't be written.
+     */
+    private long writeNdjson(final Iterator<ProductExportRow> rows,
+                             final OutputStream outputStream) throws IOException {
+        long count = 0;
+
+        try (SequenceWriter writer = objectMapper.writerFor(ProductExportRow.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(outputStream)) {
+            while (rows.hasNext()) {
+                writer.write(rows.next());
+                count++;
+            }
+        }
+
+        if (count > 0) {
+            outputStream.write('\n');
+        }
+
+        return count;
+    }
+
+    /**
+     * Write the rows as CSV with a header line.
+     *
+     * @param rows         Iterator<ProductExportRow>.
+     * @param outputStream OutputStream.
+     * @return Long number of rows written.
+     * @throws IOException If the rows can't be written.
+     */
+    private long writeCsv(final Iterator<ProductExportRow> rows,
+                          final OutputStream outputStream) throws IOException {
+        long count = 0;
+        final Writer writer = new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        writer.write("id,name,description,amount,price,imageUrl,status,categoryId,categoryName\r\n");
+
+        while (rows.hasNext()) {
+            final ProductExportRow row = rows.next();
+
+            writer.write(String.valueOf(row.id()));
+            writer.write(',');
+            writer.write(csv(row.name()));
+            writer.write(',');
+            writer.write(csv(row.description()));
+            writer.write(',');
+            writer.write(row.amount() == null ? "" : row.amount().toString());
+            writer.write(',');
+            writer.write(row.price() == null ? "" : row.price().toString());
+            writer.write(',');
+            writer.write(csv(row.imageUrl()));
+            writer.write(',');
+            writer.write(row.status() == null ? "" : row.status().name());
+            writer.write(',');
+            writer.write(row.categoryId() == null ? "" : row.categoryId().toString());
+            writer.write(',');
+            writer.write(csv(row.categoryName()));
+            writer.write("\r\n");
+            count++;
+        }
+
+        writer.flush();
+
+        return count;
+    }
+
+    /**
+     * Quote a CSV field if it has a separator, a quote or a line break.
+     *
+     * @param value String, it can be null.
+     * @return String field.
+     */
+    private String csv(final String value) {
+        if (value == null) {
+            return "";
+        }
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
     /**
      * Create a product from DTO.
      *
@@ -239,4 +754,65 @@ public class ProductServiceImpl implements ProductService {
         }
     }
 
+    /**
+     * Request DTO with the current state of a product, the target of a patch.
+     *
+     * @param product ProductEntity.
+     * @return ProductRequestDTO.
+     */
+    private ProductRequestDTO requestOf(final ProductEntity product) {
+        return ProductRequestDTO
+                .builder()
+                .name(product.getName())
+                .description(product.getDescription())
+                .amount(product.getAmount())
+                .price(product.getPrice())
+                .imageUrl(product.getImageUrl())
+                .status(product.getStatus() == null ? null : product.getStatus().name())
+                .categoryId(product.getCategory() == null ? null : product.getCategory().getId())
+                .build();
+    }
+
+    /**
+     * Update a product with the changed fields of a patched DTO.
+     *
+     * @param product ProductEntity.
+     * @param patched ProductDTO patched.
+     * @void
+     */
+    private void patch(ProductEntity product, ProductRequestDTO patched) {
+        final ProductRequestDTO current = requestOf(product);
+
+        if (!Objects.equals(current.getName(), patched.getName())) {
+            if (productRepository.existsProductByName(patched.getName()))
+                throw new NameAlreadyExistsException("Busy name.");
+
+            product.setName(patched.getName());
+        }
+
+        product.setDescription(patched.getDescription());
+        product.setAmount(patched.getAmount());
+        product.setPrice(patched.getPrice());
+        product.setImageUrl(patched.getImageUrl());
+
+        if (!Objects.equals(current.getStatus(), patched.getStatus())) {
+            if (patched.getStatus() == null)
+                throw new IllegalArgumentException("must not be null In field: status.");
+
+            product.setStatus(ProductStatus.valueOf(patched.getStatus()));
+        }
+
+        if (!Objects.equals(current.getCategoryId(), patched.getCategoryId())) {
+            CategoryEntity category = categoryRepository.findCategoryById(patched.getCategoryId());
+
+            if (category == null) {
+                throw new EntityNotFoundException("Couldn't find " +
+                        CategoryEntity.class.getSimpleName() + " with id: " +
+                        patched.getCategoryId());
+            }
+
+            product.setCategory(category);
+        }
+    }
+
 }
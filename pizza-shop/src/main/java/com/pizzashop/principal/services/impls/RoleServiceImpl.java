@@ -1,9 +1,12 @@
 package com.pizzashop.principal.services.impls;
 
+import com.pizzashop.principal.caches.RoleRegistry;
 import com.pizzashop.principal.dtos.RoleRequestDTO;
 import com.pizzashop.principal.entities.RoleEntity;
 import com.pizzashop.principal.exceptions.EntityNotFoundException;
 import com.pizzashop.principal.exceptions.NameAlreadyExistsException;
+import com.pizzashop.principal.exceptions.PreconditionFailedException;
+import com.pizzashop.principal.projections.EntityVersion;
 import com.pizzashop.principal.repositories.RoleRepository;
 import com.pizzashop.principal.services.RoleService;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +20,10 @@ import java.util.List;
 public class RoleServiceImpl implements RoleService {
     @Autowired
     private RoleRepository roleRepository;
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    @Autowired
+    private RoleRegistry roleRegistry;
 
     /**
      * Save a role from DTO into the database using JPA.
@@ -34,7 +41,11 @@ public class RoleServiceImpl implements RoleService {
         if (roleRepository.existsRoleByName(role.getName()))
             throw new NameAlreadyExistsException("Busy name.");
 
-        return roleRepository.save(role);
+        role = roleRepository.save(role);
+
+        roleRegistry.put(role);
+
+        return role;
     }
 
     /**
@@ -42,12 +53,14 @@ public class RoleServiceImpl implements RoleService {
      *
      * @param id       Long id, to search the specific role to update.
      * @param toUpdate RoleDTO as request.
+     * @param version  String version tag the client read, null to skip the check.
      * @return RoleEntity as response.
-     * @throws EntityNotFoundException    If the role doesn't exist.
-     * @throws NameAlreadyExistsException If the name is already in use.
+     * @throws EntityNotFoundException     If the role doesn't exist.
+     * @throws NameAlreadyExistsException  If the name is already in use.
+     * @throws PreconditionFailedException If the role changed since the client read it.
      */
     @Override
-    public RoleEntity updateRole(final Long id, final RoleRequestDTO toUpdate) {
+    public RoleEntity updateRole(final Long id, final RoleRequestDTO toUpdate, final String version) {
         log.info("Executing updateRole from RoleServiceImpl");
 
         RoleEntity role = roleRepository.findRoleById(id);
@@ -57,9 +70,18 @@ public class RoleServiceImpl implements RoleService {
                     RoleEntity.class.getSimpleName() + " with id: " + id);
         }
 
+        if (version != null && !version.equals(new EntityVersion(role.getVersion(), 0L).tag())) {
+            throw new PreconditionFailedException("Outdated version.");
+        }
+
         update(role, toUpdate);
 
-        return roleRepository.save(role);
+        role = roleRepository.save(role);
+
+        roleRegistry.put(role);
+        userDetailsService.invalidateAll();
+
+        return role;
     }
 
     /**
@@ -82,6 +104,9 @@ public class RoleServiceImpl implements RoleService {
 
         roleRepository.deleteById(id);
 
+        roleRegistry.remove(id);
+        userDetailsService.invalidateAll();
+
         return role;
     }
 
@@ -139,6 +164,39 @@ public class RoleServiceImpl implements RoleService {
         return role;
     }
 
+    /**
+     * Find the version tag of a role with a query of the version, so the role is not loaded.
+     *
+     * @param id Long id, to search the specific role.
+     * @return String version tag of the role.
+     * @throws EntityNotFoundException If the role doesn't exist.
+     */
+    @Override
+    public String findRoleVersion(final Long id) {
+        log.info("Executing findRoleVersion from RoleServiceImpl");
+
+        final EntityVersion version = roleRepository.findRoleVersionById(id);
+
+        if (version == null) {
+            throw new EntityNotFoundException("Couldn't find " +
+                    RoleEntity.class.getSimpleName() + " with id: " + id);
+        }
+
+        return version.tag();
+    }
+
+    /**
+     * Find the version tag of all the roles.
+     *
+     * @return String version tag of the roles.
+     */
+    @Override
+    public String findRolesVersion() {
+        log.info("Executing findRolesVersion from RoleServiceImpl");
+
+        return roleRepository.findRolesVersion().tag();
+    }
+
     /**
      * Create a role from DTO.
      *
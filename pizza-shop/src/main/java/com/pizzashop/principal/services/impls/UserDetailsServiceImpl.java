@@ -1,29 +1,59 @@
 package com.pizzashop.principal.services.impls;
 
 
-import com.pizzashop.principal.entities.UserEntity;
+import com.pizzashop.principal.caches.BoundedTtlCache;
+import com.pizzashop.principal.projections.UserAuthView;
 import com.pizzashop.principal.repositories.UserRepository;
+import com.pizzashop.principal.security.AuthenticatedUser;
+import com.pizzashop.principal.security.AuthorityCodes;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.time.Duration;
 
 @Service
 @Slf4j
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+
+    @Value("${security.user-details.cache.max-size:10000}")
+    private int CACHE_MAX_SIZE;
+
+    @Value("${security.user-details.cache.ttl:300000}")
+    private long CACHE_TTL;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BoundedTtlCache<String, AuthenticatedUser> cache;
+
+    private final AuthorityCodes authorityCodes = new AuthorityCodes();
+
     /**
-     * Create new UserDetails from the database user.
+     * Build the UserDetails cache.
+     */
+    @PostConstruct
+    public void init() {
+        log.info("Executing init from UserDetailsServiceImpl");
+
+        cache = new BoundedTtlCache<>("user-details", CACHE_MAX_SIZE,
+                Duration.ofMillis(CACHE_TTL), meterRegistry);
+    }
+
+    /**
+     * Get the UserDetails from the cache, or create it from the database user.
+     * Concurrent loads of the same username are coalesced into one.
      *
      * @param username String username, to search the specific User.
      * @return UserDetails.
@@ -34,31 +64,85 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             throws UsernameNotFoundException {
         log.info("Executing loadUserByUsername from UserDetailsServiceImpl");
 
-        UserEntity userEntity = userRepository.findUserByUsername(username);
+        return cache.get(username, this::loadUser);
+    }
 
-        if (userEntity == null) {
+    /**
+     * Remove a user from the cache, after it is updated or deleted.
+     *
+     * @param username String username.
+     */
+    public void invalidate(final String username) {
+        cache.invalidate(username);
+    }
+
+    /**
+     * Remove all the users from the cache, after a role is updated or deleted.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Evict the expired users.
+     */
+    @Scheduled(fixedDelayString = "${security.user-details.cache.purge.interval:60000}")
+    public void purgeExpired() {
+        cache.purgeExpired();
+    }
+
+    /**
+     * Create new UserDetails from the authentication projection of the user,
+     * a single query with the role names aggregated, without loading the entities.
+     * The authorities of the same role names are shared.
+     *
+     * @param username String username, to search the specific User.
+     * @return AuthenticatedUser.
+     * @throws UsernameNotFoundException If the username is invalid.
+     */
+    private AuthenticatedUser loadUser(final String username) {
+        final UserAuthView user = userRepository.findUserAuthViewByUsername(username);
+
+        if (user == null) {
             throw new UsernameNotFoundException("Invalid username.");
         }
 
-        return new User(userEntity.getUsername(), userEntity.getPassword(), getAuthority(userEntity));
+        return new AuthenticatedUser(
+                user.getId(),
+                user.getUsername(),
+                user.getPassword(),
+                authorityCodes.decode(user.getRoles()),
+                user.getTokenVersion()
+        );
     }
 
     /**
-     * Return the authorities from the User.
+     * Store the password hash upgraded after a successful login,
+     * the DaoAuthenticationProvider calls it when the PasswordEncoder asks for it.
      *
-     * @param userEntity UserEntity.
-     * @return Set<SimpleGrantedAuthority> it can be Null if the user doesn't have roles assigned.
+     * @param user        UserDetails authenticated.
+     * @param newPassword String new hash of the same password.
+     * @return UserDetails with the new hash.
      */
-    private Set<SimpleGrantedAuthority> getAuthority(UserEntity userEntity) {
-        log.info("Executing getAuthority from UserDetailsServiceImpl");
+    @Override
+    public UserDetails updatePassword(final UserDetails user, final String newPassword) {
+        log.info("Executing updatePassword from UserDetailsServiceImpl");
 
-        Set<SimpleGrantedAuthority> authorities = new HashSet<>();
+        if (!(user instanceof AuthenticatedUser authenticatedUser)) {
+            return user;
+        }
 
-        userEntity.getRoles().forEach(role ->
-                authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getName()))
-        );
+        userRepository.updatePassword(authenticatedUser.getId(), newPassword);
 
-        return authorities;
+        cache.invalidate(authenticatedUser.getUsername());
+
+        return new AuthenticatedUser(
+                authenticatedUser.getId(),
+                authenticatedUser.getUsername(),
+                newPassword,
+                authenticatedUser.getAuthorities(),
+                authenticatedUser.getTokenVersion()
+        );
     }
 
 }
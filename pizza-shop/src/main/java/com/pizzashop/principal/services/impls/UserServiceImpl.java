@@ -1,16 +1,23 @@
 package com.pizzashop.principal.services.impls;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pizzashop.principal.caches.RoleRegistry;
+import com.pizzashop.principal.dtos.BatchResponseDTO;
 import com.pizzashop.principal.dtos.UserRequestDTO;
 import com.pizzashop.principal.entities.RoleEntity;
 import com.pizzashop.principal.entities.UserEntity;
 import com.pizzashop.principal.exceptions.EmailAlreadyExistsException;
 import com.pizzashop.principal.exceptions.EntityNotFoundException;
+import com.pizzashop.principal.exceptions.PreconditionFailedException;
 import com.pizzashop.principal.exceptions.UsernameAlreadyExistsException;
+import com.pizzashop.principal.projections.EntityVersion;
+import com.pizzashop.principal.repositories.RoleRepository;
 import com.pizzashop.principal.repositories.UserRepository;
-import com.pizzashop.principal.services.RoleService;
+import com.pizzashop.principal.security.TokenVersionRegistry;
 import com.pizzashop.principal.services.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -18,16 +25,32 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class UserServiceImpl implements UserService {
+
+    @Value("${batch.max-size:10000}")
+    private int BATCH_MAX_SIZE;
+
+    @Value("${batch.chunk-size:1000}")
+    private int BATCH_CHUNK_SIZE;
+
     @Autowired
-    private RoleService roleService;
+    private RoleRegistry roleRegistry;
     @Autowired
     private UserRepository userRepository;
     @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    @Autowired
+    private JsonMergePatcher jsonMergePatcher;
 
     /**
      * Save a user from DTO into the database using JPA.
@@ -57,16 +80,21 @@ public class UserServiceImpl implements UserService {
 
     /**
      * Update an existent user from DTO into the database using JPA.
+     * If the username, password or roles change, the token version is increased,
+     * so the tokens issued before the change are not valid anymore.
+     * The cached UserDetails of the old and the new username are removed.
      *
      * @param id       Long id, to search the specific user to update.
      * @param toUpdate UserDTO as request.
+     * @param version  String version tag the client read, null to skip the check.
      * @return UserEntity as response.
      * @throws UsernameAlreadyExistsException If the username is already in use.
      * @throws EmailAlreadyExistsException    If the email is already in use.
      * @throws EntityNotFoundException        If the user doesn't exist.
+     * @throws PreconditionFailedException    If the user changed since the client read it.
      */
     @Override
-    public UserEntity updateUser(final Long id, final UserRequestDTO toUpdate) {
+    public UserEntity updateUser(final Long id, final UserRequestDTO toUpdate, final String version) {
         log.info("Executing updateUser from UserServiceImpl");
 
         UserEntity user = userRepository.findUserById(id);
@@ -76,9 +104,78 @@ public class UserServiceImpl implements UserService {
                     UserEntity.class.getSimpleName() + " with id: " + id);
         }
 
-        update(user, toUpdate);
+        if (version != null && !version.equals(versionOf(user).tag())) {
+            throw new PreconditionFailedException("Outdated version.");
+        }
+
+        final String oldUsername = user.getUsername();
+
+        if (update(user, toUpdate)) {
+            final int tokenVersion = user.getTokenVersion() == null ? 0 : user.getTokenVersion();
+
+            user.setTokenVersion(tokenVersion + 1);
+        }
+
+        user = userRepository.save(user);
+
+        tokenVersionRegistry.update(user.getId(), user.getTokenVersion());
+
+        userDetailsService.invalidate(oldUsername);
+        userDetailsService.invalidate(user.getUsername());
+
+        return user;
+    }
+
+    /**
+     * Update only the fields of the patch of an existent user.
+     * The patch is applied to the current user and only its fields are validated. The username
+     * and the email are checked only if they changed, and the password is encoded only if the
+     * patch has a new one. Only the changed columns are written.
+     * If the username, password or roles change, the token version is increased.
+     *
+     * @param id      Long id, to search the specific user to update.
+     * @param patch   JsonNode JSON Merge Patch.
+     * @param version String version tag the client read, null to skip the check.
+     * @return UserEntity as response.
+     * @throws UsernameAlreadyExistsException If the username is already in use.
+     * @throws EmailAlreadyExistsException    If the email is already in use.
+     * @throws EntityNotFoundException        If the user doesn't exist.
+     * @throws PreconditionFailedException    If the user changed since the client read it.
+     * @throws IllegalArgumentException       If the patch or the patched user is not valid.
+     */
+    @Override
+    public UserEntity patchUser(final Long id, final JsonNode patch, final String version) {
+        log.info("Executing patchUser from UserServiceImpl");
+
+        UserEntity user = userRepository.findUserById(id);
+
+        if (user == null) {
+            throw new EntityNotFoundException("Couldn't find " +
+                    UserEntity.class.getSimpleName() + " with id: " + id);
+        }
+
+        if (version != null && !version.equals(versionOf(user).tag())) {
+            throw new PreconditionFailedException("Outdated version.");
+        }
+
+        final String oldUsername = user.getUsername();
+
+        final UserRequestDTO patched = jsonMergePatcher.patch(requestOf(user), patch);
+
+        if (patch(user, patched, patch.has("password"))) {
+            final int tokenVersion = user.getTokenVersion() == null ? 0 : user.getTokenVersion();
+
+            user.setTokenVersion(tokenVersion + 1);
+        }
 
-        return userRepository.save(user);
+        user = userRepository.save(user);
+
+        tokenVersionRegistry.update(user.getId(), user.getTokenVersion());
+
+        userDetailsService.invalidate(oldUsername);
+        userDetailsService.invalidate(user.getUsername());
+
+        return user;
     }
 
     /**
@@ -101,6 +198,10 @@ public class UserServiceImpl implements UserService {
 
         userRepository.deleteById(id);
 
+        tokenVersionRegistry.delete(id);
+
+        userDetailsService.invalidate(user.getUsername());
+
         return user;
     }
 
@@ -179,6 +280,58 @@ public class UserServiceImpl implements UserService {
         return user;
     }
 
+    /**
+     * Find users by their ids from the database, with their roles in the same query,
+     * using IN-list queries of at most batch.chunk-size ids.
+     *
+     * @param ids List<Long> ids, the repeated ones are returned once.
+     * @return BatchResponseDTO<UserEntity> in the order of the ids, with the missing ids.
+     * @throws IllegalArgumentException If an id is null or there are more than batch.max-size ids.
+     */
+    @Override
+    public BatchResponseDTO<UserEntity> findUsersByIds(final List<Long> ids) {
+        log.info("Executing findUsersByIds from UserServiceImpl");
+
+        final List<Long> distinct = Batches.distinct(ids, BATCH_MAX_SIZE);
+
+        return Batches.response(distinct, Batches.query(distinct, BATCH_CHUNK_SIZE,
+                userRepository::findUsersByIds, UserEntity::getId));
+    }
+
+    /**
+     * Find the version tag of a user with a query of the versions, so the user is not loaded.
+     *
+     * @param id Long id, to search the specific user.
+     * @return String version tag of the user and its roles.
+     * @throws EntityNotFoundException If the user doesn't exist.
+     */
+    @Override
+    public String findUserVersion(final Long id) {
+        log.info("Executing findUserVersion from UserServiceImpl");
+
+        final EntityVersion version = userRepository.findUserVersionById(id);
+
+        if (version == null) {
+            throw new EntityNotFoundException("Couldn't find " +
+                    UserEntity.class.getSimpleName() + " with id: " + id);
+        }
+
+        return version.tag();
+    }
+
+    /**
+     * Find the version tag of all the users, it also changes when a role changes.
+     *
+     * @return String version tag of the users and the roles.
+     */
+    @Override
+    public String findUsersVersion() {
+        log.info("Executing findUsersVersion from UserServiceImpl");
+
+        return userRepository.findUsersVersion().tag() + "." +
+                roleRepository.findRolesVersion().tag();
+    }
+
     /**
      * Create a user from DTO.
      *
@@ -192,7 +345,7 @@ public class UserServiceImpl implements UserService {
                 .forEach(
                         r -> {
                             if (r != null)
-                                roles.add(roleService.findRoleByName(r));
+                                roles.add(roleRegistry.findRoleByName(r));
                         }
                 );
 
@@ -214,9 +367,11 @@ public class UserServiceImpl implements UserService {
      *
      * @param user           UserEntity.
      * @param userRequestDTO UserDTO.
-     * @void
+     * @return Boolean if the username, password or roles changed.
      */
-    private void update(UserEntity user, UserRequestDTO userRequestDTO) {
+    private boolean update(UserEntity user, UserRequestDTO userRequestDTO) {
+        boolean credentialsChanged = false;
+
         user.setFirstName(userRequestDTO.getFirstName());
         user.setMiddleName(userRequestDTO.getMiddleName());
         user.setLastName(userRequestDTO.getLastName());
@@ -228,6 +383,7 @@ public class UserServiceImpl implements UserService {
                 throw new UsernameAlreadyExistsException("Busy username.");
 
             user.setUsername(userRequestDTO.getUsername());
+            credentialsChanged = true;
         }
 
         if (user.getEmail().equals(userRequestDTO.getEmail())) {
@@ -240,7 +396,12 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setEmail(userRequestDTO.getEmail());
-        user.setPassword(passwordEncoder.encode(userRequestDTO.getPassword()));
+
+        if (!passwordEncoder.matches(userRequestDTO.getPassword(), user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(userRequestDTO.getPassword()));
+            credentialsChanged = true;
+        }
+
         user.setPhone(userRequestDTO.getPhone());
 
         Set<RoleEntity> roles = new HashSet<>();
@@ -249,11 +410,114 @@ public class UserServiceImpl implements UserService {
                 .forEach(
                         r -> {
                             if (r != null)
-                                roles.add(roleService.findRoleByName(r));
+                                roles.add(roleRegistry.findRoleByName(r));
                         }
                 );
 
+        if (!names(roles).equals(names(user.getRoles()))) {
+            credentialsChanged = true;
+        }
+
         user.setRoles(roles);
+
+        return credentialsChanged;
+    }
+
+    /**
+     * Request DTO with the current state of a user, the target of a patch.
+     * The password is the encoded one, it is only used if the patch doesn't have a new one.
+     *
+     * @param user UserEntity.
+     * @return UserRequestDTO.
+     */
+    private UserRequestDTO requestOf(UserEntity user) {
+        return new UserRequestDTO(
+                user.getFirstName(),
+                user.getMiddleName(),
+                user.getLastName(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getPhone(),
+                String.join(",", names(user.getRoles())));
+    }
+
+    /**
+     * Update a user with the changed fields of a patched DTO.
+     *
+     * @param user            UserEntity.
+     * @param userRequestDTO  UserDTO patched.
+     * @param passwordChanged Boolean if the patch has a new password.
+     * @return Boolean if the username, password or roles changed.
+     */
+    private boolean patch(UserEntity user, UserRequestDTO userRequestDTO, boolean passwordChanged) {
+        boolean credentialsChanged = false;
+
+        user.setFirstName(userRequestDTO.getFirstName());
+        user.setMiddleName(userRequestDTO.getMiddleName());
+        user.setLastName(userRequestDTO.getLastName());
+
+        if (!user.getUsername().equals(userRequestDTO.getUsername())) {
+            if (userRepository.existsUserByUsername(userRequestDTO.getUsername()))
+                throw new UsernameAlreadyExistsException("Busy username.");
+
+            user.setUsername(userRequestDTO.getUsername());
+            credentialsChanged = true;
+        }
+
+        if (!user.getEmail().equals(userRequestDTO.getEmail())) {
+            if (userRepository.existsUserByEmail(userRequestDTO.getEmail()))
+                throw new EmailAlreadyExistsException("Busy email.");
+
+            user.setEmail(userRequestDTO.getEmail());
+        }
+
+        if (passwordChanged) {
+            user.setPassword(passwordEncoder.encode(userRequestDTO.getPassword()));
+            credentialsChanged = true;
+        }
+
+        user.setPhone(userRequestDTO.getPhone());
+
+        Set<String> names = Arrays.stream(userRequestDTO.getRoles().split(","))
+                .collect(Collectors.toSet());
+
+        if (!names.equals(names(user.getRoles()))) {
+            Set<RoleEntity> roles = new HashSet<>();
+
+            names.forEach(r -> roles.add(roleRegistry.findRoleByName(r)));
+
+            user.setRoles(roles);
+            credentialsChanged = true;
+        }
+
+        return credentialsChanged;
+    }
+
+    /**
+     * Version of a user, the same as the query of the repository.
+     *
+     * @param user UserEntity.
+     * @return EntityVersion.
+     */
+    private EntityVersion versionOf(final UserEntity user) {
+        final long rolesVersion = user.getRoles() == null ? 0L : user.getRoles().stream()
+                .mapToLong(role -> role.getVersion() + 1)
+                .sum();
+
+        return new EntityVersion(user.getVersion(), rolesVersion);
+    }
+
+    /**
+     * Return the names of the roles.
+     *
+     * @param roles Set<RoleEntity>.
+     * @return Set<String> role names.
+     */
+    private Set<String> names(Set<RoleEntity> roles) {
+        return roles.stream()
+                .map(RoleEntity::getName)
+                .collect(Collectors.toSet());
     }
 
 }
@@ -1,12 +1,16 @@
 -- Inserting test values into the table role
-INSERT INTO t_role (name, description) VALUES ('USER', 'USER');
-INSERT INTO t_role (name, description) VALUES ('ADMIN', 'ADMIN');
+INSERT INTO t_role (id, name, description) VALUES (1, 'USER', 'USER');
+INSERT INTO t_role (id, name, description) VALUES (2, 'ADMIN', 'ADMIN');
 
 -- Inserting test values into the table user
-INSERT INTO t_user (first_name, middle_name, last_name, username, email, password, phone)
-    VALUES ('Admin', 'Test', 'User', 't_admin', 't_admin@pizzashop.com',
+INSERT INTO t_user (id, first_name, middle_name, last_name, username, email, password, phone)
+    VALUES (1, 'Admin', 'Test', 'User', 't_admin', 't_admin@pizzashop.com',
     '$2a$10$bJaL01Zp202GdNK0Z0oBe.PLKwXnPj0eFuBKhyTJu2WqtQvMoqc7q', '');
 
 -- Inserting test values into the table user-role
 INSERT INTO t_user_role (user_id, role_id) VALUES (1, 1);
-INSERT INTO t_user_role (user_id, role_id) VALUES (1, 2);
\ No newline at end of file
+INSERT INTO t_user_role (user_id, role_id) VALUES (1, 2);
+
+-- Moving the sequences after the inserted ids
+SELECT setval('t_role_seq', (SELECT MAX(id) FROM t_role));
+SELECT setval('t_user_seq', (SELECT MAX(id) FROM t_user));
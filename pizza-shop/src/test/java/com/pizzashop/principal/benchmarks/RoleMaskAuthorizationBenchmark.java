@@ -0,0 +1,92 @@
+package com.pizzashop.principal.benchmarks;
+
+import com.pizzashop.principal.caches.RoleRegistry;
+import com.pizzashop.principal.security.RoleMaskAuthenticationToken;
+import com.pizzashop.principal.security.RoleMaskAuthorizationManager;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-request cost of the @PreAuthorize("hasRole('ADMIN')") check of the rest controllers.
+ * spelCheck: the default PreAuthorizeAuthorizationManager, it builds an evaluation context
+ * and evaluates the SpEL expression on every call.
+ * maskCheck: the RoleMaskAuthorizationManager, a cached mask per method and a single test.
+ * Run it with the main method, it uses the GC profiler for the allocation per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoleMaskAuthorizationBenchmark {
+
+    private final PreAuthorizeAuthorizationManager spelAuthorizationManager =
+            new PreAuthorizeAuthorizationManager();
+
+    private RoleMaskAuthorizationManager maskAuthorizationManager;
+
+    private MethodInvocation invocation;
+
+    private Supplier<Authentication> authentication;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RoleMaskAuthorizationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public static class AdminController {
+
+        public String findAll() {
+            return "all";
+        }
+    }
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        final RoleRegistry roleRegistry = new RoleRegistry();
+
+        maskAuthorizationManager = new RoleMaskAuthorizationManager(() -> roleRegistry,
+                new DefaultMethodSecurityExpressionHandler());
+
+        invocation = new SimpleMethodInvocation(new AdminController(),
+                AdminController.class.getMethod("findAll"));
+
+        final Authentication token = RoleMaskAuthenticationToken.of(
+                new UsernamePasswordAuthenticationToken("t_admin", null, List.of(
+                        new SimpleGrantedAuthority("ROLE_USER"),
+                        new SimpleGrantedAuthority("ROLE_ADMIN"))),
+                roleRegistry);
+
+        authentication = () -> token;
+    }
+
+    @Benchmark
+    public AuthorizationDecision spelCheck() {
+        return spelAuthorizationManager.check(authentication, invocation);
+    }
+
+    @Benchmark
+    public AuthorizationDecision maskCheck() {
+        return maskAuthorizationManager.check(authentication, invocation);
+    }
+}
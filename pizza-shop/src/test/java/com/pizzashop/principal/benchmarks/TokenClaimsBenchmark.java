@@ -0,0 +1,125 @@
+package com.pizzashop.principal.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.pizzashop.principal.security.AuthenticatedUser;
+import com.pizzashop.principal.security.SigningKeyRing;
+import com.pizzashop.principal.security.TokenProvider;
+import com.pizzashop.principal.security.VerifiedToken;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size and decode cost of the token claims.
+ * verifyLegacy: the Base64 encoded subject and authorities with the PAYLOAD_KEY suffix.
+ * verifyCompact: the v=2 claims, plain subject and interned role codes.
+ * The size of each token is reported as the tokenBytes secondary result,
+ * and the main method runs with the GC profiler, so gc.alloc.rate.norm is the allocation per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenClaimsBenchmark {
+
+    private TokenProvider legacyTokenProvider;
+
+    private TokenProvider compactTokenProvider;
+
+    private String legacyToken;
+
+    private String compactToken;
+
+    private int legacyTokenBytes;
+
+    private int compactTokenBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class TokenSize {
+
+        public int tokenBytes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenClaimsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        final SigningKeyRing signingKeyRing = new SigningKeyRing();
+        ReflectionTestUtils.setField(signingKeyRing, "SIGNING_KEY", Encoders.BASE64.encode(
+                Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded()));
+        ReflectionTestUtils.setField(signingKeyRing, "ALGORITHM", "HS256");
+        ReflectionTestUtils.setField(signingKeyRing, "KEYS_LOCATION", "");
+        signingKeyRing.init();
+
+        legacyTokenProvider = tokenProvider(signingKeyRing, false);
+        compactTokenProvider = tokenProvider(signingKeyRing, true);
+
+        final List<SimpleGrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_ADMIN"),
+                new SimpleGrantedAuthority("ROLE_USER"));
+
+        final AuthenticatedUser user =
+                new AuthenticatedUser(1L, "t_admin", "", authorities, 0);
+
+        final UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(user, null, authorities);
+
+        legacyToken = legacyTokenProvider.generateAccessToken(authentication);
+        compactToken = compactTokenProvider.generateAccessToken(authentication);
+
+        legacyTokenBytes = legacyToken.getBytes(StandardCharsets.US_ASCII).length;
+        compactTokenBytes = compactToken.getBytes(StandardCharsets.US_ASCII).length;
+    }
+
+    @Benchmark
+    public VerifiedToken verifyLegacy(final TokenSize tokenSize) {
+        tokenSize.tokenBytes = legacyTokenBytes;
+
+        return legacyTokenProvider.verifyToken(legacyToken);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCompact(final TokenSize tokenSize) {
+        tokenSize.tokenBytes = compactTokenBytes;
+
+        return compactTokenProvider.verifyToken(compactToken);
+    }
+
+    private TokenProvider tokenProvider(final SigningKeyRing signingKeyRing,
+                                        final boolean compact) {
+        final TokenProvider tokenProvider = new TokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "ACCESS_TOKEN_VALIDITY", 600000L);
+        ReflectionTestUtils.setField(tokenProvider, "REFRESH_TOKEN_VALIDITY", 6000000L);
+        ReflectionTestUtils.setField(tokenProvider, "signingKeyRing", signingKeyRing);
+        ReflectionTestUtils.setField(tokenProvider, "PAYLOAD_KEY", "pizza-shop");
+        ReflectionTestUtils.setField(tokenProvider, "AUTHORITIES_KEY", "roles");
+        ReflectionTestUtils.setField(tokenProvider, "COMPACT_CLAIMS", compact);
+        tokenProvider.init();
+
+        return tokenProvider;
+    }
+}
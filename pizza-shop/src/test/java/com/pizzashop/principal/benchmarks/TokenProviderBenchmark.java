@@ -0,0 +1,155 @@
+package com.pizzashop.principal.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.pizzashop.principal.security.SigningKeyRing;
+import com.pizzashop.principal.security.TokenProvider;
+import com.pizzashop.principal.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-request cost of the JWT authentication.
+ * legacyPerRequest: the old filter path, four parses and a new Key and JwtParser per call.
+ * verifiedPerRequest: a single parse into a VerifiedToken with the shared JwtParser.
+ * Run it with the main method, add "-prof gc" to the options to see the allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenProviderBenchmark {
+
+    private static final String PAYLOAD_KEY = "pizza-shop";
+
+    private static final String AUTHORITIES_KEY = "roles";
+
+    private TokenProvider tokenProvider;
+
+    private String signingKey;
+
+    private String token;
+
+    private UserDetails userDetails;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenProviderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        signingKey = Encoders.BASE64.encode(
+                Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+
+        final SigningKeyRing signingKeyRing = new SigningKeyRing();
+        ReflectionTestUtils.setField(signingKeyRing, "SIGNING_KEY", signingKey);
+        ReflectionTestUtils.setField(signingKeyRing, "ALGORITHM", "HS256");
+        ReflectionTestUtils.setField(signingKeyRing, "KEYS_LOCATION", "");
+        signingKeyRing.init();
+
+        tokenProvider = new TokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "ACCESS_TOKEN_VALIDITY", 600000L);
+        ReflectionTestUtils.setField(tokenProvider, "REFRESH_TOKEN_VALIDITY", 6000000L);
+        ReflectionTestUtils.setField(tokenProvider, "signingKeyRing", signingKeyRing);
+        ReflectionTestUtils.setField(tokenProvider, "PAYLOAD_KEY", PAYLOAD_KEY);
+        ReflectionTestUtils.setField(tokenProvider, "AUTHORITIES_KEY", AUTHORITIES_KEY);
+        ReflectionTestUtils.setField(tokenProvider, "COMPACT_CLAIMS", false);
+        tokenProvider.init();
+
+        List<SimpleGrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_ADMIN"),
+                new SimpleGrantedAuthority("ROLE_USER"));
+
+        token = tokenProvider.generateAccessToken(
+                new UsernamePasswordAuthenticationToken("t_admin", null, authorities));
+
+        userDetails = User.withUsername("t_admin")
+                .password("")
+                .authorities(authorities)
+                .build();
+    }
+
+    @Benchmark
+    public UsernamePasswordAuthenticationToken legacyPerRequest() {
+        final String username = legacyDecode(legacyClaims().getSubject());
+
+        final boolean valid = legacyDecode(legacyClaims().getSubject()).equals(userDetails.getUsername())
+                && !legacyClaims().getExpiration().before(new Date());
+
+        if (!valid || !username.equals(userDetails.getUsername())) {
+            throw new IllegalStateException("Token not valid.");
+        }
+
+        final Collection<? extends GrantedAuthority> authorities =
+                Arrays.stream(legacyDecode(legacyClaims()
+                                .get(legacyEncode(AUTHORITIES_KEY)).toString()).split(","))
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toList());
+
+        return new UsernamePasswordAuthenticationToken(userDetails, "", authorities);
+    }
+
+    @Benchmark
+    public UsernamePasswordAuthenticationToken verifiedPerRequest() {
+        final VerifiedToken verifiedToken = tokenProvider.verifyToken(token);
+
+        if (!tokenProvider.validateToken(verifiedToken, userDetails)) {
+            throw new IllegalStateException("Token not valid.");
+        }
+
+        return tokenProvider.getAuthenticationToken(verifiedToken, userDetails);
+    }
+
+    /**
+     * The old getAllClaimsFromToken: a new Key and JwtParser for every parse.
+     *
+     * @return Claims.
+     */
+    private Claims legacyClaims() {
+        final Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(signingKey));
+
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private String legacyEncode(final String value) {
+        return Encoders.BASE64.encode((value + PAYLOAD_KEY).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String legacyDecode(final String value) {
+        return new String(Decoders.BASE64.decode(value)).replace(PAYLOAD_KEY, "");
+    }
+}
@@ -0,0 +1,119 @@
+package com.pizzashop.principal.benchmarks;
+
+import com.pizzashop.principal.entities.RoleEntity;
+import com.pizzashop.principal.entities.UserEntity;
+import com.pizzashop.principal.projections.UserAuthView;
+import com.pizzashop.principal.security.AuthenticatedUser;
+import com.pizzashop.principal.security.AuthorityCodes;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-login cost of building the UserDetails once the rows are read.
+ * entityMapping: the old path, UserEntity and RoleEntity objects and a new
+ * SimpleGrantedAuthority per role in a HashSet.
+ * projectionMapping: the UserAuthView row and the shared authorities of its role names.
+ * The query itself is not measured, it needs the database: the old path ran the user
+ * select plus the EAGER role join, the new one a single select with string_agg.
+ * Run it with the main method, it uses the GC profiler for the allocation per op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserDetailsMappingBenchmark {
+
+    private final AuthorityCodes authorityCodes = new AuthorityCodes();
+
+    private UserAuthView userAuthView;
+
+    private Set<RoleEntity> roles;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserDetailsMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        roles = Set.of(
+                RoleEntity.builder().id(1L).name("ADMIN").description("Administrator").build(),
+                RoleEntity.builder().id(2L).name("USER").description("User").build());
+
+        userAuthView = new UserAuthView() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public String getUsername() {
+                return "t_admin";
+            }
+
+            @Override
+            public String getPassword() {
+                return "$2a$10$7EqJtq98hPqEX7fNZaFWoO5zvLtMkYwWGDs8nHnJHb3Ed.wi8PlXa";
+            }
+
+            @Override
+            public Integer getTokenVersion() {
+                return 0;
+            }
+
+            @Override
+            public String getRoles() {
+                return "ADMIN,USER";
+            }
+        };
+    }
+
+    @Benchmark
+    public AuthenticatedUser entityMapping() {
+        final UserEntity userEntity = UserEntity.builder()
+                .id(1L)
+                .firstName("Admin")
+                .lastName("Admin")
+                .username("t_admin")
+                .email("admin@pizzashop.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoO5zvLtMkYwWGDs8nHnJHb3Ed.wi8PlXa")
+                .phone("555-0100")
+                .tokenVersion(0)
+                .roles(new HashSet<>(roles))
+                .build();
+
+        final Set<SimpleGrantedAuthority> authorities = new HashSet<>();
+
+        userEntity.getRoles().forEach(role ->
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getName())));
+
+        return new AuthenticatedUser(
+                userEntity.getId(),
+                userEntity.getUsername(),
+                userEntity.getPassword(),
+                authorities,
+                userEntity.getTokenVersion());
+    }
+
+    @Benchmark
+    public AuthenticatedUser projectionMapping() {
+        return new AuthenticatedUser(
+                userAuthView.getId(),
+                userAuthView.getUsername(),
+                userAuthView.getPassword(),
+                authorityCodes.decode(userAuthView.getRoles()),
+                userAuthView.getTokenVersion());
+    }
+}
@@ -0,0 +1,75 @@
+package com.pizzashop.principal.caches;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@Slf4j
+public class BoundedTtlCacheTest {
+
+    private static final int MAX_SIZE = 100;
+
+    @Test
+    @Order(1)
+    @DisplayName("Full Cache Stays Under Its Size Bound Test")
+    void fullCacheSizeBoundTest() {
+        log.info("Staring the Test 1: fullCacheSizeBoundTest");
+
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>("test", MAX_SIZE,
+                Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        for (int i = 0; i < MAX_SIZE * 10; i++) {
+            cache.put(i, "V" + i);
+
+            assertTrue(cache.size() <= MAX_SIZE);
+        }
+
+        assertEquals(MAX_SIZE, cache.size());
+        assertEquals(MAX_SIZE * 9, cache.evictionCount());
+        assertEquals("V" + (MAX_SIZE * 10 - 1), cache.getIfPresent(MAX_SIZE * 10 - 1));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Values Expire With Their Own Expiration Test")
+    void valueExpirationTest() {
+        log.info("Staring the Test 2: valueExpirationTest");
+
+        BoundedTtlCache<String, Instant> cache = new BoundedTtlCache<>("test", MAX_SIZE,
+                Duration.ofMinutes(1), expiresAt -> expiresAt, new SimpleMeterRegistry());
+
+        final Instant expired = Instant.now().minusSeconds(1);
+        final Instant valid = Instant.now().plusSeconds(60);
+
+        cache.put("expired", expired);
+        cache.put("valid", valid);
+
+        assertNull(cache.getIfPresent("expired"));
+        assertEquals(valid, cache.getIfPresent("valid"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Loads Are Counted As Misses And Then Hits Test")
+    void loadCountersTest() {
+        log.info("Staring the Test 3: loadCountersTest");
+
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>("test", MAX_SIZE,
+                Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        assertEquals("V1", cache.get(1, key -> "V" + key));
+        assertEquals("V1", cache.get(1, key -> "V" + key + "!"));
+
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        assertEquals(0.5, cache.hitRatio());
+    }
+
+}
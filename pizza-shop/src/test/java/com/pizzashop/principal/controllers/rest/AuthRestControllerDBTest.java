@@ -291,6 +291,28 @@ public class AuthRestControllerDBTest {
                 HttpMethod.GET, Map.class, fields);
     }
 
+    @Test
+    @Order(19)
+    @DisplayName("Refresh With Access Token Test")
+    void refresh_With_Access_Token_Test() {
+        log.info("Executing the Test 19: refresh_With_Access_Token_Test");
+
+        initRefreshFields("access_token", null);
+
+        testsHelper.verifyExceptionTest(
+                API_URL + "refresh", JsonAuthHelper.RoleAdmin, HttpMethod.POST,
+                "This is not a valid token.", HttpStatus.BAD_REQUEST, fields);
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("Rotated Refresh Token Is Unauthorized Test")
+    void rotated_Refresh_Token_Is_Unauthorized_Test() {
+        log.info("Executing the Test 20: rotated_Refresh_Token_Is_Unauthorized_Test");
+
+        testsHelper.verifyRefreshTokenUnauthorizedTest("/api/v1/users", JsonAuthHelper.RoleAdmin);
+    }
+
     /**
      * Init the Map fields for the Login Test.
      *
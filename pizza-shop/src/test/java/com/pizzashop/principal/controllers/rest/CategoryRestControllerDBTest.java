@@ -3,7 +3,9 @@ package com.pizzashop.principal.controllers.rest;
 import com.pizzashop.principal.entities.CategoryEntity;
 import com.pizzashop.principal.helpers.JsonCategoryHelper;
 import com.pizzashop.principal.helpers.TestsHelper;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -15,6 +17,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -27,6 +30,8 @@ public class CategoryRestControllerDBTest {
     private final String API_URL = "/api/v1/categories";
     @Autowired
     private RestTemplateBuilder restTemplateBuilder;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
     @LocalServerPort
     private int port;
     private TestsHelper testsHelper;
@@ -243,6 +248,86 @@ public class CategoryRestControllerDBTest {
                     "404 NOT_FOUND \"Couldn't find " + CategoryEntity.class.getSimpleName()
                             + " with name: test\"", HttpStatus.NOT_FOUND, fields);
         }
+
+        @Test
+        @Order(17)
+        @DisplayName("Get Category By Id Not Modified Test")
+        void get_Category_By_Id_Not_Modified_Test() {
+            log.info("Executing the Test 17: get_Category_By_Id_Not_Modified_Test");
+
+            testsHelper.verifyNotModifiedTest(API_URL + "/1");
+        }
+
+        @Test
+        @Order(18)
+        @DisplayName("Get All Categories Not Modified Test")
+        void get_All_Categories_Not_Modified_Test() {
+            log.info("Executing the Test 18: get_All_Categories_Not_Modified_Test");
+
+            testsHelper.verifyNotModifiedTest(API_URL);
+        }
+
+        @Test
+        @Order(19)
+        @DisplayName("Update Category Outdated Version Test")
+        void update_Category_Outdated_Version_Test() {
+            log.info("Executing the Test 19: update_Category_Outdated_Version_Test");
+
+            testsHelper.setIfMatch("\"-1.0\"");
+
+            testsHelper.verifyExceptionTest(
+                    API_URL + "/1", JsonCategoryHelper.CategoryToUpdate, HttpMethod.PUT,
+                    "412 PRECONDITION_FAILED \"Outdated version.\"", HttpStatus.PRECONDITION_FAILED, fields);
+        }
+
+        @Test
+        @Order(20)
+        @DisplayName("Get All Categories One Statement Test")
+        void get_All_Categories_One_Statement_Test() {
+            log.info("Executing the Test 20: get_All_Categories_One_Statement_Test");
+
+            testsHelper.verifyStatementsTest(API_URL,
+                    entityManagerFactory.unwrap(SessionFactory.class).getStatistics(), 1L);
+        }
+
+        @Test
+        @Order(21)
+        @DisplayName("Get Categories By Ids Test")
+        void get_Categories_By_Ids_Test() {
+            log.info("Executing the Test 21: get_Categories_By_Ids_Test");
+
+            testsHelper.verifyBatchTest(API_URL + "/by/ids?ids=3,1,4,3",
+                    List.of(3L, 1L), List.of(4L));
+        }
+
+        @Test
+        @Order(22)
+        @DisplayName("Get Cached Categories By Ids No Statement Test")
+        void get_Cached_Categories_By_Ids_No_Statement_Test() {
+            log.info("Executing the Test 22: get_Cached_Categories_By_Ids_No_Statement_Test");
+
+            testsHelper.verifyStatementsTest(API_URL + "/by/ids?ids=2,3",
+                    entityManagerFactory.unwrap(SessionFactory.class).getStatistics(), 0L);
+        }
+
+        @Test
+        @Order(23)
+        @DisplayName("Get Menu No Statement Test")
+        void get_Menu_No_Statement_Test() {
+            log.info("Executing the Test 23: get_Menu_No_Statement_Test");
+
+            testsHelper.verifyStatementsTest(API_URL + "/menu",
+                    entityManagerFactory.unwrap(SessionFactory.class).getStatistics(), 0L);
+        }
+
+        @Test
+        @Order(24)
+        @DisplayName("Get Menu Not Modified Test")
+        void get_Menu_Not_Modified_Test() {
+            log.info("Executing the Test 24: get_Menu_Not_Modified_Test");
+
+            testsHelper.verifyNotModifiedTest(API_URL + "/menu");
+        }
     }
 
 }
\ No newline at end of file
@@ -1,9 +1,12 @@
 package com.pizzashop.principal.controllers.rest;
 
+import com.pizzashop.principal.entities.CategoryEntity;
 import com.pizzashop.principal.entities.ProductEntity;
 import com.pizzashop.principal.helpers.JsonProductHelper;
 import com.pizzashop.principal.helpers.TestsHelper;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -15,6 +18,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -26,6 +30,8 @@ public class ProductRestControllerDBTest {
     private final String API_URL = "/api/v1/products";
     @Autowired
     private RestTemplateBuilder restTemplateBuilder;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
     @LocalServerPort
     private int port;
     private TestsHelper testsHelper;
@@ -127,6 +133,12 @@ public class ProductRestControllerDBTest {
         fields.put("size", size);
     }
 
+    private void initPageFields(int size, boolean hasNext, Long total) {
+        fields.put("size", size);
+        fields.put("hasNext", hasNext);
+        fields.put("total", total);
+    }
+
     @Nested
     @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
     public class GetProductTest {
@@ -139,7 +151,7 @@ public class ProductRestControllerDBTest {
 
             initListFields(5);
 
-            testsHelper.verifySuccessTest(API_URL, null,
+            testsHelper.verifySuccessTest(API_URL + "?all=true", null,
                     HttpMethod.GET, ProductEntity[].class, fields);
         }
 
@@ -199,7 +211,7 @@ public class ProductRestControllerDBTest {
 
             initListFields(3);
 
-            testsHelper.verifySuccessTest(API_URL + "/by/status/STOCK", null,
+            testsHelper.verifySuccessTest(API_URL + "/by/status/STOCK?all=true", null,
                     HttpMethod.GET, ProductEntity[].class, fields);
         }
 
@@ -211,9 +223,232 @@ public class ProductRestControllerDBTest {
 
             initListFields(3);
 
-            testsHelper.verifySuccessTest(API_URL + "/by/category/2", null,
+            testsHelper.verifySuccessTest(API_URL + "/by/category/2?all=true", null,
                     HttpMethod.GET, ProductEntity[].class, fields);
         }
 
+        @Test
+        @Order(13)
+        @DisplayName("Get Products Page Success Test")
+        void get_Products_Page_Success_Test() {
+            log.info("Executing the Test 13: get_Products_Page_Success_Test");
+
+            initPageFields(2, true, 5L);
+
+            String next = testsHelper.verifyPageTest(
+                    API_URL + "?size=2&sort=name&count=true", fields);
+
+            initPageFields(2, true, null);
+
+            next = testsHelper.verifyPageTest(
+                    API_URL + "?size=2&sort=name&cursor=" + next, fields);
+
+            initPageFields(1, false, null);
+
+            testsHelper.verifyPageTest(
+                    API_URL + "?size=2&sort=name&cursor=" + next, fields);
+        }
+
+        @Test
+        @Order(14)
+        @DisplayName("Get Products Page By Status Success Test")
+        void get_Products_Page_By_Status_Success_Test() {
+            log.info("Executing the Test 14: get_Products_Page_By_Status_Success_Test");
+
+            initPageFields(2, true, 3L);
+
+            String next = testsHelper.verifyPageTest(
+                    API_URL + "/by/status/STOCK?size=2&sort=price&direction=desc&count=true",
+                    fields);
+
+            initPageFields(1, false, null);
+
+            testsHelper.verifyPageTest(
+                    API_URL + "/by/status/STOCK?size=2&sort=price&direction=desc&cursor=" + next,
+                    fields);
+        }
+
+        @Test
+        @Order(15)
+        @DisplayName("Get Products Page By Category Id Success Test")
+        void get_Products_Page_By_Category_Id_Success_Test() {
+            log.info("Executing the Test 15: get_Products_Page_By_Category_Id_Success_Test");
+
+            initPageFields(3, false, null);
+
+            testsHelper.verifyPageTest(API_URL + "/by/category/2", fields);
+        }
+
+        @Test
+        @Order(16)
+        @DisplayName("Get Products Page Not Valid Cursor Test")
+        void get_Products_Page_Not_Valid_Cursor_Test() {
+            log.info("Executing the Test 16: get_Products_Page_Not_Valid_Cursor_Test");
+
+            testsHelper.verifyExceptionTest(
+                    API_URL + "?cursor=test", null, HttpMethod.GET,
+                    "This is not a valid cursor.", HttpStatus.BAD_REQUEST, fields);
+        }
+
+        @Test
+        @Order(17)
+        @DisplayName("Export Products NDJSON Success Test")
+        void export_Products_Ndjson_Success_Test() {
+            log.info("Executing the Test 17: export_Products_Ndjson_Success_Test");
+
+            fields.put("contentType", "application/x-ndjson");
+            fields.put("size", 5L);
+
+            testsHelper.verifyExportTest(API_URL + "/export", fields);
+        }
+
+        @Test
+        @Order(18)
+        @DisplayName("Export Products CSV Success Test")
+        void export_Products_Csv_Success_Test() {
+            log.info("Executing the Test 18: export_Products_Csv_Success_Test");
+
+            fields.put("contentType", "text/csv");
+            fields.put("size", 6L);
+
+            testsHelper.verifyExportTest(API_URL + "/export?format=csv", fields);
+        }
+
+        @Test
+        @Order(19)
+        @DisplayName("Import Products NDJSON Test")
+        void import_Products_Ndjson_Test() {
+            log.info("Executing the Test 19: import_Products_Ndjson_Test");
+
+            fields.put("imported", 1L);
+            fields.put("failed", 2L);
+            fields.put("messages", List.of("null", "Busy name.",
+                    "Couldn't find " + CategoryEntity.class.getSimpleName() + " with id: 30"));
+
+            testsHelper.verifyImportTest(API_URL + "/import",
+                    JsonProductHelper.ProductImport, fields);
+        }
+
+        @Test
+        @Order(20)
+        @DisplayName("Import Products CSV Test")
+        void import_Products_Csv_Test() {
+            log.info("Executing the Test 20: import_Products_Csv_Test");
+
+            fields.put("imported", 2L);
+            fields.put("failed", 2L);
+            fields.put("messages", List.of("null", "Busy name.", "This is not a valid product.", "null"));
+
+            testsHelper.verifyImportTest(API_URL + "/import?format=csv",
+                    JsonProductHelper.ProductImportCsv, fields);
+        }
+
+        @Test
+        @Order(21)
+        @DisplayName("Get Product By Id Not Modified Test")
+        void get_Product_By_Id_Not_Modified_Test() {
+            log.info("Executing the Test 21: get_Product_By_Id_Not_Modified_Test");
+
+            testsHelper.verifyNotModifiedTest(API_URL + "/1");
+        }
+
+        @Test
+        @Order(22)
+        @DisplayName("Get All Products Not Modified Test")
+        void get_All_Products_Not_Modified_Test() {
+            log.info("Executing the Test 22: get_All_Products_Not_Modified_Test");
+
+            testsHelper.verifyNotModifiedTest(API_URL + "?all=true");
+        }
+
+        @Test
+        @Order(23)
+        @DisplayName("Update Product Outdated Version Test")
+        void update_Product_Outdated_Version_Test() {
+            log.info("Executing the Test 23: update_Product_Outdated_Version_Test");
+
+            testsHelper.setIfMatch("\"-1.0\"");
+
+            testsHelper.verifyExceptionTest(
+                    API_URL + "/1", JsonProductHelper.ProductToUpdate, HttpMethod.PUT,
+                    "412 PRECONDITION_FAILED \"Outdated version.\"", HttpStatus.PRECONDITION_FAILED, fields);
+        }
+
+        @Test
+        @Order(24)
+        @DisplayName("Get All Products One Statement Test")
+        void get_All_Products_One_Statement_Test() {
+            log.info("Executing the Test 24: get_All_Products_One_Statement_Test");
+
+            testsHelper.verifyStatementsTest(API_URL + "?all=true",
+                    entityManagerFactory.unwrap(SessionFactory.class).getStatistics(), 1L);
+        }
+
+        @Test
+        @Order(25)
+        @DisplayName("Get Products By Status One Statement Test")
+        void get_Products_By_Status_One_Statement_Test() {
+            log.info("Executing the Test 25: get_Products_By_Status_One_Statement_Test");
+
+            testsHelper.verifyStatementsTest(API_URL + "/by/status/STOCK?all=true",
+                    entityManagerFactory.unwrap(SessionFactory.class).getStatistics(), 1L);
+        }
+
+        @Test
+        @Order(26)
+        @DisplayName("Get Products By Category Id One Statement Test")
+        void get_Products_By_Category_Id_One_Statement_Test() {
+            log.info("Executing the Test 26: get_Products_By_Category_Id_One_Statement_Test");
+
+            testsHelper.verifyStatementsTest(API_URL + "/by/category/2?all=true",
+                    entityManagerFactory.unwrap(SessionFactory.class).getStatistics(), 1L);
+        }
+
+        @Test
+        @Order(27)
+        @DisplayName("Get Products By Ids Test")
+        void get_Products_By_Ids_Test() {
+            log.info("Executing the Test 27: get_Products_By_Ids_Test");
+
+            testsHelper.verifyBatchTest(API_URL + "/by/ids?ids=3,1,6,3",
+                    List.of(3L, 1L), List.of(6L));
+        }
+
+        @Test
+        @Order(28)
+        @DisplayName("Get Cached Products By Ids No Statement Test")
+        void get_Cached_Products_By_Ids_No_Statement_Test() {
+            log.info("Executing the Test 28: get_Cached_Products_By_Ids_No_Statement_Test");
+
+            testsHelper.verifyStatementsTest(API_URL + "/by/ids?ids=2,3",
+                    entityManagerFactory.unwrap(SessionFactory.class).getStatistics(), 0L);
+        }
+
+        @Test
+        @Order(29)
+        @DisplayName("Get Renamed Product By Name Test")
+        void get_Renamed_Product_By_Name_Test() {
+            log.info("Executing the Test 29: get_Renamed_Product_By_Name_Test");
+
+            initEntityFields(2L, "P2", "P2", "STOCK", 2L);
+            fields.put("entity", "product");
+
+            testsHelper.verifySuccessTest(API_URL + "/by/name/P2", null,
+                    HttpMethod.GET, ProductEntity.class, fields);
+
+            testsHelper.execute(API_URL + "/2", JsonProductHelper.ProductRename,
+                    HttpMethod.PUT, ProductEntity.class);
+
+            testsHelper.verifyExceptionTest(
+                    API_URL + "/by/name/P2", null, HttpMethod.GET,
+                    "404 NOT_FOUND \"Couldn't find " + ProductEntity.class.getSimpleName()
+                            + " with name: P2\"", HttpStatus.NOT_FOUND, fields);
+
+            initEntityFields(2L, "P2R", "P2 Renamed", "STOCK", 2L);
+            fields.put("entity", "product");
+
+            testsHelper.verifySuccessTest(API_URL + "/by/name/P2R", null,
+                    HttpMethod.GET, ProductEntity.class, fields);
+        }
     }
 }
\ No newline at end of file
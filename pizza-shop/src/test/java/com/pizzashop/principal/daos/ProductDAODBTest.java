@@ -0,0 +1,88 @@
+package com.pizzashop.principal.daos;
+
+import com.pizzashop.principal.dtos.ProductResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ActiveProfiles("test")
+@Slf4j
+public class ProductDAODBTest {
+
+    private static final Long CATEGORY_ID = 300L;
+
+    private static final int LIMIT = 2;
+
+    @Autowired
+    private ProductDAO productDAO;
+
+    @Test
+    @Order(1)
+    @DisplayName("Find Products Page By Price Ascending With Null Prices Test")
+    @Sql({"/product_null_price_data.sql"})
+    void findProductsPageByPriceAscendingTest() {
+        log.info("Staring the Test 1: findProductsPageByPriceAscendingTest");
+
+        assertEquals(List.of(302L, 300L, 304L, 301L, 303L), pages(false));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Find Products Page By Price Descending With Null Prices Test")
+    void findProductsPageByPriceDescendingTest() {
+        log.info("Staring the Test 2: findProductsPageByPriceDescendingTest");
+
+        assertEquals(List.of(303L, 301L, 304L, 300L, 302L), pages(true));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Cursor Without Key Round Trip Test")
+    void cursorWithoutKeyTest() {
+        log.info("Staring the Test 3: cursorWithoutKeyTest");
+
+        final ProductCursor cursor = new ProductCursor(ProductPageQuery.Sort.NAME, false, 301L, null);
+        final ProductCursor empty = new ProductCursor(ProductPageQuery.Sort.NAME, false, 301L, "");
+
+        assertEquals(cursor, ProductCursor.decode(cursor.encode()));
+        assertEquals(empty, ProductCursor.decode(empty.encode()));
+        assertNotEquals(cursor.encode(), empty.encode());
+    }
+
+    /**
+     * Read all the pages of the category by price, following the cursors.
+     *
+     * @param descending Boolean descending order.
+     * @return List<Long> ids in the order of the pages.
+     */
+    private List<Long> pages(final boolean descending) {
+        final List<Long> ids = new ArrayList<>();
+        ProductCursor cursor = null;
+        List<ProductResponseDTO> page;
+
+        do {
+            page = productDAO.findProductsPage(new ProductPageQuery(null, CATEGORY_ID,
+                    ProductPageQuery.Sort.PRICE, descending, cursor, LIMIT));
+
+            page.forEach(product -> ids.add(product.id()));
+
+            if (!page.isEmpty()) {
+                cursor = ProductCursor.decode(ProductCursor.of(page.get(page.size() - 1),
+                        ProductPageQuery.Sort.PRICE, descending).encode());
+            }
+        } while (page.size() == LIMIT);
+
+        return ids;
+    }
+
+}
@@ -34,6 +34,17 @@ public enum JsonProductHelper implements JsonHelper {
                         "categoryId": 1
                     }
             """),
+    ProductRename("""
+                    {
+                        "name":"P2R",
+                        "description":"P2 Renamed",
+                        "amount": 1,
+                        "price": 1.1,
+                        "imageUrl": "img1",
+                        "status": "STOCK",
+                        "categoryId": 2
+                    }
+            """),
     ProductAlreadyExist("""
                     {
                         "name":"P1",
@@ -143,6 +154,19 @@ public enum JsonProductHelper implements JsonHelper {
                         "status": "STOCK",
                         "categoryId": 30
                     }
+            """),
+    ProductImport("""
+            {"name":"P8","description":"P8","amount":1,"price":2.5,"imageUrl":"img8","status":"STOCK","categoryId":2}
+            {"name":"P1","description":"P1","amount":1,"price":2.5,"imageUrl":"img1","status":"STOCK","categoryId":2}
+            {"name":"P9","description":"P9","amount":1,"price":2.5,"imageUrl":"img9","status":"STOCK","categoryId":30}
+            """),
+    ProductImportCsv("""
+            name,description,price,imageUrl,status,categoryId
+            P10,"P10, with comma",3.5,img10,ORDER,3
+            P10,P10,3.5,img10,ORDER,3
+            P11,P11,price,img11,ORDER,3
+            P12,"P12
+            with a line break",3.5,img12,ORDER,3
             """);
 
     private final String product;
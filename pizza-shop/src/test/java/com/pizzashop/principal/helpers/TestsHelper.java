@@ -3,11 +3,14 @@ package com.pizzashop.principal.helpers;
 import com.pizzashop.principal.dtos.AuthResponseDTO;
 import com.pizzashop.principal.dtos.ExceptionResponseDTO;
 import com.pizzashop.principal.dtos.MessageResponseDTO;
+import com.pizzashop.principal.dtos.PageResponseDTO;
+import com.pizzashop.principal.dtos.ProductImportReportDTO;
 import com.pizzashop.principal.entities.CategoryEntity;
 import com.pizzashop.principal.entities.ProductEntity;
 import com.pizzashop.principal.entities.RoleEntity;
 import com.pizzashop.principal.entities.UserEntity;
 import com.pizzashop.principal.security.TokenProvider;
+import org.hibernate.stat.Statistics;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
@@ -199,6 +202,122 @@ public class TestsHelper {
         assertEquals((Long) fields.get("category"), response.getCategory().getId());
     }
 
+    public String verifyPageTest(String path, @NonNull Map<String, Object> fields) {
+        execute(path, null, HttpMethod.GET, PageResponseDTO.class);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+
+        PageResponseDTO<?> response = (PageResponseDTO<?>) responseEntity.getBody();
+        assertNotNull(response);
+        assertEquals(fields.get("size"), response.items().size());
+        assertEquals(fields.get("hasNext"), response.next() != null);
+        assertEquals(fields.get("total"), response.total());
+
+        return response.next();
+    }
+
+    public void verifyExportTest(String path, @NonNull Map<String, Object> fields) {
+        execute(path, null, HttpMethod.GET, String.class);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        assertEquals(fields.get("contentType"),
+                Objects.requireNonNull(responseEntity.getHeaders().getContentType()).toString());
+
+        String response = (String) responseEntity.getBody();
+        assertNotNull(response);
+        assertEquals(fields.get("size"), response.lines().count());
+    }
+
+    public void verifyImportTest(String path, JsonHelper requestBody,
+                                 @NonNull Map<String, Object> fields) {
+        execute(path, requestBody, HttpMethod.POST, ProductImportReportDTO.class);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+
+        ProductImportReportDTO response = (ProductImportReportDTO) responseEntity.getBody();
+        assertNotNull(response);
+        assertEquals(fields.get("imported"), response.imported());
+        assertEquals(fields.get("failed"), response.failed());
+        assertEquals(fields.get("messages"), response.rows().stream()
+                .map(row -> String.valueOf(row.message())).toList());
+    }
+
+    public void verifyNotModifiedTest(String path) {
+        execute(path, null, HttpMethod.GET, String.class);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+
+        String eTag = responseEntity.getHeaders().getETag();
+        assertNotNull(eTag);
+
+        httpHeaders.setIfNoneMatch(eTag);
+        execute(path, null, HttpMethod.GET, String.class);
+        httpHeaders.remove(HttpHeaders.IF_NONE_MATCH);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+        assertEquals(eTag, responseEntity.getHeaders().getETag());
+        assertNull(responseEntity.getBody());
+    }
+
+    public void verifyStatementsTest(String path, Statistics statistics, long statements) {
+        execute(path, null, HttpMethod.GET, String.class);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        try {
+            execute(path, null, HttpMethod.GET, String.class);
+
+            assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+            assertEquals(statements, statistics.getPrepareStatementCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
+    public void verifyBatchTest(String path, List<Long> ids, List<Long> missing) {
+        execute(path, null, HttpMethod.GET, Map.class);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+
+        Map<?, ?> response = (Map<?, ?>) Objects.requireNonNull(responseEntity.getBody());
+
+        assertEquals(ids, ((List<?>) response.get("items")).stream()
+                .map(item -> ((Number) ((Map<?, ?>) item).get("id")).longValue()).toList());
+        assertEquals(missing, ((List<?>) response.get("missing")).stream()
+                .map(id -> ((Number) id).longValue()).toList());
+    }
+
+    public void verifyRefreshTokenUnauthorizedTest(String path, JsonHelper requestBody) {
+        initHeaders();
+
+        String rotatedToken = refreshAndGetToken(requestBody.getData());
+
+        initHeadersWithToken(rotatedToken);
+        execute("/api/v1/auth/refresh", null, HttpMethod.POST, AuthResponseDTO.class);
+
+        assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+
+        String refreshToken = ((AuthResponseDTO) Objects.requireNonNull(
+                responseEntity.getBody())).getRefreshToken();
+
+        for (String token : List.of(rotatedToken, refreshToken)) {
+            initHeadersWithToken(token);
+            execute(path, null, HttpMethod.GET, String.class);
+
+            assertEquals(HttpStatus.UNAUTHORIZED, responseEntity.getStatusCode());
+        }
+    }
+
+    public void setIfMatch(String eTag) {
+        httpHeaders.setIfMatch(eTag);
+    }
+
     public void verifyExceptionTest(String path, JsonHelper requestBody, HttpMethod method,
                                     String message, HttpStatus httpStatus, Map<String, Object> fields) {
         if (Objects.equals(fields.get("method"), "refresh")) {
@@ -223,6 +342,9 @@ public class TestsHelper {
 
                 initHeadersWithToken(refreshToken);
             }
+            if (Objects.equals(fields.get("test"), "access_token")) {
+                initHeadersWithToken(loginAndGetToken(requestBody.getData()));
+            }
             execute(path, requestBody, method, ExceptionResponseDTO.class);
         } else {
             execute(path, requestBody, method, ExceptionResponseDTO.class);
@@ -0,0 +1,78 @@
+package com.pizzashop.principal.repositories;
+
+import com.pizzashop.principal.entities.ProductEntity;
+import com.pizzashop.principal.entities.ProductStatus;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+public class ProductRepositoryDBTest {
+
+    private static final int ROWS = 1000;
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("Save All Products Batched Statements Test")
+    void save_All_Products_Batched_Statements_Test() {
+        log.info("Executing the Test: save_All_Products_Batched_Statements_Test");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+
+        List<ProductEntity> products = IntStream.range(0, ROWS)
+                .mapToObj(index -> ProductEntity.builder()
+                        .name("B" + index)
+                        .description("B" + index)
+                        .amount(1)
+                        .price(1.1)
+                        .imageUrl("img")
+                        .status(ProductStatus.STOCK)
+                        .build())
+                .toList();
+
+        List<Long> ids = new ArrayList<>();
+
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        try {
+            productRepository.saveAll(products).forEach(product -> ids.add(product.getId()));
+
+            // One statement per batch of inserts and one per block of ids from the sequence,
+            // plus the second call of a new sequence. Without batching it is one per row.
+            long statements = statistics.getPrepareStatementCount();
+
+            log.info("Statements sent for " + ROWS + " products: " + statements);
+
+            assertEquals(ROWS, statistics.getEntityInsertCount());
+            assertTrue(statements <= 2L * ROWS / BATCH_SIZE + 1,
+                    "Expected batched inserts, but " + statements + " statements were sent");
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+            productRepository.deleteAllByIdInBatch(ids);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.pizzashop.principal.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@Slf4j
+public class AuthorityCodesTest {
+
+    private AuthorityCodes authorityCodes;
+
+    @BeforeEach
+    void setUp() {
+        authorityCodes = new AuthorityCodes();
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Roles Round Trip Test")
+    void rolesRoundTripTest() {
+        log.info("Staring the Test 1: rolesRoundTripTest");
+
+        final List<GrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_ADMIN"),
+                new SimpleGrantedAuthority("ROLE_USER"));
+
+        final String codes = authorityCodes.encode(authorities);
+
+        assertEquals("ADMIN,USER", codes);
+        assertEquals(authorities, authorityCodes.decode(codes));
+        assertSame(authorityCodes.decode(codes), authorityCodes.decode(codes));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Authorities Without Role Prefix Round Trip Test")
+    void authoritiesRoundTripTest() {
+        log.info("Staring the Test 2: authoritiesRoundTripTest");
+
+        final List<GrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_ADMIN"),
+                new SimpleGrantedAuthority("SCOPE_read"),
+                new SimpleGrantedAuthority("ROLE"));
+
+        final String codes = authorityCodes.encode(authorities);
+
+        assertEquals("ADMIN,!SCOPE_read,!ROLE", codes);
+        assertEquals(authorities, authorityCodes.decode(codes));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Authorities That Can't Be Encoded Test")
+    void authoritiesNotEncodedTest() {
+        log.info("Staring the Test 3: authoritiesNotEncodedTest");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> authorityCodes.encode(List.of(new SimpleGrantedAuthority("ROLE_A,ROLE_B"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> authorityCodes.encode(List.of(new SimpleGrantedAuthority("ROLE_!ADMIN"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> authorityCodes.encode(List.of(new SimpleGrantedAuthority("ROLE_"))));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Decode Empty Codes Test")
+    void decodeEmptyTest() {
+        log.info("Staring the Test 4: decodeEmptyTest");
+
+        assertEquals(List.of(), authorityCodes.decode(null));
+        assertEquals(List.of(), authorityCodes.decode(""));
+        assertEquals("", authorityCodes.encode(List.of()));
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.pizzashop.principal.security;
+
+import com.pizzashop.principal.caches.RoleRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@Slf4j
+public class RoleMaskAuthorizationManagerTest {
+
+    private RoleMaskAuthorizationManager authorizationManager;
+
+    private Authentication user;
+
+    public static class Guard {
+
+        public boolean isOpen(final String name) {
+            return "t_user1".equals(name);
+        }
+    }
+
+    public static class Controller {
+
+        @PreAuthorize("@guard.isOpen(authentication.name)")
+        public String guarded() {
+            return "guarded";
+        }
+
+        @PreAuthorize("hasRole('USER') and hasRole('ADMIN')")
+        public String admin() {
+            return "admin";
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        final GenericApplicationContext applicationContext = new GenericApplicationContext();
+
+        applicationContext.registerBean("guard", Guard.class, Guard::new);
+        applicationContext.refresh();
+
+        final DefaultMethodSecurityExpressionHandler expressionHandler =
+                new DefaultMethodSecurityExpressionHandler();
+
+        expressionHandler.setApplicationContext(applicationContext);
+
+        authorizationManager = new RoleMaskAuthorizationManager(RoleRegistry::new, expressionHandler);
+
+        user = new UsernamePasswordAuthenticationToken("t_user1", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Expression With A Bean Reference Test")
+    void beanReferenceTest() throws NoSuchMethodException {
+        log.info("Staring the Test 1: beanReferenceTest");
+
+        assertTrue(authorizationManager.check(() -> user, invocation("guarded")).isGranted());
+
+        final Authentication other = new UsernamePasswordAuthenticationToken("t_user2", null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        assertFalse(authorizationManager.check(() -> other, invocation("guarded")).isGranted());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Expression That Is Not A Role Check Test")
+    void notRoleCheckTest() throws NoSuchMethodException {
+        log.info("Staring the Test 2: notRoleCheckTest");
+
+        assertFalse(authorizationManager.check(() -> user, invocation("admin")).isGranted());
+    }
+
+    private SimpleMethodInvocation invocation(final String method) throws NoSuchMethodException {
+        return new SimpleMethodInvocation(new Controller(), Controller.class.getMethod(method));
+    }
+
+}
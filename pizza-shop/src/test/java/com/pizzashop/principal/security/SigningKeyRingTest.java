@@ -0,0 +1,279 @@
+package com.pizzashop.principal.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@Slf4j
+public class SigningKeyRingTest {
+
+    private static final long REFRESH_TOKEN_VALIDITY = 3600000L;
+
+    @TempDir
+    private Path directory;
+
+    private String legacySecret;
+
+    private KeyPair first;
+    private KeyPair second;
+
+    private Path keysFile;
+
+    @BeforeEach
+    void setUp() {
+        legacySecret = Encoders.BASE64.encode(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+        first = Keys.keyPairFor(SignatureAlgorithm.RS256);
+        second = Keys.keyPairFor(SignatureAlgorithm.RS256);
+        keysFile = directory.resolve("signing-keys.properties");
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("Sign With Active Kid Test")
+    void signWithActiveKidTest() throws IOException {
+        log.info("Staring the Test 1: signWithActiveKidTest");
+
+        writeKeys("first", Instant.now());
+        final SigningKeyRing signingKeyRing = signingKeyRing(null);
+
+        final Jws<Claims> jws = parse(signingKeyRing, sign(signingKeyRing));
+
+        assertEquals("first", jws.getHeader().getKeyId());
+        assertEquals("t_admin", jws.getBody().getSubject());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Rotation Keeps The Old Tokens Valid Test")
+    void rotationTest() throws IOException {
+        log.info("Staring the Test 2: rotationTest");
+
+        final Instant now = Instant.now();
+        writeKeys("first", now.minus(1, ChronoUnit.MINUTES));
+        final SigningKeyRing signingKeyRing = signingKeyRing(null);
+        final String oldToken = sign(signingKeyRing);
+
+        writeKeys("second", now);
+        signingKeyRing.reload();
+        final String newToken = sign(signingKeyRing);
+
+        assertEquals("first", parse(signingKeyRing, oldToken).getHeader().getKeyId());
+        assertEquals("second", parse(signingKeyRing, newToken).getHeader().getKeyId());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Invalid Reload Keeps The Keys Test")
+    void invalidReloadTest() throws IOException {
+        log.info("Staring the Test 3: invalidReloadTest");
+
+        final Instant now = Instant.now();
+        writeKeys("first", now.minus(1, ChronoUnit.MINUTES));
+        final SigningKeyRing signingKeyRing = signingKeyRing(null);
+
+        Files.writeString(keysFile, "active=missing\n");
+        Files.setLastModifiedTime(keysFile, FileTime.from(now));
+        signingKeyRing.reload();
+
+        assertEquals("first", parse(signingKeyRing, sign(signingKeyRing)).getHeader().getKeyId());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("JWKS Publishes The Public Keys Test")
+    @SuppressWarnings("unchecked")
+    void jwksTest() throws IOException {
+        log.info("Staring the Test 4: jwksTest");
+
+        writeKeys("first", Instant.now());
+        final SigningKeyRing signingKeyRing = signingKeyRing(null);
+
+        final List<Map<String, Object>> keys = (List<Map<String, Object>>) signingKeyRing.getJwks().get("keys");
+
+        assertEquals(2, keys.size());
+
+        for (Map<String, Object> jwk : keys) {
+            final RSAPublicKey publicKey = (RSAPublicKey) ("first".equals(jwk.get("kid"))
+                    ? first.getPublic() : second.getPublic());
+
+            assertEquals("RSA", jwk.get("kty"));
+            assertEquals("sig", jwk.get("use"));
+            assertEquals("RS256", jwk.get("alg"));
+            assertFalse(jwk.containsKey("d"));
+            assertEquals(publicKey.getModulus(), fromBase64Url(jwk.get("n")));
+            assertEquals(publicKey.getPublicExponent(), fromBase64Url(jwk.get("e")));
+        }
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("JWKS Is Empty With HMAC Test")
+    void jwksHmacTest() {
+        log.info("Staring the Test 5: jwksHmacTest");
+
+        final SigningKeyRing signingKeyRing = new SigningKeyRing();
+        ReflectionTestUtils.setField(signingKeyRing, "SIGNING_KEY", legacySecret);
+        ReflectionTestUtils.setField(signingKeyRing, "ALGORITHM", "HS256");
+        ReflectionTestUtils.setField(signingKeyRing, "KEYS_LOCATION", "");
+        signingKeyRing.init();
+
+        assertEquals(Map.of("keys", List.of()), signingKeyRing.getJwks());
+        assertEquals("default", parse(signingKeyRing, sign(signingKeyRing)).getHeader().getKeyId());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Unknown Kid Is Rejected Test")
+    void unknownKidTest() throws IOException {
+        log.info("Staring the Test 6: unknownKidTest");
+
+        writeKeys("first", Instant.now());
+        final SigningKeyRing signingKeyRing = signingKeyRing(null);
+
+        final String token = Jwts.builder()
+                .setSubject("t_admin")
+                .setHeaderParam(JwsHeader.KEY_ID, "other")
+                .signWith(Keys.keyPairFor(SignatureAlgorithm.RS256).getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+
+        Exception exception = assertThrows(SignatureException.class, () -> parse(signingKeyRing, token));
+
+        assertEquals("Unknown signing key id other.", exception.getMessage());
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Legacy Tokens Are Accepted Until The Longest Validity By Default Test")
+    void legacyDefaultCutOffTest() throws IOException {
+        log.info("Staring the Test 7: legacyDefaultCutOffTest");
+
+        writeKeys("first", Instant.now());
+        final SigningKeyRing signingKeyRing = signingKeyRing(null);
+
+        final Instant legacyUntil = (Instant) ReflectionTestUtils.getField(signingKeyRing, "legacyUntil");
+
+        assertNotNull(legacyUntil);
+        assertTrue(legacyUntil.isAfter(Instant.now().plusMillis(REFRESH_TOKEN_VALIDITY - 60000)));
+        assertEquals("t_admin", parse(signingKeyRing, legacyToken()).getBody().getSubject());
+        assertEquals("default", parse(signingKeyRing, defaultKidToken()).getHeader().getKeyId());
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Token Without Kid Is Accepted Before The Cut-Off Test")
+    void legacyAcceptedTest() throws IOException {
+        log.info("Staring the Test 8: legacyAcceptedTest");
+
+        writeKeys("first", Instant.now());
+        final SigningKeyRing signingKeyRing = signingKeyRing(Instant.now().plus(1, ChronoUnit.DAYS));
+
+        assertEquals("t_admin", parse(signingKeyRing, legacyToken()).getBody().getSubject());
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Token Without Kid Is Rejected After The Cut-Off Test")
+    void legacyExpiredTest() throws IOException {
+        log.info("Staring the Test 9: legacyExpiredTest");
+
+        writeKeys("first", Instant.now());
+        final SigningKeyRing signingKeyRing = signingKeyRing(Instant.now().minus(1, ChronoUnit.DAYS));
+
+        Exception exception = assertThrows(SignatureException.class,
+                () -> parse(signingKeyRing, legacyToken()));
+
+        assertEquals("The token has no signing key id.", exception.getMessage());
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Default Kid Is Rejected After The Cut-Off Test")
+    void defaultKidExpiredTest() throws IOException {
+        log.info("Staring the Test 10: defaultKidExpiredTest");
+
+        writeKeys("first", Instant.now());
+        final SigningKeyRing signingKeyRing = signingKeyRing(Instant.now().minus(1, ChronoUnit.DAYS));
+
+        Exception exception = assertThrows(SignatureException.class,
+                () -> parse(signingKeyRing, defaultKidToken()));
+
+        assertEquals("Unknown signing key id default.", exception.getMessage());
+    }
+
+    private SigningKeyRing signingKeyRing(final Instant legacyUntil) {
+        final SigningKeyRing signingKeyRing = new SigningKeyRing();
+        ReflectionTestUtils.setField(signingKeyRing, "SIGNING_KEY", legacySecret);
+        ReflectionTestUtils.setField(signingKeyRing, "ALGORITHM", "RS256");
+        ReflectionTestUtils.setField(signingKeyRing, "KEYS_LOCATION", keysFile.toString());
+        ReflectionTestUtils.setField(signingKeyRing, "LEGACY_UNTIL",
+                legacyUntil == null ? "" : legacyUntil.toString());
+        ReflectionTestUtils.setField(signingKeyRing, "REFRESH_TOKEN_VALIDITY", REFRESH_TOKEN_VALIDITY);
+        signingKeyRing.init();
+
+        return signingKeyRing;
+    }
+
+    private void writeKeys(final String activeKid, final Instant modified) throws IOException {
+        Files.writeString(keysFile, "active=" + activeKid + "\n" +
+                "key.first=" + Encoders.BASE64.encode(first.getPrivate().getEncoded()) + "\n" +
+                "key.second=" + Encoders.BASE64.encode(second.getPrivate().getEncoded()) + "\n");
+        Files.setLastModifiedTime(keysFile, FileTime.from(modified));
+    }
+
+    private String sign(final SigningKeyRing signingKeyRing) {
+        return signingKeyRing.signWith(Jwts.builder().setSubject("t_admin")).compact();
+    }
+
+    private String legacyToken() {
+        return Jwts.builder()
+                .setSubject("t_admin")
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(legacySecret)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private String defaultKidToken() {
+        return Jwts.builder()
+                .setSubject("t_admin")
+                .setHeaderParam(JwsHeader.KEY_ID, "default")
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(legacySecret)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private Jws<Claims> parse(final SigningKeyRing signingKeyRing, final String token) {
+        final JwtParser parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(signingKeyRing)
+                .build();
+
+        return parser.parseClaimsJws(token);
+    }
+
+    private BigInteger fromBase64Url(final Object value) {
+        return new BigInteger(1, Decoders.BASE64URL.decode((String) value));
+    }
+}
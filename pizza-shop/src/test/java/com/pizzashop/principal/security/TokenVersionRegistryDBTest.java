@@ -0,0 +1,83 @@
+package com.pizzashop.principal.security;
+
+import com.pizzashop.principal.entities.TokenVersionEntity;
+import com.pizzashop.principal.repositories.TokenVersionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ActiveProfiles("test")
+@Slf4j
+public class TokenVersionRegistryDBTest {
+
+    private static final Long CHANGED_USER_ID = 900L;
+
+    private static final Long DELETED_USER_ID = 901L;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private TokenVersionRepository tokenVersionRepository;
+
+    @Test
+    @Order(1)
+    @DisplayName("Token Version Changed By Another Node Test")
+    void tokenVersionChangedByAnotherNodeTest() {
+        log.info("Staring the Test 1: tokenVersionChangedByAnotherNodeTest");
+
+        assertTrue(tokenVersionRegistry.isCurrent(CHANGED_USER_ID, 0));
+
+        tokenVersionRepository.save(TokenVersionEntity.builder()
+                .userId(CHANGED_USER_ID)
+                .tokenVersion(3)
+                .changedAt(Instant.now())
+                .build());
+
+        assertTrue(tokenVersionRegistry.isCurrent(CHANGED_USER_ID, 0));
+
+        tokenVersionRegistry.refresh();
+
+        assertFalse(tokenVersionRegistry.isCurrent(CHANGED_USER_ID, 0));
+        assertTrue(tokenVersionRegistry.isCurrent(CHANGED_USER_ID, 3));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("User Deleted By Another Node Test")
+    void userDeletedByAnotherNodeTest() {
+        log.info("Staring the Test 2: userDeletedByAnotherNodeTest");
+
+        tokenVersionRepository.save(TokenVersionEntity.builder()
+                .userId(DELETED_USER_ID)
+                .tokenVersion(-1)
+                .changedAt(Instant.now())
+                .build());
+
+        tokenVersionRegistry.refresh();
+
+        assertFalse(tokenVersionRegistry.isCurrent(DELETED_USER_ID, 0));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Local Change Is Written For The Other Nodes Test")
+    void localChangeWrittenTest() {
+        log.info("Staring the Test 3: localChangeWrittenTest");
+
+        tokenVersionRegistry.update(CHANGED_USER_ID, 4);
+
+        assertEquals(4, tokenVersionRepository.findById(CHANGED_USER_ID)
+                .orElseThrow().getTokenVersion());
+        assertTrue(tokenVersionRegistry.isCurrent(CHANGED_USER_ID, 4));
+    }
+
+}
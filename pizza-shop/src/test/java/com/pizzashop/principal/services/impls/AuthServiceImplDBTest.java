@@ -2,21 +2,37 @@ package com.pizzashop.principal.services.impls;
 
 import com.pizzashop.principal.dtos.AuthRequestDTO;
 import com.pizzashop.principal.dtos.AuthResponseDTO;
+import com.pizzashop.principal.entities.RevokedTokenEntity;
 import com.pizzashop.principal.helpers.HttpServletRequestHelper;
+import com.pizzashop.principal.repositories.RevokedTokenRepository;
+import com.pizzashop.principal.security.BloomFilter;
+import com.pizzashop.principal.security.JwtAuthenticationFilter;
 import com.pizzashop.principal.security.TokenProvider;
+import com.pizzashop.principal.security.TokenRevocationStore;
 import com.pizzashop.principal.services.AuthService;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -35,9 +51,20 @@ public class AuthServiceImplDBTest {
     @Autowired
     private HttpServletResponse response;
 
+    private static final String NOT_REVOKED_ID = "not-revoked";
+
     @Autowired
     private TokenProvider tokenProvider;
 
+    @Autowired
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
     private AuthRequestDTO roleAdmin;
     private AuthRequestDTO roleUser;
     private AuthRequestDTO userNotExist;
@@ -198,10 +225,10 @@ public class AuthServiceImplDBTest {
     }
 
     @Test
-    @Order(9)
+    @Order(10)
     @DisplayName("Refresh Bearer Token Is Malformed Test")
     void refreshBearerTokenIsMalformedTest() {
-        log.info("Staring the Test 9: refreshBearerTokenIsMalformedTest");
+        log.info("Staring the Test 10: refreshBearerTokenIsMalformedTest");
 
         AuthResponseDTO authResponseDTO = authService.login(roleAdmin);
 
@@ -222,16 +249,177 @@ public class AuthServiceImplDBTest {
     }
 
     @Test
-    @Order(10)
+    @Order(11)
+    @DisplayName("Refresh Token Reuse Test")
+    void refreshTokenReuseTest() {
+        log.info("Staring the Test 11: refreshTokenReuseTest");
+
+        AuthResponseDTO authResponseDTO = authService.login(roleAdmin);
+
+        HttpServletRequestHelper helper = new HttpServletRequestHelper(request);
+
+        helper.putHeader("Authorization", "Bearer " + authResponseDTO.getRefreshToken());
+
+        AuthResponseDTO refreshResponseDTO = authService.refresh(helper, response);
+
+        assertNotEquals(authResponseDTO.getRefreshToken(), refreshResponseDTO.getRefreshToken());
+
+        Exception reusedToken = assertThrows(MalformedJwtException.class,
+                () -> authService.refresh(helper, response));
+
+        assertEquals("The refresh token has already been used.", reusedToken.getMessage());
+    }
+
+    @Test
+    @Order(12)
     @DisplayName("Logout Test")
     void logoutTest() {
-        log.info("Staring the Test 10: logoutTest");
+        log.info("Staring the Test 12: logoutTest");
 
-        authService.logout();
+        authService.logout(request);
 
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
 
+    @Test
+    @Order(13)
+    @DisplayName("Refresh After Logout Test")
+    void refreshAfterLogoutTest() {
+        log.info("Staring the Test 13: refreshAfterLogoutTest");
+
+        AuthResponseDTO authResponseDTO = authService.login(roleAdmin);
+
+        HttpServletRequestHelper logoutHelper = new HttpServletRequestHelper(request);
+
+        logoutHelper.putHeader("Authorization", "Bearer " + authResponseDTO.getAccessToken());
+
+        authService.logout(logoutHelper);
+
+        HttpServletRequestHelper refreshHelper = new HttpServletRequestHelper(request);
+
+        refreshHelper.putHeader("Authorization", "Bearer " + authResponseDTO.getRefreshToken());
+
+        Exception revokedToken = assertThrows(MalformedJwtException.class,
+                () -> authService.refresh(refreshHelper, response));
+
+        assertEquals("This is not a valid token.", revokedToken.getMessage());
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Access Token After Logout Test")
+    void accessTokenAfterLogoutTest() throws ServletException, IOException {
+        log.info("Staring the Test 14: accessTokenAfterLogoutTest");
+
+        AuthResponseDTO loggedIn = authService.login(roleAdmin);
+        AuthResponseDTO loggedOut = authService.login(roleAdmin);
+
+        HttpServletRequestHelper logoutHelper = new HttpServletRequestHelper(request);
+
+        logoutHelper.putHeader("Authorization", "Bearer " + loggedOut.getAccessToken());
+
+        authService.logout(logoutHelper);
+
+        assertTrue(tokenRevocationStore.isRevoked(
+                tokenProvider.verifyToken(loggedOut.getAccessToken()).id()));
+
+        assertNull(filter(loggedOut.getAccessToken()));
+
+        Authentication authentication = filter(loggedIn.getAccessToken());
+
+        assertNotNull(authentication);
+        assertEquals("t_admin", authentication.getName());
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Revoked Token Bloom Filter False Positive Test")
+    void revokedTokenBloomFilterFalsePositiveTest() {
+        log.info("Staring the Test 15: revokedTokenBloomFilterFalsePositiveTest");
+
+        final Object bloomFilter = ReflectionTestUtils.getField(tokenRevocationStore, "bloomFilter");
+        final BloomFilter saturated = new BloomFilter(1, 0.5);
+
+        for (int i = 0; !saturated.mightContain(NOT_REVOKED_ID); i++) {
+            saturated.put("revoked-" + i);
+        }
+
+        try {
+            ReflectionTestUtils.setField(tokenRevocationStore, "bloomFilter", saturated);
+
+            assertFalse(tokenRevocationStore.isRevoked(NOT_REVOKED_ID));
+        } finally {
+            ReflectionTestUtils.setField(tokenRevocationStore, "bloomFilter", bloomFilter);
+        }
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("Token Revoked By Another Node Test")
+    void tokenRevokedByAnotherNodeTest() {
+        log.info("Staring the Test 16: tokenRevokedByAnotherNodeTest");
+
+        final String id = UUID.randomUUID().toString();
+        final Instant now = Instant.now();
+
+        revokedTokenRepository.save(RevokedTokenEntity.builder()
+                .id(id)
+                .expiresAt(now.plus(Duration.ofHours(1)))
+                .revokedAt(now)
+                .build());
+
+        assertFalse(tokenRevocationStore.isRevoked(id));
+
+        tokenRevocationStore.refresh();
+
+        assertTrue(tokenRevocationStore.isRevoked(id));
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("Renewed Access Token After Logout Test")
+    void renewedAccessTokenAfterLogoutTest() throws ServletException, IOException {
+        log.info("Staring the Test 17: renewedAccessTokenAfterLogoutTest");
+
+        AuthResponseDTO loggedOut = authService.login(roleAdmin);
+
+        final String renewed = tokenProvider.generateAccessToken(
+                SecurityContextHolder.getContext().getAuthentication(),
+                tokenProvider.verifyToken(loggedOut.getAccessToken()).familyId());
+
+        assertNotNull(filter(renewed));
+
+        HttpServletRequestHelper logoutHelper = new HttpServletRequestHelper(request);
+
+        logoutHelper.putHeader("Authorization", "Bearer " + loggedOut.getAccessToken());
+
+        authService.logout(logoutHelper);
+
+        assertFalse(tokenRevocationStore.isRevoked(tokenProvider.verifyToken(renewed).id()));
+        assertTrue(tokenRevocationStore.isRevoked(tokenProvider.verifyToken(renewed)));
+
+        assertNull(filter(renewed));
+    }
+
+    /**
+     * Run the access token through the authentication filter, on a clean security context.
+     *
+     * @param accessToken String access token.
+     * @return Authentication set by the filter, null if the token was rejected.
+     */
+    private Authentication filter(final String accessToken) throws ServletException, IOException {
+        SecurityContextHolder.clearContext();
+
+        MockHttpServletRequest filterRequest = new MockHttpServletRequest();
+
+        filterRequest.addHeader("Authorization", "Bearer " + accessToken);
+
+        jwtAuthenticationFilter.doFilter(filterRequest, new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
     private void testResponseStatusOK(AuthResponseDTO responseDTO, String user) {
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
         assertEquals(user, SecurityContextHolder.getContext().getAuthentication().getName());
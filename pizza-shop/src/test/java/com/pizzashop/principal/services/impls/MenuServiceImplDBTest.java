@@ -0,0 +1,92 @@
+package com.pizzashop.principal.services.impls;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzashop.principal.dtos.MenuCategoryDTO;
+import com.pizzashop.principal.dtos.MenuProductDTO;
+import com.pizzashop.principal.dtos.MenuResponseDTO;
+import com.pizzashop.principal.services.MenuService;
+import com.pizzashop.principal.services.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ActiveProfiles("test")
+@Slf4j
+public class MenuServiceImplDBTest {
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @Order(1)
+    @DisplayName("Find Menu Groups The Products By Category Test")
+    @Sql({"/menu_data.sql"})
+    void findMenuTest() {
+        log.info("Staring the Test 1: findMenuTest");
+
+        // The rows of the script are not written through the services
+        menuService.invalidate();
+
+        MenuResponseDTO menu = menuService.findMenu();
+
+        assertEquals(menu.categories().stream().map(MenuCategoryDTO::id).sorted().toList(),
+                menu.categories().stream().map(MenuCategoryDTO::id).toList());
+
+        assertEquals(List.of(200L, 201L), productIds(category(menu, 200L)));
+        assertEquals("MENU_C1", category(menu, 200L).name());
+        assertEquals(List.of(), productIds(category(menu, 201L)));
+        assertEquals(List.of(202L), productIds(category(menu, 202L)));
+        assertEquals(3.5, category(menu, 202L).products().get(0).price());
+
+        assertSame(menu, menuService.findMenu());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Find Menu Rebuilt After A Product Write Test")
+    void findMenuAfterProductWriteTest() throws JsonProcessingException {
+        log.info("Staring the Test 2: findMenuAfterProductWriteTest");
+
+        final MenuResponseDTO before = menuService.findMenu();
+
+        productService.patchProduct(201L,
+                objectMapper.readTree("{\"price\": 9.5, \"categoryId\": 201}"), null);
+
+        MenuResponseDTO after = menuService.findMenu();
+
+        assertNotSame(before, after);
+        assertNotEquals(before.version(), after.version());
+        assertEquals(List.of(200L), productIds(category(after, 200L)));
+        assertEquals(List.of(201L), productIds(category(after, 201L)));
+        assertEquals(9.5, category(after, 201L).products().get(0).price());
+        assertSame(after, menuService.findMenu());
+    }
+
+    private MenuCategoryDTO category(final MenuResponseDTO menu, final Long id) {
+        return menu.categories().stream()
+                .filter(category -> category.id().equals(id))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private List<Long> productIds(final MenuCategoryDTO category) {
+        return category.products().stream().map(MenuProductDTO::id).toList();
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.pizzashop.principal.services.impls;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzashop.principal.dtos.ProductResponseDTO;
+import com.pizzashop.principal.entities.ProductEntity;
+import com.pizzashop.principal.entities.ProductStatus;
+import com.pizzashop.principal.exceptions.EntityNotFoundException;
+import com.pizzashop.principal.exceptions.NameAlreadyExistsException;
+import com.pizzashop.principal.exceptions.PreconditionFailedException;
+import com.pizzashop.principal.services.ProductService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ActiveProfiles("test")
+@Slf4j
+public class ProductServiceImplDBTest {
+
+    private static final Long PRODUCT_ID = 100L;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @Order(1)
+    @DisplayName("Patch Product Unchanged Name Is Not Checked Test")
+    @Sql({"/product_patch_data.sql"})
+    void patchProductUnchangedNameTest() throws JsonProcessingException {
+        log.info("Staring the Test 1: patchProductUnchangedNameTest");
+
+        ProductEntity product = productService.patchProduct(PRODUCT_ID,
+                objectMapper.readTree("{\"name\": \"PATCH_P1\", \"description\": \"Patched\"}"),
+                productService.findProductVersion(PRODUCT_ID));
+
+        assertEquals("PATCH_P1", product.getName());
+        assertEquals("Patched", product.getDescription());
+        assertEquals(ProductStatus.STOCK, product.getStatus());
+        assertEquals(1.1, product.getPrice());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Patch Product Changed Name Is Checked Test")
+    void patchProductChangedNameTest() {
+        log.info("Staring the Test 2: patchProductChangedNameTest");
+
+        Exception exception = assertThrows(NameAlreadyExistsException.class,
+                () -> productService.patchProduct(PRODUCT_ID,
+                        objectMapper.readTree("{\"name\": \"PATCH_P2\"}"), null));
+
+        assertEquals("409 CONFLICT \"Busy name.\"", exception.getMessage());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Patch Product Status Is Null Test")
+    void patchProductStatusIsNullTest() {
+        log.info("Staring the Test 3: patchProductStatusIsNullTest");
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> productService.patchProduct(PRODUCT_ID,
+                        objectMapper.readTree("{\"status\": null}"), null));
+
+        assertEquals("must not be null In field: status.", exception.getMessage());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Patch Product Category Test")
+    void patchProductCategoryTest() throws JsonProcessingException {
+        log.info("Staring the Test 4: patchProductCategoryTest");
+
+        productService.patchProduct(PRODUCT_ID,
+                objectMapper.readTree("{\"categoryId\": 101, \"status\": \"ORDER\"}"), null);
+
+        ProductResponseDTO product = productService.findProductById(PRODUCT_ID);
+
+        assertEquals(101L, product.category().id());
+        assertEquals(ProductStatus.ORDER, product.status());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> productService.patchProduct(PRODUCT_ID,
+                        objectMapper.readTree("{\"categoryId\": 999}"), null));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Patch Product Outdated Version Test")
+    void patchProductOutdatedVersionTest() throws JsonProcessingException {
+        log.info("Staring the Test 5: patchProductOutdatedVersionTest");
+
+        final String version = productService.findProductVersion(PRODUCT_ID);
+
+        productService.patchProduct(PRODUCT_ID,
+                objectMapper.readTree("{\"amount\": 5}"), version);
+
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class,
+                () -> productService.patchProduct(PRODUCT_ID,
+                        objectMapper.readTree("{\"amount\": 6}"), version));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatusCode());
+        assertEquals(5, productService.findProductById(PRODUCT_ID).amount());
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.pizzashop.principal.services.impls;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzashop.principal.entities.UserEntity;
+import com.pizzashop.principal.exceptions.EmailAlreadyExistsException;
+import com.pizzashop.principal.exceptions.PreconditionFailedException;
+import com.pizzashop.principal.exceptions.UsernameAlreadyExistsException;
+import com.pizzashop.principal.services.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@ActiveProfiles("test")
+@Slf4j
+public class UserServiceImplDBTest {
+
+    private static final Long USER_ID = 100L;
+
+    private static final Long INVALID_USER_ID = 102L;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @Order(1)
+    @DisplayName("Patch User Without Password Keeps The Hash Test")
+    @Sql({"/user_patch_data.sql"})
+    void patchUserWithoutPasswordTest() throws JsonProcessingException {
+        log.info("Staring the Test 1: patchUserWithoutPasswordTest");
+
+        final UserEntity before = userService.findUserById(USER_ID);
+        final String password = before.getPassword();
+        final Integer tokenVersion = before.getTokenVersion();
+
+        UserEntity user = userService.patchUser(USER_ID,
+                objectMapper.readTree("{\"username\":\"t_patch1\", " +
+                        "\"email\": \"t_patch1@pizzashop.com\", \"phone\": \"111-111-1111\"}"),
+                userService.findUserVersion(USER_ID));
+
+        assertEquals("111-111-1111", user.getPhone());
+        assertEquals("t_patch1", user.getUsername());
+        assertEquals(password, user.getPassword());
+        assertEquals(tokenVersion, user.getTokenVersion());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Patch User With Password Encodes It Test")
+    void patchUserWithPasswordTest() throws JsonProcessingException {
+        log.info("Staring the Test 2: patchUserWithPasswordTest");
+
+        final UserEntity before = userService.findUserById(USER_ID);
+        final String password = before.getPassword();
+        final int tokenVersion = before.getTokenVersion() == null ? 0 : before.getTokenVersion();
+
+        UserEntity user = userService.patchUser(USER_ID,
+                objectMapper.readTree("{\"password\": \"Patch1234\"}"), null);
+
+        assertNotEquals(password, user.getPassword());
+        assertTrue(passwordEncoder.matches("Patch1234", user.getPassword()));
+        assertEquals(tokenVersion + 1, user.getTokenVersion());
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Patch User Changed Username Is Checked Test")
+    void patchUserChangedUsernameTest() {
+        log.info("Staring the Test 3: patchUserChangedUsernameTest");
+
+        Exception exception = assertThrows(UsernameAlreadyExistsException.class,
+                () -> userService.patchUser(USER_ID,
+                        objectMapper.readTree("{\"username\": \"t_patch2\"}"), null));
+
+        assertEquals("409 CONFLICT \"Busy username.\"", exception.getMessage());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Patch User Changed Email Is Checked Test")
+    void patchUserChangedEmailTest() {
+        log.info("Staring the Test 4: patchUserChangedEmailTest");
+
+        Exception exception = assertThrows(EmailAlreadyExistsException.class,
+                () -> userService.patchUser(USER_ID,
+                        objectMapper.readTree("{\"email\": \"t_patch2@pizzashop.com\"}"), null));
+
+        assertEquals("409 CONFLICT \"Busy email.\"", exception.getMessage());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Patch User Outdated Version Test")
+    void patchUserOutdatedVersionTest() throws JsonProcessingException {
+        log.info("Staring the Test 5: patchUserOutdatedVersionTest");
+
+        final String version = userService.findUserVersion(USER_ID);
+
+        userService.patchUser(USER_ID,
+                objectMapper.readTree("{\"middleName\": \"Patched\"}"), version);
+
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class,
+                () -> userService.patchUser(USER_ID,
+                        objectMapper.readTree("{\"middleName\": \"Outdated\"}"), version));
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatusCode());
+        assertEquals("Patched", userService.findUserById(USER_ID).getMiddleName());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Patch User Validates Only The Patched Fields Test")
+    void patchUserValidatesPatchedFieldsTest() throws JsonProcessingException {
+        log.info("Staring the Test 6: patchUserValidatesPatchedFieldsTest");
+
+        UserEntity user = userService.patchUser(INVALID_USER_ID,
+                objectMapper.readTree("{\"email\": \"t_patch3_new@pizzashop.com\"}"), null);
+
+        assertEquals("t_patch3_new@pizzashop.com", user.getEmail());
+        assertEquals("", user.getPhone());
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> userService.patchUser(INVALID_USER_ID,
+                        objectMapper.readTree("{\"phone\": \"5555\"}"), null));
+
+        assertTrue(exception.getMessage().endsWith(" In field: phone."));
+    }
+
+}
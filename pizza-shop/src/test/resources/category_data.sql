@@ -1,4 +1,7 @@
 -- Inserting test values into the table category
-INSERT INTO t_category (name, description) VALUES ('C', 'C');
-INSERT INTO t_category (name, description) VALUES ('C1', 'C1');
-INSERT INTO t_category (name, description) VALUES ('C2', 'C2');
\ No newline at end of file
+INSERT INTO t_category (id, name, description) VALUES (1, 'C', 'C');
+INSERT INTO t_category (id, name, description) VALUES (2, 'C1', 'C1');
+INSERT INTO t_category (id, name, description) VALUES (3, 'C2', 'C2');
+
+-- Moving the sequence after the inserted ids
+SELECT setval('t_category_seq', (SELECT MAX(id) FROM t_category));
@@ -0,0 +1,16 @@
+-- Inserting test values into the table category
+INSERT INTO t_category (id, name, description) VALUES (200, 'MENU_C1', 'MENU_C1');
+INSERT INTO t_category (id, name, description) VALUES (201, 'MENU_C2', 'MENU_C2');
+INSERT INTO t_category (id, name, description) VALUES (202, 'MENU_C3', 'MENU_C3');
+
+-- Inserting test values into the table product
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (201, 'MENU_P2', 'MENU_P2', 1, 2.5, 'img2','STOCK', 200);
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (200, 'MENU_P1', 'MENU_P1', 1, 1.5, 'img1','STOCK', 200);
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (202, 'MENU_P3', 'MENU_P3', 1, 3.5, 'img3','ORDER', 202);
+
+-- Moving the sequences after the inserted ids
+SELECT setval('t_category_seq', (SELECT MAX(id) FROM t_category));
+SELECT setval('t_product_seq', (SELECT MAX(id) FROM t_product));
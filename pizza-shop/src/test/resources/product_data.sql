@@ -1,10 +1,12 @@
-INSERT INTO t_product (name, description, amount, price, image_url, status, category_id)
-    VALUES ('P1', 'P1', 1, 1.1, 'img1','STOCK', 2);
-INSERT INTO t_product (name, description, amount, price, image_url, status, category_id)
-    VALUES ('P2', 'P2', 1, 1.1, 'img1','STOCK', 2);
-INSERT INTO t_product (name, description, amount, price, image_url, status, category_id)
-    VALUES ('P3', 'P3', 1, 1.1, 'img1','ORDER', 2);
-INSERT INTO t_product (name, description, amount, price, image_url, status, category_id)
-    VALUES ('P4', 'P4', 1, 1.1, 'img1','ORDER', 3);
-INSERT INTO t_product (name, description, amount, price, image_url, status, category_id)
-    VALUES ('P5', 'P5', 1, 1.1, 'img1','STOCK', 3);
\ No newline at end of file
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (1, 'P1', 'P1', 1, 1.1, 'img1','STOCK', 2);
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (2, 'P2', 'P2', 1, 1.1, 'img1','STOCK', 2);
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (3, 'P3', 'P3', 1, 1.1, 'img1','ORDER', 2);
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (4, 'P4', 'P4', 1, 1.1, 'img1','ORDER', 3);
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (5, 'P5', 'P5', 1, 1.1, 'img1','STOCK', 3);
+
+SELECT setval('t_product_seq', (SELECT MAX(id) FROM t_product));
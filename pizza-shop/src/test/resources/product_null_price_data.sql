@@ -0,0 +1,18 @@
+-- Inserting test values into the table category
+INSERT INTO t_category (id, name, description) VALUES (300, 'NULL_C1', 'NULL_C1');
+
+-- Inserting test values into the table product, some of them without price
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (300, 'NULL_P1', 'NULL_P1', 1, 2.0, 'img1','STOCK', 300);
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (301, 'NULL_P2', 'NULL_P2', 1, null, 'img2','STOCK', 300);
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (302, 'NULL_P3', 'NULL_P3', 1, 1.0, 'img3','STOCK', 300);
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (303, 'NULL_P4', 'NULL_P4', 1, null, 'img4','STOCK', 300);
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (304, 'NULL_P5', 'NULL_P5', 1, 2.0, 'img5','STOCK', 300);
+
+-- Moving the sequences after the inserted ids
+SELECT setval('t_category_seq', (SELECT MAX(id) FROM t_category));
+SELECT setval('t_product_seq', (SELECT MAX(id) FROM t_product));
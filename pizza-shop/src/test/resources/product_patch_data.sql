@@ -0,0 +1,13 @@
+-- Inserting test values into the table category
+INSERT INTO t_category (id, name, description) VALUES (100, 'PATCH_C1', 'PATCH_C1');
+INSERT INTO t_category (id, name, description) VALUES (101, 'PATCH_C2', 'PATCH_C2');
+
+-- Inserting test values into the table product
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (100, 'PATCH_P1', 'PATCH_P1', 1, 1.1, 'img1','STOCK', 100);
+INSERT INTO t_product (id, name, description, amount, price, image_url, status, category_id)
+    VALUES (101, 'PATCH_P2', 'PATCH_P2', 1, 1.1, 'img1','ORDER', 100);
+
+-- Moving the sequences after the inserted ids
+SELECT setval('t_category_seq', (SELECT MAX(id) FROM t_category));
+SELECT setval('t_product_seq', (SELECT MAX(id) FROM t_product));
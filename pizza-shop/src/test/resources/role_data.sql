@@ -1,2 +1,5 @@
 -- Inserting test values into the table role
-INSERT INTO t_role (name, description) VALUES ('R', 'R');
\ No newline at end of file
+INSERT INTO t_role (id, name, description) VALUES (3, 'R', 'R');
+
+-- Moving the sequence after the inserted ids
+SELECT setval('t_role_seq', (SELECT MAX(id) FROM t_role));
@@ -0,0 +1,17 @@
+-- Inserting test values into the table user
+INSERT INTO t_user (id, first_name, middle_name, last_name, username, email, password, phone)
+    VALUES (100, 'Patch1', 'Test', 'Patch1', 't_patch1', 't_patch1@pizzashop.com',
+    '$2a$10$X9MKk8buP915P9tDBqcTaeeTFOsiuYiaHTupBr6HDdMbBcHe5WvSy', '534-565-5555');
+INSERT INTO t_user (id, first_name, middle_name, last_name, username, email, password, phone)
+    VALUES (101, 'Patch2', 'Test', 'Patch2', 't_patch2', 't_patch2@pizzashop.com',
+    '$2a$10$X9MKk8buP915P9tDBqcTaeeTFOsiuYiaHTupBr6HDdMbBcHe5WvSy', '534-565-5555');
+INSERT INTO t_user (id, first_name, middle_name, last_name, username, email, password, phone)
+    VALUES (102, 'Patch3', 'Test', 'Patch3', 't_patch3', 't_patch3@pizzashop.com',
+    '$2a$10$X9MKk8buP915P9tDBqcTaeeTFOsiuYiaHTupBr6HDdMbBcHe5WvSy', '');
+
+INSERT INTO t_user_role (user_id, role_id) VALUES (100, 1);
+INSERT INTO t_user_role (user_id, role_id) VALUES (101, 1);
+INSERT INTO t_user_role (user_id, role_id) VALUES (102, 1);
+
+-- Moving the sequence after the inserted ids
+SELECT setval('t_user_seq', (SELECT MAX(id) FROM t_user));